@@ -0,0 +1,196 @@
+package rafa.tfg.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.core.io.ClassPathResource;
+import rafa.tfg.domain.model.Item;
+import rafa.tfg.domain.model.recommendation.AbilityTagBonus;
+import rafa.tfg.domain.model.recommendation.ChampionProfile;
+import rafa.tfg.domain.model.recommendation.EnemyComposition;
+import rafa.tfg.domain.model.recommendation.ItemCatalog;
+import rafa.tfg.domain.service.recommendation.CriteriaMatrixService;
+import rafa.tfg.infrastructure.batch.dto.ItemDataWrapper;
+import rafa.tfg.infrastructure.batch.dto.ItemJsonDTO;
+import rafa.tfg.infrastructure.batch.processor.ItemJsonProcessor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Datos de entrada de los benchmarks: conjuntos de items sintéticos (con semilla fija) o
+ * derivados de data/item.json con el mismo procesador que usa el job de importación
+ */
+public final class BenchmarkData {
+
+    static final long SEED = 42L;
+
+    private static List<Map.Entry<String, ItemJsonDTO>> itemJsonEntries;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Origen del conjunto de items
+     */
+    public enum Source {
+        SYNTHETIC,  // stats aleatorios con semilla fija
+        ITEM_JSON   // items de la Grieta del Invocador replicados hasta el tamaño pedido
+    }
+
+    static List<Item> items(Source source, int size) {
+        return switch (source) {
+            case SYNTHETIC -> syntheticItems(size, SEED);
+            case ITEM_JSON -> itemJsonItems(size);
+        };
+    }
+
+    /**
+     * Items sintéticos: cada item recibe 1-3 stats de un arquetipo (AD, AP, tanque, utilidad)
+     */
+    static List<Item> syntheticItems(int size, long seed) {
+        Random random = new Random(seed);
+        List<Item> items = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            Item.ItemBuilder builder = Item.builder()
+                    .itemId("synthetic-" + i)
+                    .name("Synthetic item " + i)
+                    .goldTotal(300 + random.nextInt(3200))
+                    .purchasable(true)
+                    .inStore(true);
+
+            int stats = 1 + random.nextInt(3);
+            for (int s = 0; s < stats; s++) {
+                switch (random.nextInt(10)) {
+                    case 0 -> builder.flatPhysicalDamageMod(10.0 + random.nextInt(60));
+                    case 1 -> builder.flatMagicDamageMod(20.0 + random.nextInt(100));
+                    case 2 -> builder.percentAttackSpeedMod(0.1 + random.nextDouble() * 0.4);
+                    case 3 -> builder.flatCritChanceMod(random.nextBoolean() ? 0.2 : 0.25);
+                    case 4 -> builder.flatArmorMod(15.0 + random.nextInt(70));
+                    case 5 -> builder.flatSpellBlockMod(15.0 + random.nextInt(70));
+                    case 6 -> builder.flatHPPoolMod(100.0 + random.nextInt(500));
+                    case 7 -> builder.percentArmorMod(0.1 + random.nextDouble() * 0.3);
+                    case 8 -> builder.percentLifeStealMod(0.05 + random.nextDouble() * 0.15);
+                    default -> builder.flatMovementSpeedMod(5.0 + random.nextInt(45));
+                }
+            }
+
+            items.add(builder.build());
+        }
+
+        return items;
+    }
+
+    /**
+     * Items de data/item.json (mapa 11); por encima de su número se replican con un sufijo en el id
+     */
+    static List<Item> itemJsonItems(int size) {
+        List<Map.Entry<String, ItemJsonDTO>> entries = itemJsonEntries();
+        ItemProcessor<Map.Entry<String, ItemJsonDTO>, Item> processor = itemProcessor();
+        List<Item> items = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            Map.Entry<String, ItemJsonDTO> entry = entries.get(i % entries.size());
+            int copy = i / entries.size();
+            String itemId = copy == 0 ? entry.getKey() : entry.getKey() + "-" + copy;
+            items.add(process(processor, Map.entry(itemId, entry.getValue())));
+        }
+
+        return items;
+    }
+
+    /**
+     * Snapshot del catálogo con las filas de criterios precalculadas, como ItemCatalogService.reload()
+     */
+    static ItemCatalog catalog(List<Item> items, CriteriaMatrixService criteriaMatrixService) {
+        double[][] criteriaRows = new double[items.size()][];
+        double[] goldEfficiencies = new double[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            criteriaRows[i] = criteriaMatrixService.extractCriteria(items.get(i));
+            goldEfficiencies[i] = criteriaMatrixService.calculateGoldEfficiency(
+                    criteriaRows[i], items.get(i).getGoldTotal());
+        }
+        return ItemCatalog.of(1L, items, criteriaRows, goldEfficiencies);
+    }
+
+    static ChampionProfile championProfile(ChampionProfile.ChampionScalingType scalingType) {
+        List<String> abilityTags = List.of("damage", "attackdamage", "cooldown", "attackspeed");
+
+        return ChampionProfile.builder()
+                .championName("Benchmark")
+                .championId("Benchmark")
+                .championLevel(11)
+                .totalAdRatio(3.5)
+                .totalApRatio(0.6)
+                .totalBonusAdRatio(2.1)
+                .totalHealthRatio(0.0)
+                .totalArmorRatio(0.0)
+                .totalMrRatio(0.0)
+                .abilitiesWithAdScaling(3)
+                .abilitiesWithApScaling(1)
+                .totalAbilities(4)
+                .abilityTags(abilityTags)
+                .abilityTagCounts(AbilityTagBonus.countTags(abilityTags))
+                .scalingType(scalingType)
+                .currentAd(180.0)
+                .currentAp(0.0)
+                .currentAttackSpeed(1.1)
+                .currentCdr(0.0)
+                .build();
+    }
+
+    static EnemyComposition enemyComposition() {
+        return EnemyComposition.builder()
+                .enemyChampionNames(List.of("Darius", "Ahri", "Leona", "Jinx", "Lee Sin"))
+                .enemyTeamSize(5)
+                .averageArmor(85.0)
+                .averageMagicResist(52.0)
+                .averageHealth(1900.0)
+                .physicalDamageChampions(3)
+                .magicDamageChampions(2)
+                .mixedDamageChampions(0)
+                .championsWithHardCC(3)
+                .championsWithSlows(2)
+                .totalCCAbilities(7)
+                .physicalThreat(0.6)
+                .magicalThreat(0.4)
+                .ccThreat(0.65)
+                .build();
+    }
+
+    /**
+     * Entradas de item.json que el procesador del job acepta (las del mapa 11)
+     */
+    private static synchronized List<Map.Entry<String, ItemJsonDTO>> itemJsonEntries() {
+        if (itemJsonEntries == null) {
+            ItemProcessor<Map.Entry<String, ItemJsonDTO>, Item> processor = itemProcessor();
+            try {
+                ItemDataWrapper wrapper = new ObjectMapper().readValue(
+                        new ClassPathResource("data/item.json").getInputStream(), ItemDataWrapper.class);
+                itemJsonEntries = wrapper.getData().entrySet().stream()
+                        .filter(entry -> process(processor, entry) != null)
+                        .toList();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read data/item.json", e);
+            }
+        }
+        return itemJsonEntries;
+    }
+
+    private static ItemProcessor<Map.Entry<String, ItemJsonDTO>, Item> itemProcessor() {
+        return new ItemJsonProcessor();
+    }
+
+    private static Item process(ItemProcessor<Map.Entry<String, ItemJsonDTO>, Item> processor,
+                                Map.Entry<String, ItemJsonDTO> entry) {
+        try {
+            return processor.process(entry);
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot process item " + entry.getKey(), e);
+        }
+    }
+}
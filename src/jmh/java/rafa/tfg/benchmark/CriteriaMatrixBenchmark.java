@@ -0,0 +1,90 @@
+package rafa.tfg.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rafa.tfg.domain.model.Item;
+import rafa.tfg.domain.model.recommendation.ChampionProfile;
+import rafa.tfg.domain.model.recommendation.DecisionMatrix;
+import rafa.tfg.domain.model.recommendation.EnemyComposition;
+import rafa.tfg.domain.model.recommendation.ItemCatalog;
+import rafa.tfg.domain.model.recommendation.WeightProfile;
+import rafa.tfg.domain.service.recommendation.CriteriaMatrixService;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de la construcción de la matriz de criterios y del cálculo de pesos dinámicos
+ * Compara la construcción desde la lista de items (extrae los criterios en cada llamada) con
+ * la construcción desde el catálogo (filas precalculadas + máscara de candidatos)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CriteriaMatrixBenchmark {
+
+    @Param({"20", "100", "500", "1000", "5000"})
+    private int size;
+
+    @Param({"SYNTHETIC", "ITEM_JSON"})
+    private BenchmarkData.Source source;
+
+    private final CriteriaMatrixService criteriaMatrixService = new CriteriaMatrixService();
+
+    private List<Item> items;
+    private ItemCatalog catalog;
+    private BitSet allCandidates;
+    private ChampionProfile championProfile;
+    private EnemyComposition enemyComposition;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        items = BenchmarkData.items(source, size);
+        catalog = BenchmarkData.catalog(items, criteriaMatrixService);
+        allCandidates = new BitSet(catalog.size());
+        allCandidates.set(0, catalog.size());
+        championProfile = BenchmarkData.championProfile(ChampionProfile.ChampionScalingType.AD_FOCUSED);
+        enemyComposition = BenchmarkData.enemyComposition();
+    }
+
+    @Benchmark
+    public DecisionMatrix buildFromItems() {
+        return criteriaMatrixService.buildCriteriaMatrix(items);
+    }
+
+    @Benchmark
+    public DecisionMatrix buildFromCatalog() {
+        return criteriaMatrixService.buildCriteriaMatrix(catalog, allCandidates);
+    }
+
+    /**
+     * Pesos dinámicos con el perfil ya memorizado (caso habitual en producción)
+     * No depende del tamaño del conjunto; se mide con todos para comparar su peso relativo
+     */
+    @Benchmark
+    public WeightProfile dynamicWeights() {
+        return criteriaMatrixService.calculateDynamicWeights(championProfile, enemyComposition);
+    }
+
+    /**
+     * Pesos dinámicos sin memorizar (primera petición de cada perfil)
+     */
+    @Benchmark
+    public WeightProfile dynamicWeightsUncached() {
+        return new CriteriaMatrixService().calculateDynamicWeights(championProfile, enemyComposition);
+    }
+}
@@ -0,0 +1,84 @@
+package rafa.tfg.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rafa.tfg.application.dto.recommendation.GameStateRequestDTO;
+import rafa.tfg.domain.model.Item;
+import rafa.tfg.domain.model.recommendation.ChampionProfile;
+import rafa.tfg.domain.model.recommendation.ItemCatalog;
+import rafa.tfg.domain.service.recommendation.CriteriaMatrixService;
+import rafa.tfg.domain.service.recommendation.ItemFilterService;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks del filtrado de candidatos sobre el catálogo (máscaras precalculadas + ANDNOT)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemFilterBenchmark {
+
+    // Items del inventario del jugador (máximo de la partida)
+    private static final int OWNED_ITEMS = 6;
+
+    @Param({"20", "100", "500", "1000", "5000"})
+    private int size;
+
+    @Param({"SYNTHETIC", "ITEM_JSON"})
+    private BenchmarkData.Source source;
+
+    @Param({"AD_FOCUSED", "TANK"})
+    private ChampionProfile.ChampionScalingType scalingType;
+
+    private final ItemFilterService itemFilterService = new ItemFilterService();
+
+    private ItemCatalog catalog;
+    private ChampionProfile championProfile;
+    private List<GameStateRequestDTO.ItemDTO> currentItems;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        catalog = BenchmarkData.catalog(BenchmarkData.items(source, size), new CriteriaMatrixService());
+        championProfile = BenchmarkData.championProfile(scalingType);
+
+        // Inventario con los primeros items del catálogo cuyo id es numérico (como los del juego)
+        currentItems = new ArrayList<>();
+        for (Item item : catalog.getItems()) {
+            if (currentItems.size() == OWNED_ITEMS) {
+                break;
+            }
+            if (item.getItemId().chars().allMatch(Character::isDigit)) {
+                GameStateRequestDTO.ItemDTO owned = new GameStateRequestDTO.ItemDTO();
+                owned.setItemID(Integer.parseInt(item.getItemId()));
+                currentItems.add(owned);
+            }
+        }
+    }
+
+    @Benchmark
+    public BitSet filterCandidates() {
+        return itemFilterService.filterCandidates(catalog, championProfile, currentItems, 3000.0);
+    }
+
+    @Benchmark
+    public List<Item> filterCandidateItems() {
+        return itemFilterService.filterCandidateItems(catalog, championProfile, currentItems, 3000.0);
+    }
+}
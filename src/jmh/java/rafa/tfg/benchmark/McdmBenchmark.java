@@ -0,0 +1,67 @@
+package rafa.tfg.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rafa.tfg.domain.model.recommendation.ChampionProfile;
+import rafa.tfg.domain.model.recommendation.DecisionMatrix;
+import rafa.tfg.domain.model.recommendation.WeightProfile;
+import rafa.tfg.domain.service.recommendation.CriteriaMatrixService;
+import rafa.tfg.domain.service.recommendation.TODIMService;
+import rafa.tfg.domain.service.recommendation.TOPSISService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de los algoritmos MCDM sobre una matriz de decisión ya construida
+ * TODIM es cuadrático en el número de candidatos, TOPSIS lineal
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class McdmBenchmark {
+
+    @Param({"20", "100", "500", "1000", "5000"})
+    private int size;
+
+    @Param({"SYNTHETIC", "ITEM_JSON"})
+    private BenchmarkData.Source source;
+
+    private final TOPSISService topsisService = new TOPSISService();
+    private final TODIMService todimService = new TODIMService();
+
+    private DecisionMatrix matrix;
+    private WeightProfile weights;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CriteriaMatrixService criteriaMatrixService = new CriteriaMatrixService();
+
+        matrix = criteriaMatrixService.buildCriteriaMatrix(BenchmarkData.items(source, size));
+        weights = criteriaMatrixService.calculateDynamicWeights(
+                BenchmarkData.championProfile(ChampionProfile.ChampionScalingType.AD_FOCUSED),
+                BenchmarkData.enemyComposition());
+    }
+
+    @Benchmark
+    public double[] topsis() {
+        return topsisService.applyTOPSIS(matrix, weights);
+    }
+
+    @Benchmark
+    public double[] todim() {
+        return todimService.applyTODIM(matrix, weights);
+    }
+}
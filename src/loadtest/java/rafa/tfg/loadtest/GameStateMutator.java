@@ -0,0 +1,142 @@
+package rafa.tfg.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Genera variantes de un snapshot de la Live Client Data API como las que enviaría un cliente
+ * que consulta periódicamente: avanza el tiempo de partida y cambia oro, nivel, stats, items y
+ * marcador del jugador activo
+ */
+class GameStateMutator {
+
+    private static final String[] SCALED_STATS = {
+            "attackDamage", "abilityPower", "armor", "magicResist", "maxHealth", "attackSpeed"
+    };
+
+    private static final int MAX_INVENTORY_ITEMS = 6;
+
+    private final Random random;
+    private final List<ShopItem> shopItems;
+
+    /**
+     * Item de la tienda que puede aparecer en el inventario del jugador
+     */
+    record ShopItem(int itemId, String name, int price) {
+    }
+
+    GameStateMutator(Random random, List<ShopItem> shopItems) {
+        this.random = random;
+        this.shopItems = shopItems;
+    }
+
+    /**
+     * Items comprables del mapa 11 de data/item.json
+     */
+    static List<ShopItem> shopItems(JsonNode itemJson) {
+        List<ShopItem> items = new ArrayList<>();
+
+        Iterator<Map.Entry<String, JsonNode>> entries = itemJson.path("data").fields();
+        while (entries.hasNext()) {
+            Map.Entry<String, JsonNode> entry = entries.next();
+            JsonNode item = entry.getValue();
+            if (item.path("maps").path("11").asBoolean(false)
+                    && item.path("gold").path("purchasable").asBoolean(false)
+                    && entry.getKey().chars().allMatch(Character::isDigit)) {
+                items.add(new ShopItem(Integer.parseInt(entry.getKey()),
+                        item.path("name").asText(), item.path("gold").path("total").asInt()));
+            }
+        }
+
+        return items;
+    }
+
+    /**
+     * Devuelve una copia mutada del snapshot (el original no se modifica)
+     */
+    ObjectNode mutate(ObjectNode snapshot) {
+        ObjectNode state = snapshot.deepCopy();
+        ObjectNode activePlayer = (ObjectNode) state.path("activePlayer");
+        ObjectNode player = findActivePlayer(state, activePlayer.path("summonerName").asText());
+
+        // Paso 1: Avanzar el tiempo de partida
+        JsonNode gameData = state.path("gameData");
+        if (gameData.isObject()) {
+            ((ObjectNode) gameData).put("gameTime", gameData.path("gameTime").asDouble() + random.nextDouble() * 1800.0);
+        }
+
+        // Paso 2: Oro y nivel
+        activePlayer.put("currentGold", Math.round(random.nextDouble() * 4000.0 * 100.0) / 100.0);
+        int level = 1 + random.nextInt(18);
+        activePlayer.put("level", level);
+        if (player != null) {
+            player.put("level", level);
+        }
+
+        // Paso 3: Escalar los stats del campeón
+        JsonNode championStats = activePlayer.path("championStats");
+        if (championStats.isObject()) {
+            for (String stat : SCALED_STATS) {
+                JsonNode value = championStats.path(stat);
+                if (value.isNumber()) {
+                    ((ObjectNode) championStats).put(stat, value.asDouble() * (0.8 + random.nextDouble() * 0.8));
+                }
+            }
+        }
+
+        // Paso 4: Inventario y marcador
+        if (player != null) {
+            mutateInventory(player);
+            mutateScores(player);
+        }
+
+        return state;
+    }
+
+    private void mutateInventory(ObjectNode player) {
+        if (shopItems.isEmpty()) {
+            return;
+        }
+
+        ArrayNode items = player.putArray("items");
+        int count = random.nextInt(MAX_INVENTORY_ITEMS + 1);
+        for (int slot = 0; slot < count; slot++) {
+            ShopItem shopItem = shopItems.get(random.nextInt(shopItems.size()));
+            items.addObject()
+                    .put("canUse", 0)
+                    .put("consumable", 0)
+                    .put("count", 1)
+                    .put("displayName", shopItem.name())
+                    .put("itemID", shopItem.itemId())
+                    .put("price", shopItem.price())
+                    .put("slot", slot);
+        }
+    }
+
+    private void mutateScores(ObjectNode player) {
+        JsonNode scores = player.path("scores");
+        if (scores.isObject()) {
+            ((ObjectNode) scores)
+                    .put("kills", random.nextInt(15))
+                    .put("deaths", random.nextInt(12))
+                    .put("assists", random.nextInt(20))
+                    .put("creepScore", random.nextInt(300));
+        }
+    }
+
+    private static ObjectNode findActivePlayer(ObjectNode state, String summonerName) {
+        for (JsonNode player : state.path("allPlayers")) {
+            if (player.isObject() && summonerName.equals(player.path("summonerName").asText())) {
+                return (ObjectNode) player;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,64 @@
+package rafa.tfg.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Registro de latencias de un worker (sin sincronización: cada worker usa el suyo y se
+ * combinan al terminar)
+ */
+class LatencyRecorder {
+
+    private long[] latencies = new long[1024];
+    private int count;
+
+    void record(long nanos) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = nanos;
+    }
+
+    int count() {
+        return count;
+    }
+
+    static LatencyRecorder merge(Iterable<LatencyRecorder> recorders) {
+        LatencyRecorder merged = new LatencyRecorder();
+        for (LatencyRecorder recorder : recorders) {
+            for (int i = 0; i < recorder.count; i++) {
+                merged.record(recorder.latencies[i]);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Resumen en milisegundos: p50, p95, p99, máximo y media (percentiles por rango más cercano)
+     */
+    Map<String, Double> summary() {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+
+        Map<String, Double> summary = new LinkedHashMap<>();
+        summary.put("p50", toMillis(percentile(sorted, 0.50)));
+        summary.put("p95", toMillis(percentile(sorted, 0.95)));
+        summary.put("p99", toMillis(percentile(sorted, 0.99)));
+        summary.put("max", toMillis(count > 0 ? sorted[count - 1] : 0L));
+        summary.put("mean", toMillis(count > 0 ? (long) Arrays.stream(sorted).average().orElse(0.0) : 0L));
+        return summary;
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0L;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
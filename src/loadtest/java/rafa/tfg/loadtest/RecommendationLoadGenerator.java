@@ -0,0 +1,402 @@
+package rafa.tfg.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import rafa.tfg.TfgApplication;
+import rafa.tfg.domain.service.recommendation.ItemRecommendationService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generador de carga para /api/recommendations/items
+ * Arranca la aplicación con los ficheros de Data Dragon incluidos (o usa un servidor ya en marcha
+ * con --target-url), carga los datos y reenvía example_data_game.json, game1 y variantes mutadas
+ * con la concurrencia y el ritmo configurados. Al terminar escribe un resumen JSON con latencias
+ * (p50/p95/p99/max), throughput y tasa de error.
+ *
+ * <p>Ejecutar: ./mvnw -Pload-test test-compile exec:exec -Dload-test.args="--concurrency=16 --rate=200"
+ */
+@Slf4j
+public final class RecommendationLoadGenerator {
+
+    private static final String ITEMS_ENDPOINT = "/api/recommendations/items";
+    private static final String LOAD_ALL_ENDPOINT = "/api/batch/load-all";
+    private static final String[] SNAPSHOTS = {"data/example_data_game.json", "data/game1"};
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int IO_ERROR = -1;
+
+    private final Options options;
+    private final HttpClient httpClient;
+    private final URI itemsUri;
+    private final List<byte[]> originals;
+    private final List<byte[]> variants;
+
+    private RecommendationLoadGenerator(Options options, HttpClient httpClient, URI itemsUri,
+                                        List<byte[]> originals, List<byte[]> variants) {
+        this.options = options;
+        this.httpClient = httpClient;
+        this.itemsUri = itemsUri;
+        this.originals = originals;
+        this.variants = variants;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        ObjectMapper objectMapper = new ObjectMapper();
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+
+        ConfigurableApplicationContext context = null;
+        try {
+            // Paso 1: Arrancar la aplicación y cargar los datos (salvo que se use un servidor externo)
+            String baseUrl = options.targetUrl();
+            if (baseUrl == null) {
+                context = bootApplication(options);
+                baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+                loadData(httpClient, objectMapper, baseUrl);
+            }
+
+            // Paso 2: Preparar los snapshots originales y las variantes mutadas
+            List<ObjectNode> snapshots = new ArrayList<>();
+            for (String snapshot : SNAPSHOTS) {
+                snapshots.add((ObjectNode) readClasspathJson(objectMapper, snapshot));
+            }
+
+            GameStateMutator mutator = new GameStateMutator(new Random(options.seed()),
+                    GameStateMutator.shopItems(readClasspathJson(objectMapper, "data/item.json")));
+
+            List<byte[]> originals = new ArrayList<>();
+            for (ObjectNode snapshot : snapshots) {
+                originals.add(objectMapper.writeValueAsBytes(snapshot));
+            }
+            List<byte[]> variants = new ArrayList<>();
+            for (int i = 0; i < options.variants(); i++) {
+                variants.add(objectMapper.writeValueAsBytes(mutator.mutate(snapshots.get(i % snapshots.size()))));
+            }
+
+            // Paso 3: Ejecutar la carga y escribir el resumen
+            URI itemsUri = URI.create(baseUrl + ITEMS_ENDPOINT
+                    + "?topK=" + options.topK() + "&explain=" + options.explain());
+            Map<String, Object> summary = new RecommendationLoadGenerator(
+                    options, httpClient, itemsUri, originals, variants).run();
+            summary.put("embeddedServer", context != null);
+
+            String json = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(summary);
+            if (options.output().getParent() != null) {
+                Files.createDirectories(options.output().getParent());
+            }
+            Files.writeString(options.output(), json);
+
+            log.info("Load test summary written to {}", options.output().toAbsolutePath());
+
+        } finally {
+            if (context != null) {
+                SpringApplication.exit(context);
+            }
+        }
+    }
+
+    /**
+     * Lanza los workers durante el calentamiento y la ventana de medida, y combina sus resultados
+     */
+    private Map<String, Object> run() throws InterruptedException {
+        long startNanos = System.nanoTime();
+        long measureStartNanos = startNanos + Duration.ofSeconds(options.warmupSeconds()).toNanos();
+        long endNanos = measureStartNanos + Duration.ofSeconds(options.durationSeconds()).toNanos();
+
+        // Ritmo global: cada petición reserva el siguiente hueco de la planificación
+        long intervalNanos = options.rate() > 0 ? (long) (1_000_000_000L / options.rate()) : 0L;
+        AtomicLong nextSlot = new AtomicLong(startNanos);
+
+        log.info("Load test against {}: concurrency={}, rate={}/s, warmup={}s, duration={}s",
+                itemsUri, options.concurrency(), options.rate() > 0 ? options.rate() : "unlimited",
+                options.warmupSeconds(), options.durationSeconds());
+
+        List<Worker> workers = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < options.concurrency(); i++) {
+            Worker worker = new Worker(new Random(options.seed() + i + 1), nextSlot, intervalNanos,
+                    measureStartNanos, endNanos);
+            workers.add(worker);
+            threads.add(Thread.ofPlatform().name("load-worker-" + i).start(worker));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        double measuredSeconds = Math.max(System.nanoTime() - measureStartNanos, 1L) / 1e9;
+        return summarize(workers, measuredSeconds);
+    }
+
+    private Map<String, Object> summarize(List<Worker> workers, double measuredSeconds) {
+        long requests = 0;
+        long errors = 0;
+        long cacheHits = 0;
+        long mutatedRequests = 0;
+        Map<String, Long> statusCodes = new TreeMap<>();
+        List<LatencyRecorder> latencies = new ArrayList<>();
+        List<LatencyRecorder> serviceTimes = new ArrayList<>();
+
+        for (Worker worker : workers) {
+            requests += worker.requests;
+            errors += worker.errors;
+            cacheHits += worker.cacheHits;
+            mutatedRequests += worker.mutatedRequests;
+            worker.statusCodes.forEach((status, count) ->
+                    statusCodes.merge(status == IO_ERROR ? "IO_ERROR" : String.valueOf(status), count, Long::sum));
+            latencies.add(worker.latency);
+            serviceTimes.add(worker.serviceTime);
+        }
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("concurrency", options.concurrency());
+        config.put("targetRate", options.rate());
+        config.put("warmupSeconds", options.warmupSeconds());
+        config.put("durationSeconds", options.durationSeconds());
+        config.put("mutationRatio", options.mutationRatio());
+        config.put("variants", options.variants());
+        config.put("topK", options.topK());
+        config.put("explain", options.explain());
+        config.put("seed", options.seed());
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("timestamp", Instant.now().toString());
+        summary.put("target", itemsUri.toString());
+        summary.put("config", config);
+        summary.put("requests", requests);
+        summary.put("errors", errors);
+        summary.put("errorRate", requests > 0 ? round((double) errors / requests) : 0.0);
+        summary.put("measuredSeconds", round(measuredSeconds));
+        summary.put("throughputRps", round(requests / measuredSeconds));
+        summary.put("cacheHitRate", requests > 0 ? round((double) cacheHits / requests) : 0.0);
+        summary.put("mutatedRequests", mutatedRequests);
+        // Latencia desde el instante planificado (incluye la espera si el servidor no sigue el ritmo)
+        summary.put("latencyMs", LatencyRecorder.merge(latencies).summary());
+        // Tiempo de servicio desde el envío real de la petición
+        summary.put("serviceTimeMs", LatencyRecorder.merge(serviceTimes).summary());
+        summary.put("statusCodes", statusCodes);
+        return summary;
+    }
+
+    /**
+     * Worker con sus propios contadores; solo registra las peticiones planificadas dentro de la
+     * ventana de medida
+     */
+    private final class Worker implements Runnable {
+
+        private final Random random;
+        private final AtomicLong nextSlot;
+        private final long intervalNanos;
+        private final long measureStartNanos;
+        private final long endNanos;
+
+        private final LatencyRecorder latency = new LatencyRecorder();
+        private final LatencyRecorder serviceTime = new LatencyRecorder();
+        private final Map<Integer, Long> statusCodes = new HashMap<>();
+        private long requests;
+        private long errors;
+        private long cacheHits;
+        private long mutatedRequests;
+
+        private Worker(Random random, AtomicLong nextSlot, long intervalNanos, long measureStartNanos, long endNanos) {
+            this.random = random;
+            this.nextSlot = nextSlot;
+            this.intervalNanos = intervalNanos;
+            this.measureStartNanos = measureStartNanos;
+            this.endNanos = endNanos;
+        }
+
+        @Override
+        public void run() {
+            while (!Thread.currentThread().isInterrupted()) {
+                long scheduledNanos = intervalNanos > 0 ? nextSlot.getAndAdd(intervalNanos) : System.nanoTime();
+                if (scheduledNanos >= endNanos) {
+                    return;
+                }
+
+                long waitNanos = scheduledNanos - System.nanoTime();
+                if (waitNanos > 0) {
+                    LockSupport.parkNanos(waitNanos);
+                }
+
+                boolean mutated = !variants.isEmpty() && random.nextDouble() < options.mutationRatio();
+                List<byte[]> payloads = mutated ? variants : originals;
+                byte[] body = payloads.get(random.nextInt(payloads.size()));
+
+                long sendNanos = System.nanoTime();
+                int status;
+                boolean cacheHit = false;
+                try {
+                    HttpResponse<String> response = httpClient.send(request(body), HttpResponse.BodyHandlers.ofString());
+                    status = response.statusCode();
+                    cacheHit = response.body().contains("\"cacheHit\":true");
+                } catch (IOException e) {
+                    log.debug("Request failed: {}", e.toString());
+                    status = IO_ERROR;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long doneNanos = System.nanoTime();
+
+                if (scheduledNanos < measureStartNanos) {
+                    continue;
+                }
+
+                requests++;
+                if (status < 200 || status >= 300) {
+                    errors++;
+                }
+                if (cacheHit) {
+                    cacheHits++;
+                }
+                if (mutated) {
+                    mutatedRequests++;
+                }
+                statusCodes.merge(status, 1L, Long::sum);
+                latency.record(doneNanos - scheduledNanos);
+                serviceTime.record(doneNanos - sendNanos);
+            }
+        }
+    }
+
+    private HttpRequest request(byte[] body) {
+        return HttpRequest.newBuilder(itemsUri)
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+    }
+
+    /**
+     * Arranca la aplicación en un puerto libre con el log de la aplicación en WARN
+     * Los argumentos no reconocidos por el generador se pasan a Spring (p. ej. --recommendation.cache.enabled=false)
+     */
+    private static ConfigurableApplicationContext bootApplication(Options options) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("logging.level.rafa.tfg", "WARN");
+        properties.put("logging.level.rafa.tfg.loadtest", "INFO");
+        properties.put("logging.level.org.springframework.batch", "WARN");
+        properties.putAll(options.springProperties());
+
+        List<String> args = new ArrayList<>();
+        properties.forEach((key, value) -> args.add("--" + key + "=" + value));
+
+        log.info("Starting application with {}", args);
+        return SpringApplication.run(TfgApplication.class, args.toArray(String[]::new));
+    }
+
+    /**
+     * Carga campeones, items, runas y hechizos desde los ficheros de Data Dragon incluidos
+     */
+    private static void loadData(HttpClient httpClient, ObjectMapper objectMapper, String baseUrl)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + LOAD_ALL_ENDPOINT))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+
+        boolean loaded = response.statusCode() == 200
+                && "COMPLETED".equals(objectMapper.readTree(response.body()).path("status").asText());
+        if (!loaded) {
+            throw new IllegalStateException("Data load failed (HTTP " + response.statusCode() + "): " + response.body());
+        }
+
+        log.info("Data Dragon files loaded");
+    }
+
+    private static JsonNode readClasspathJson(ObjectMapper objectMapper, String path) throws IOException {
+        try (InputStream input = new ClassPathResource(path).getInputStream()) {
+            return objectMapper.readTree(input);
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000.0) / 1000.0;
+    }
+
+    /**
+     * Opciones del generador (--clave=valor); las claves desconocidas son propiedades de Spring
+     */
+    record Options(
+            String targetUrl,
+            int concurrency,
+            double rate,
+            int warmupSeconds,
+            int durationSeconds,
+            double mutationRatio,
+            int variants,
+            int topK,
+            boolean explain,
+            long seed,
+            Path output,
+            Map<String, String> springProperties) {
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new LinkedHashMap<>();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+                }
+                int separator = arg.indexOf('=');
+                values.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+
+            // Las opciones del generador se retiran del mapa; lo que queda se pasa a Spring
+            Options options = new Options(
+                    values.remove("target-url"),
+                    Integer.parseInt(option(values, "concurrency", "8")),
+                    Double.parseDouble(option(values, "rate", "0")),
+                    Integer.parseInt(option(values, "warmup-seconds", "10")),
+                    Integer.parseInt(option(values, "duration-seconds", "60")),
+                    Double.parseDouble(option(values, "mutation-ratio", "0.8")),
+                    Integer.parseInt(option(values, "variants", "256")),
+                    Integer.parseInt(option(values, "top-k", String.valueOf(ItemRecommendationService.DEFAULT_TOP_K))),
+                    Boolean.parseBoolean(option(values, "explain", "true")),
+                    Long.parseLong(option(values, "seed", "42")),
+                    Path.of(option(values, "output", "target/load-test-summary.json")),
+                    Map.copyOf(values));
+
+            if (options.concurrency() < 1 || options.durationSeconds() < 1 || options.warmupSeconds() < 0
+                    || options.rate() < 0 || options.variants() < 0 || options.topK() < 1
+                    || options.mutationRatio() < 0 || options.mutationRatio() > 1) {
+                throw new IllegalArgumentException("Invalid load test options: " + options);
+            }
+
+            return options;
+        }
+
+        private static String option(Map<String, String> values, String key, String defaultValue) {
+            String value = values.remove(key);
+            return value != null ? value : defaultValue;
+        }
+    }
+}
@@ -7,10 +7,14 @@ import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
 import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
 import org.springframework.batch.core.repository.JobRestartException;
+import org.springframework.batch.item.ExecutionContext;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import rafa.tfg.infrastructure.batch.listener.InsertRateListener;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.*;
 
 /**
@@ -36,6 +40,9 @@ public class BatchController {
     @Qualifier("importSpellJob")
     private final Job importSpellJob;
 
+    @Qualifier("importAllJob")
+    private final Job importAllJob;
+
     /**
      * Ejecutar el job de carga de Champions
      */
@@ -69,26 +76,16 @@ public class BatchController {
     }
 
     /**
-     * Ejecutar todos los jobs de carga de datos en secuencia
+     * Ejecutar la carga completa de datos (importAllJob)
+     * Campeones → hechizos, items y runas se cargan en paralelo dentro de una única ejecución
      */
     @PostMapping("/load-all")
     public ResponseEntity<Map<String, Object>> loadAll() {
         log.info("Iniciando carga completa de datos...");
-        Map<String, Object> response = new LinkedHashMap<>();
-        List<Map<String, Object>> results = new ArrayList<>();
-
-        // Ejecutar todos los jobs en secuencia
-        results.add(executeJobAndGetResult(importChampionJob, "Champions"));
-        results.add(executeJobAndGetResult(importItemJob, "Items"));
-        results.add(executeJobAndGetResult(importRuneJob, "Runes"));
-        results.add(executeJobAndGetResult(importSpellJob, "Spells"));
-
-        // Verificar si alguno falló
-        boolean allSuccess = results.stream()
-                .allMatch(r -> "SUCCESS".equals(r.get("status")));
+        Map<String, Object> response = executeJobAndGetResult(importAllJob, "All");
 
-        response.put("overallStatus", allSuccess ? "SUCCESS" : "PARTIAL_SUCCESS");
-        response.put("results", results);
+        boolean success = BatchStatus.COMPLETED.name().equals(response.get("status"));
+        response.put("overallStatus", success ? "SUCCESS" : "FAILED");
         response.put("timestamp", new Date());
 
         log.info("Carga completa de datos finalizada. Estado: {}", response.get("overallStatus"));
@@ -117,7 +114,7 @@ public class BatchController {
     private ResponseEntity<Map<String, Object>> executeJob(Job job, String entityName) {
         Map<String, Object> response = executeJobAndGetResult(job, entityName);
 
-        if ("SUCCESS".equals(response.get("status"))) {
+        if (BatchStatus.COMPLETED.name().equals(response.get("status"))) {
             return ResponseEntity.ok(response);
         } else {
             return ResponseEntity.status(500).body(response);
@@ -145,6 +142,7 @@ public class BatchController {
             response.put("status", batchStatus.toString());
             response.put("startTime", jobExecution.getStartTime());
             response.put("endTime", jobExecution.getEndTime());
+            response.put("durationMs", durationMs(jobExecution.getStartTime(), jobExecution.getEndTime()));
             response.put("exitCode", jobExecution.getExitStatus().getExitCode());
 
             // Agregar información de los steps
@@ -159,6 +157,14 @@ public class BatchController {
                 stepInfo.put("commitCount", stepExecution.getCommitCount());
                 stepInfo.put("rollbackCount", stepExecution.getRollbackCount());
                 stepInfo.put("status", stepExecution.getStatus().toString());
+                stepInfo.put("durationMs", durationMs(stepExecution.getStartTime(), stepExecution.getEndTime()));
+
+                // Ritmo de inserción calculado por InsertRateListener
+                ExecutionContext stepContext = stepExecution.getExecutionContext();
+                if (stepContext.containsKey(InsertRateListener.ROWS_PER_SECOND_KEY)) {
+                    stepInfo.put("rowsWritten", stepContext.getLong(InsertRateListener.ROWS_WRITTEN_KEY));
+                    stepInfo.put("rowsPerSecond", stepContext.getDouble(InsertRateListener.ROWS_PER_SECOND_KEY));
+                }
                 stepsInfo.add(stepInfo);
             }
 
@@ -196,4 +202,11 @@ public class BatchController {
 
         return response;
     }
+
+    /**
+     * Duración en milisegundos entre dos instantes de la ejecución (null si no ha terminado)
+     */
+    private static Long durationMs(LocalDateTime start, LocalDateTime end) {
+        return start != null && end != null ? Duration.between(start, end).toMillis() : null;
+    }
 }
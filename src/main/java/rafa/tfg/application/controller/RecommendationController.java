@@ -5,9 +5,17 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import rafa.tfg.application.dto.recommendation.BatchRecommendationResponseDTO;
 import rafa.tfg.application.dto.recommendation.GameStateRequestDTO;
 import rafa.tfg.application.dto.recommendation.ItemRecommendationResponseDTO;
+import rafa.tfg.application.dto.recommendation.LobbyRecommendationResponseDTO;
+import rafa.tfg.domain.service.recommendation.BatchRecommendationService;
 import rafa.tfg.domain.service.recommendation.ItemRecommendationService;
+import rafa.tfg.domain.service.recommendation.LobbyRecommendationService;
+import rafa.tfg.domain.service.recommendation.RecommendationCacheService;
+
+import java.util.List;
+import java.util.Map;
 
 /**
  * Controlador REST para el sistema de recomendaciones de items
@@ -18,23 +26,44 @@ import rafa.tfg.domain.service.recommendation.ItemRecommendationService;
 @Slf4j
 public class RecommendationController {
 
+    public static final String DEADLINE_HEADER = "X-Recommendation-Deadline-Ms";
+
     private final ItemRecommendationService itemRecommendationService;
+    private final RecommendationCacheService recommendationCacheService;
+    private final BatchRecommendationService batchRecommendationService;
+    private final LobbyRecommendationService lobbyRecommendationService;
 
     /**
      * Endpoint para obtener recomendaciones de items basadas en el estado del juego
      *
      * @param gameState Estado actual del juego (JSON de la API de League of Legends)
-     * @return Top 5 items recomendados con scores y explicaciones
+     * @param topK      Número de items a devolver (por defecto 5)
+     * @param deadlineMs Plazo opcional en milisegundos (parámetro o cabecera X-Recommendation-Deadline-Ms);
+     *                   si TODIM no cabe se degrada a TODIM reducido o solo TOPSIS
+     * @param explain    Si se generan los textos de explicación (por defecto true)
+     * @return Top K items recomendados con scores y explicaciones
      */
     @PostMapping("/items")
     public ResponseEntity<ItemRecommendationResponseDTO> recommendItems(
-            @RequestBody GameStateRequestDTO gameState) {
+            @RequestBody GameStateRequestDTO gameState,
+            @RequestParam(defaultValue = "" + ItemRecommendationService.DEFAULT_TOP_K) int topK,
+            @RequestParam(required = false) Long deadlineMs,
+            @RequestHeader(value = DEADLINE_HEADER, required = false) Long deadlineHeaderMs,
+            @RequestParam(defaultValue = "true") boolean explain) {
 
         log.info("Received item recommendation request for player: {}",
                 gameState.getActivePlayer().getSummonerName());
 
+        // El parámetro tiene prioridad sobre la cabecera
+        Long deadline = deadlineMs != null ? deadlineMs : deadlineHeaderMs;
+
+        if (topK < 1 || (deadline != null && deadline < 1)) {
+            return ResponseEntity.badRequest().build();
+        }
+
         try {
-            ItemRecommendationResponseDTO response = itemRecommendationService.recommendItems(gameState);
+            ItemRecommendationResponseDTO response = itemRecommendationService.recommendItems(
+                    gameState, topK, deadline != null ? deadline : ItemRecommendationService.NO_DEADLINE, explain);
 
             log.info("Recommendation request processed successfully. Returned {} recommendations",
                     response.getRecommendations().size());
@@ -47,6 +76,92 @@ public class RecommendationController {
         }
     }
 
+    /**
+     * Endpoint para obtener recomendaciones de varios estados de juego en una sola llamada
+     *
+     * @param gameStates Lista de estados de juego
+     * @param topK       Número de items a devolver por estado (por defecto 5)
+     * @param explain    Si se generan los textos de explicación (por defecto false en modo batch)
+     * @return Resultados en el mismo orden de entrada, con estado OK o ERROR por entrada;
+     *         400 si se pide un plazo, que solo admiten las peticiones individuales
+     */
+    @PostMapping("/items/batch")
+    public ResponseEntity<BatchRecommendationResponseDTO> recommendItemsBatch(
+            @RequestBody List<GameStateRequestDTO> gameStates,
+            @RequestParam(defaultValue = "" + ItemRecommendationService.DEFAULT_TOP_K) int topK,
+            @RequestParam(required = false) Long deadlineMs,
+            @RequestHeader(value = DEADLINE_HEADER, required = false) Long deadlineHeaderMs,
+            @RequestParam(defaultValue = "false") boolean explain) {
+
+        log.info("Received batch recommendation request with {} game states", gameStates.size());
+
+        if (topK < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        if (deadlineMs != null || deadlineHeaderMs != null) {
+            log.warn("Rejected batch recommendation request: deadlines are not supported in batch mode");
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            return ResponseEntity.ok(batchRecommendationService.recommendBatch(gameStates, topK, explain));
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid batch recommendation request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+
+        } catch (Exception e) {
+            log.error("Error processing batch recommendation request", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Endpoint para obtener recomendaciones de todos los jugadores de la partida
+     *
+     * @param gameState Estado actual del juego (JSON de la API de League of Legends)
+     * @param topK      Número de items a devolver por jugador (por defecto 5)
+     * @param explain   Si se generan los textos de explicación (por defecto true)
+     * @return Recomendaciones por jugador y desglose de tiempos;
+     *         400 si se pide un plazo, que solo admiten las peticiones individuales
+     */
+    @PostMapping("/items/lobby")
+    public ResponseEntity<LobbyRecommendationResponseDTO> recommendItemsForLobby(
+            @RequestBody GameStateRequestDTO gameState,
+            @RequestParam(defaultValue = "" + ItemRecommendationService.DEFAULT_TOP_K) int topK,
+            @RequestParam(required = false) Long deadlineMs,
+            @RequestHeader(value = DEADLINE_HEADER, required = false) Long deadlineHeaderMs,
+            @RequestParam(defaultValue = "true") boolean explain) {
+
+        log.info("Received lobby recommendation request for {} players", gameState.getAllPlayers().size());
+
+        if (topK < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        if (deadlineMs != null || deadlineHeaderMs != null) {
+            log.warn("Rejected lobby recommendation request: deadlines are not supported in lobby mode");
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            return ResponseEntity.ok(lobbyRecommendationService.recommendLobby(gameState, topK, explain));
+
+        } catch (Exception e) {
+            log.error("Error processing lobby recommendation request", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Métricas de la caché de recomendaciones (aciertos, fallos, expulsiones)
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> cacheStats() {
+        return ResponseEntity.ok(recommendationCacheService.getStats());
+    }
+
     /**
      * Endpoint de health check para el servicio de recomendaciones
      */
@@ -0,0 +1,169 @@
+package rafa.tfg.application.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import rafa.tfg.application.dto.recommendation.ItemRecommendationResponseDTO;
+import rafa.tfg.domain.model.recommendation.RecommendationSession;
+import rafa.tfg.domain.service.recommendation.ItemRecommendationService;
+import rafa.tfg.domain.service.recommendation.RecommendationSessionService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Controlador REST para sesiones de recomendación en vivo
+ * El cliente crea la sesión con el estado completo, envía deltas con PATCH (JSON Merge Patch)
+ * y recibe por Server-Sent Events solo las recomendaciones que cambian
+ */
+@RestController
+@RequestMapping("/api/recommendations/sessions")
+@Slf4j
+public class RecommendationSessionController {
+
+    private static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+
+    private final RecommendationSessionService recommendationSessionService;
+    private final long sseTimeoutMillis;
+
+    public RecommendationSessionController(
+            RecommendationSessionService recommendationSessionService,
+            @Value("${recommendation.session.sse-timeout-ms:1800000}") long sseTimeoutMillis) {
+        this.recommendationSessionService = recommendationSessionService;
+        this.sseTimeoutMillis = sseTimeoutMillis;
+    }
+
+    /**
+     * Crea una sesión a partir del estado completo del juego
+     *
+     * @return Identificador de la sesión y recomendación inicial;
+     *         400 si se pide un plazo, que las sesiones no admiten
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> createSession(
+            @RequestBody JsonNode gameState,
+            @RequestParam(defaultValue = "" + ItemRecommendationService.DEFAULT_TOP_K) int topK,
+            @RequestParam(required = false) Long deadlineMs,
+            @RequestHeader(value = RecommendationController.DEADLINE_HEADER, required = false) Long deadlineHeaderMs) {
+
+        if (topK < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        if (deadlineMs != null || deadlineHeaderMs != null) {
+            log.warn("Rejected new session: deadlines are not supported for live sessions");
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            RecommendationSession session = recommendationSessionService.createSession(gameState, topK);
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("sessionId", session.getId());
+            response.put("recommendation", session.getLastRecommendation());
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.warn("Invalid game state for new session: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+
+        } catch (IllegalStateException e) {
+            log.warn("Cannot create session: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+
+        } catch (Exception e) {
+            log.error("Error creating recommendation session", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Stream SSE con la recomendación actual y cada nuevo Top K de la sesión
+     */
+    @GetMapping(value = "/{sessionId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@PathVariable String sessionId) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMillis);
+
+        RecommendationSession.Listener listener = new RecommendationSession.Listener() {
+            @Override
+            public void onRecommendation(ItemRecommendationResponseDTO recommendation) {
+                try {
+                    emitter.send(SseEmitter.event().name("recommendation").data(recommendation));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public void onClose() {
+                emitter.complete();
+            }
+        };
+
+        emitter.onCompletion(() -> recommendationSessionService.unsubscribe(sessionId, listener));
+        emitter.onTimeout(() -> recommendationSessionService.unsubscribe(sessionId, listener));
+        emitter.onError(e -> recommendationSessionService.unsubscribe(sessionId, listener));
+
+        if (!recommendationSessionService.subscribe(sessionId, listener)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Aplica un delta (JSON Merge Patch) al estado de la sesión
+     *
+     * @return Resultado: UNCHANGED_INPUTS, UNCHANGED_RECOMMENDATION o UPDATED;
+     *         400 si se pide un plazo, que las sesiones no admiten
+     */
+    @PatchMapping(value = "/{sessionId}", consumes = {MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Map<String, Object>> applyPatch(
+            @PathVariable String sessionId,
+            @RequestBody JsonNode patch,
+            @RequestParam(required = false) Long deadlineMs,
+            @RequestHeader(value = RecommendationController.DEADLINE_HEADER, required = false) Long deadlineHeaderMs) {
+
+        if (deadlineMs != null || deadlineHeaderMs != null) {
+            log.warn("Rejected patch for session {}: deadlines are not supported for live sessions", sessionId);
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            return recommendationSessionService.applyPatch(sessionId, patch)
+                    .map(outcome -> {
+                        Map<String, Object> response = new LinkedHashMap<>();
+                        response.put("sessionId", sessionId);
+                        response.put("outcome", outcome);
+                        return ResponseEntity.ok(response);
+                    })
+                    .orElse(ResponseEntity.notFound().build());
+
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.warn("Invalid patch for session {}: {}", sessionId, e.getMessage());
+            return ResponseEntity.badRequest().build();
+
+        } catch (Exception e) {
+            log.error("Error applying patch to session {}", sessionId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Cierra la sesión
+     */
+    @DeleteMapping("/{sessionId}")
+    public ResponseEntity<Void> closeSession(@PathVariable String sessionId) {
+        return recommendationSessionService.closeSession(sessionId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
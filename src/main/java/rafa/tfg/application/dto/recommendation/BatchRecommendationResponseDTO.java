@@ -0,0 +1,36 @@
+package rafa.tfg.application.dto.recommendation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de respuesta para recomendaciones de varios estados de juego en una sola llamada
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRecommendationResponseDTO {
+
+    private Integer total;
+    private Integer succeeded;
+    private Integer failed;
+    private Long catalogVersion;
+    private List<BatchEntryDTO> results;
+    private Long processingTimeMs;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchEntryDTO {
+        private Integer index;
+        private String status;  // OK, ERROR
+        private ItemRecommendationResponseDTO recommendation;
+        private String error;
+    }
+}
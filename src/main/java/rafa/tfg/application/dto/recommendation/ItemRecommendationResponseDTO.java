@@ -12,7 +12,7 @@ import java.util.Map;
  * DTO de respuesta con las recomendaciones de items
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class ItemRecommendationResponseDTO {
@@ -23,10 +23,19 @@ public class ItemRecommendationResponseDTO {
     private String championProfile;
     private EnemyAnalysisDTO enemyAnalysis;
     private List<RecommendedItemDTO> recommendations;
+    private Long catalogVersion;
+    private Boolean cacheHit;
+
+    // Cómo se calcularon las recomendaciones (en un acierto de caché, el cálculo original: siempre FULL)
+    private String executionMode;
+    private Integer todimCandidates;
+
+    // Tiempos de esta petición (en un acierto de caché, solo "cacheLookup")
+    private Map<String, Double> stageTimingsMs;
     private Long processingTimeMs;
 
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     @NoArgsConstructor
     @AllArgsConstructor
     public static class EnemyAnalysisDTO {
@@ -40,7 +49,7 @@ public class ItemRecommendationResponseDTO {
     }
 
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     @NoArgsConstructor
     @AllArgsConstructor
     public static class RecommendedItemDTO {
@@ -0,0 +1,47 @@
+package rafa.tfg.application.dto.recommendation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de respuesta con recomendaciones para todos los jugadores de la partida
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LobbyRecommendationResponseDTO {
+
+    private Long catalogVersion;
+    private List<PlayerRecommendationDTO> players;
+    private TimingDTO timings;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PlayerRecommendationDTO {
+        private String summonerName;
+        private String championName;
+        private String team;
+        private Boolean activePlayer;
+        private Boolean statsEstimated;  // true si las stats se estiman a partir de nivel e items
+        private String status;  // OK, ERROR
+        private ItemRecommendationResponseDTO recommendation;
+        private String error;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TimingDTO {
+        private Long teamAnalysisMs;
+        private Long playerRecommendationsMs;
+        private Long totalMs;
+    }
+}
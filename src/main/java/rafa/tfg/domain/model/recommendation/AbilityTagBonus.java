@@ -0,0 +1,71 @@
+package rafa.tfg.domain.model.recommendation;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Incrementos de peso derivados de las etiquetas de habilidades (levelTipLabels)
+ * Cada etiqueta que cumple la regla suma el incremento al criterio; como solo dependen del
+ * campeón, se cuentan una vez al construir su perfil de escalado
+ */
+public enum AbilityTagBonus {
+    ATTACK_DAMAGE(ItemCandidate.Criterion.ATTACK_DAMAGE, 1.0),
+    ABILITY_POWER(ItemCandidate.Criterion.ABILITY_POWER, 1.0),
+    COOLDOWN_REDUCTION(ItemCandidate.Criterion.COOLDOWN_REDUCTION, 1.5),
+    ATTACK_SPEED(ItemCandidate.Criterion.ATTACK_SPEED, 1.0),
+    ARMOR(ItemCandidate.Criterion.ARMOR, 1.0),
+    HEALTH(ItemCandidate.Criterion.HEALTH, 1.0);
+
+    private final ItemCandidate.Criterion criterion;
+    private final double increment;
+
+    AbilityTagBonus(ItemCandidate.Criterion criterion, double increment) {
+        this.criterion = criterion;
+        this.increment = increment;
+    }
+
+    public ItemCandidate.Criterion getCriterion() {
+        return criterion;
+    }
+
+    public double getIncrement() {
+        return increment;
+    }
+
+    /**
+     * Indica si la etiqueta (en minúsculas) activa este incremento
+     */
+    public boolean matches(String lowerTag) {
+        return switch (this) {
+            case ATTACK_DAMAGE -> lowerTag.contains("damage") || lowerTag.contains("ad ratio");
+            case ABILITY_POWER -> lowerTag.contains("ap ratio") || lowerTag.contains("magic");
+            case COOLDOWN_REDUCTION -> lowerTag.contains("cooldown") || lowerTag.contains("cdr");
+            case ATTACK_SPEED -> lowerTag.contains("attack speed");
+            case ARMOR -> lowerTag.contains("armor") && !lowerTag.contains("penetration");
+            case HEALTH -> lowerTag.contains("health") || lowerTag.contains("hp");
+        };
+    }
+
+    /**
+     * Cuenta cuántas etiquetas activan cada incremento, indexado por ordinal()
+     */
+    public static int[] countTags(List<String> abilityTags) {
+        AbilityTagBonus[] bonuses = values();
+        int[] counts = new int[bonuses.length];
+
+        if (abilityTags == null) {
+            return counts;
+        }
+
+        for (String tag : abilityTags) {
+            String lowerTag = tag.toLowerCase(Locale.ROOT);
+            for (AbilityTagBonus bonus : bonuses) {
+                if (bonus.matches(lowerTag)) {
+                    counts[bonus.ordinal()]++;
+                }
+            }
+        }
+
+        return counts;
+    }
+}
@@ -36,6 +36,9 @@ public class ChampionProfile {
     // Etiquetas extraídas de levelTipLabels
     private List<String> abilityTags;
 
+    // Número de etiquetas que activan cada AbilityTagBonus (precalculado por campeón)
+    private int[] abilityTagCounts;
+
     // Perfil calculado
     private ChampionScalingType scalingType;
 
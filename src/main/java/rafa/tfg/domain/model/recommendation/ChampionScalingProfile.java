@@ -0,0 +1,43 @@
+package rafa.tfg.domain.model.recommendation;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Parte estática del perfil de un campeón, extraída de sus habilidades
+ * No depende del estado de la partida, por lo que se cachea por campeón
+ */
+@Getter
+@Builder
+public class ChampionScalingProfile {
+
+    private final String championId;
+
+    // Ratios de escalado
+    private final double totalAdRatio;
+    private final double totalApRatio;
+    private final double totalBonusAdRatio;
+    private final double totalHealthRatio;
+    private final double totalArmorRatio;
+    private final double totalMrRatio;
+
+    // Contadores de habilidades
+    private final int abilitiesWithAdScaling;
+    private final int abilitiesWithApScaling;
+    private final int totalAbilities;
+
+    // Etiquetas extraídas de levelTipLabels (sin duplicados)
+    private final List<String> abilityTags;
+
+    // Número de etiquetas que activan cada AbilityTagBonus (indexado por ordinal)
+    private final int[] abilityTagCounts;
+
+    /**
+     * Indica si hay datos de habilidades para el campeón
+     */
+    public boolean hasAbilities() {
+        return totalAbilities > 0;
+    }
+}
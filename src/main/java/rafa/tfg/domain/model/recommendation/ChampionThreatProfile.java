@@ -0,0 +1,79 @@
+package rafa.tfg.domain.model.recommendation;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Perfil de amenaza precalculado de un campeón
+ * Se construye al cargar campeones y habilidades, y se usa en el análisis enemigo y para
+ * estimar las stats de jugadores de los que solo se conoce nivel e items
+ */
+@Getter
+@Builder
+public class ChampionThreatProfile {
+
+    public static final int MAX_LEVEL = 18;
+
+    private final String championId;
+
+    // Tipo de daño principal
+    private final DamageProfile damageProfile;
+
+    // Capacidades de CC
+    private final boolean hasHardCC;
+    private final boolean hasSlows;
+    private final int ccAbilityCount;
+
+    // Curvas de stats por nivel (índice 0 = nivel 1)
+    private final double[] armorByLevel;
+    private final double[] magicResistByLevel;
+    private final double[] healthByLevel;
+    private final double[] attackDamageByLevel;
+
+    // Velocidad de ataque base (nivel 1)
+    private final double baseAttackSpeed;
+
+    public enum DamageProfile {
+        PHYSICAL,
+        MAGICAL,
+        MIXED
+    }
+
+    public double armorAtLevel(int level) {
+        return valueAtLevel(armorByLevel, level);
+    }
+
+    public double magicResistAtLevel(int level) {
+        return valueAtLevel(magicResistByLevel, level);
+    }
+
+    public double healthAtLevel(int level) {
+        return valueAtLevel(healthByLevel, level);
+    }
+
+    public double attackDamageAtLevel(int level) {
+        return valueAtLevel(attackDamageByLevel, level);
+    }
+
+    /**
+     * Construye una curva lineal base + crecimiento por nivel para los niveles 1-18
+     */
+    public static double[] buildLevelCurve(double base, double perLevel) {
+        double[] curve = new double[MAX_LEVEL];
+        for (int i = 0; i < MAX_LEVEL; i++) {
+            curve[i] = base + (perLevel * i);
+        }
+        return curve;
+    }
+
+    /**
+     * Obtiene el valor de la curva para un nivel, extrapolando linealmente fuera del rango 1-18
+     */
+    private static double valueAtLevel(double[] curve, int level) {
+        int index = level - 1;
+        if (index >= 0 && index < curve.length) {
+            return curve[index];
+        }
+        return curve[0] + ((curve[1] - curve[0]) * index);
+    }
+}
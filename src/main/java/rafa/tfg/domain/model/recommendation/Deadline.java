@@ -0,0 +1,28 @@
+package rafa.tfg.domain.model.recommendation;
+
+/**
+ * Instante límite de una petición en System.nanoTime()
+ */
+public record Deadline(long deadlineNanos) {
+
+    // Sin límite de tiempo
+    public static final Deadline NONE = new Deadline(Long.MAX_VALUE);
+
+    /**
+     * Plazo de deadlineMs milisegundos desde startNanos (NONE si deadlineMs no es positivo)
+     */
+    public static Deadline after(long startNanos, long deadlineMs) {
+        return deadlineMs > 0 ? new Deadline(startNanos + deadlineMs * 1_000_000L) : NONE;
+    }
+
+    public boolean isNone() {
+        return deadlineNanos == Long.MAX_VALUE;
+    }
+
+    /**
+     * Nanosegundos que quedan hasta el límite (Long.MAX_VALUE si no hay límite)
+     */
+    public long remainingNanos() {
+        return isNone() ? Long.MAX_VALUE : deadlineNanos - System.nanoTime();
+    }
+}
@@ -0,0 +1,76 @@
+package rafa.tfg.domain.model.recommendation;
+
+import java.util.List;
+
+/**
+ * Matriz de decisión densa para los algoritmos MCDM
+ * Almacena los criterios por columnas (un bloque contiguo por criterio) indexados por
+ * ItemCandidate.Criterion.ordinal(), evitando mapas y boxing en los bucles de TOPSIS y TODIM.
+ * Es de solo lectura: se construye una vez por petición y la comparten ambos algoritmos,
+ * que trabajan sobre sus propios buffers.
+ */
+public final class DecisionMatrix {
+
+    public static final ItemCandidate.Criterion[] CRITERIA = ItemCandidate.Criterion.values();
+    public static final int CRITERIA_COUNT = CRITERIA.length;
+
+    private final List<ItemCandidate> candidates;
+    private final int rows;
+
+    // values[criterion * rows + row]
+    private final double[] values;
+
+    private DecisionMatrix(List<ItemCandidate> candidates) {
+        this.candidates = List.copyOf(candidates);
+        this.rows = candidates.size();
+        this.values = new double[rows * CRITERIA_COUNT];
+
+        for (int i = 0; i < rows; i++) {
+            double[] row = candidates.get(i).getCriteria();
+            for (int c = 0; c < CRITERIA_COUNT; c++) {
+                values[c * rows + i] = row[c];
+            }
+        }
+    }
+
+    /**
+     * Construye la matriz a partir de las filas de criterios de los candidatos
+     */
+    public static DecisionMatrix of(List<ItemCandidate> candidates) {
+        return new DecisionMatrix(candidates);
+    }
+
+    public List<ItemCandidate> getCandidates() {
+        return candidates;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public boolean isEmpty() {
+        return rows == 0;
+    }
+
+    /**
+     * Valor del criterio para una alternativa
+     */
+    public double get(int row, int criterion) {
+        return values[criterion * rows + row];
+    }
+
+    /**
+     * Posición de inicio de la columna de un criterio dentro de getValues()
+     */
+    public int columnOffset(int criterion) {
+        return criterion * rows;
+    }
+
+    /**
+     * Acceso directo al almacenamiento por columnas para los bucles de los algoritmos
+     * No debe modificarse: la matriz se comparte entre hilos
+     */
+    public double[] getValues() {
+        return values;
+    }
+}
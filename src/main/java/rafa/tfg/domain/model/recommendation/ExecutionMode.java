@@ -0,0 +1,10 @@
+package rafa.tfg.domain.model.recommendation;
+
+/**
+ * Modo de ejecución del pipeline MCDM según el presupuesto de tiempo de la petición
+ */
+public enum ExecutionMode {
+    FULL,           // TOPSIS + TODIM sobre todos los candidatos
+    REDUCED_TODIM,  // TODIM solo sobre los mejores candidatos según TOPSIS
+    TOPSIS_ONLY     // sin tiempo para TODIM: el score final es el de TOPSIS
+}
@@ -0,0 +1,112 @@
+package rafa.tfg.domain.model.recommendation;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Huella canónica de las entradas que determinan una recomendación
+ * Dos estados de partida con la misma huella producen el mismo resultado, aunque cambie
+ * el oro o el orden de los jugadores, de modo que se puede usar como clave de caché
+ */
+@Getter
+@EqualsAndHashCode
+public final class GameStateFingerprint {
+
+    private final String canonicalForm;
+
+    private GameStateFingerprint(String canonicalForm) {
+        this.canonicalForm = canonicalForm;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public String toString() {
+        return canonicalForm;
+    }
+
+    /**
+     * Construye la forma canónica: listas ordenadas y el tipo de escalado en lugar de las stats
+     * (dos stats casi iguales a cada lado de un umbral dan tipos, y recomendaciones, distintos)
+     */
+    public static final class Builder {
+
+        private String championName;
+        private Integer level;
+        private final List<String> ownedItemIds = new ArrayList<>();
+        private final List<String> enemies = new ArrayList<>();
+        private ChampionProfile.ChampionScalingType scalingType;
+        private int topK;
+        private boolean explain = true;
+        private long catalogVersion;
+        private long cacheGeneration;
+
+        private Builder() {
+        }
+
+        public Builder championName(String championName) {
+            this.championName = championName;
+            return this;
+        }
+
+        public Builder level(Integer level) {
+            this.level = level;
+            return this;
+        }
+
+        public Builder ownedItemIds(Collection<String> itemIds) {
+            this.ownedItemIds.addAll(itemIds);
+            return this;
+        }
+
+        public Builder enemy(String championName, Integer level) {
+            this.enemies.add(championName + ":" + level);
+            return this;
+        }
+
+        public Builder scalingType(ChampionProfile.ChampionScalingType scalingType) {
+            this.scalingType = scalingType;
+            return this;
+        }
+
+        public Builder topK(int topK) {
+            this.topK = topK;
+            return this;
+        }
+
+        public Builder explain(boolean explain) {
+            this.explain = explain;
+            return this;
+        }
+
+        public Builder catalogVersion(long catalogVersion) {
+            this.catalogVersion = catalogVersion;
+            return this;
+        }
+
+        public Builder cacheGeneration(long cacheGeneration) {
+            this.cacheGeneration = cacheGeneration;
+            return this;
+        }
+
+        public GameStateFingerprint build() {
+            ownedItemIds.sort(null);
+            enemies.sort(null);
+
+            String canonicalForm = championName + '|' + level
+                    + "|items=" + String.join(",", ownedItemIds)
+                    + "|enemies=" + String.join(",", enemies)
+                    + "|scaling=" + scalingType
+                    + "|k=" + topK + (explain ? "" : "|noexplain")
+                    + "|catalog=" + catalogVersion + '.' + cacheGeneration;
+
+            return new GameStateFingerprint(canonicalForm);
+        }
+    }
+}
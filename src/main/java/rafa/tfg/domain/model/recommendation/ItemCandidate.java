@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import rafa.tfg.domain.model.Item;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -21,8 +22,9 @@ public class ItemCandidate {
     private String itemId;
     private String itemName;
 
-    // Matriz de criterios (12 criterios)
-    private Map<String, Double> criteria;
+    // Fila de la matriz de criterios (12 criterios, indexada por Criterion.ordinal())
+    // Normalmente es la fila precalculada del catálogo, compartida entre peticiones: no modificar
+    private double[] criteria;
 
     // Scores de los algoritmos
     private Double topsisScore;
@@ -34,28 +36,41 @@ public class ItemCandidate {
     private Integer buildDepth;
     private Boolean purchasable;
 
+    /**
+     * Vista de los criterios como mapa clave -> valor (solo para construir la respuesta)
+     */
+    public Map<String, Double> toCriteriaMap() {
+        Map<String, Double> criteriaMap = new LinkedHashMap<>();
+        for (Criterion criterion : Criterion.values()) {
+            criteriaMap.put(criterion.getKey(), criteria[criterion.ordinal()]);
+        }
+        return criteriaMap;
+    }
+
     /**
      * Nombres de los 12 criterios usados en la matriz de decisión
      */
     public enum Criterion {
-        ATTACK_DAMAGE("attackDamage", 35.0),           // Gold value per point
-        ABILITY_POWER("abilityPower", 21.75),
-        ATTACK_SPEED("attackSpeed", 25.0),             // Per 1% AS
-        CRITICAL_CHANCE("criticalChance", 40.0),       // Per 1% crit
-        ARMOR("armor", 20.0),
-        MAGIC_RESIST("magicResist", 18.0),
-        HEALTH("health", 2.67),                        // Per HP
-        COOLDOWN_REDUCTION("cooldownReduction", 26.67), // Per 1% CDR (now Ability Haste)
-        ARMOR_PENETRATION("armorPenetration", 30.0),   // Lethality value
-        MAGIC_PENETRATION("magicPenetration", 31.11),
-        LIFE_STEAL("lifeSteal", 27.5),                 // Per 1% LS
-        MOVEMENT_SPEED("movementSpeed", 12.0);         // Per 1% MS
+        ATTACK_DAMAGE("attackDamage", "Attack damage", 35.0),              // Gold value per point
+        ABILITY_POWER("abilityPower", "Ability power", 21.75),
+        ATTACK_SPEED("attackSpeed", "Attack speed", 25.0),                // Per 1% AS
+        CRITICAL_CHANCE("criticalChance", "Critical chance", 40.0),       // Per 1% crit
+        ARMOR("armor", "Armor", 20.0),
+        MAGIC_RESIST("magicResist", "Magic resist", 18.0),
+        HEALTH("health", "Health", 2.67),                                 // Per HP
+        COOLDOWN_REDUCTION("cooldownReduction", "Cooldown reduction", 26.67), // Per 1% CDR (now Ability Haste)
+        ARMOR_PENETRATION("armorPenetration", "Armor penetration", 30.0), // Lethality value
+        MAGIC_PENETRATION("magicPenetration", "Magic penetration", 31.11),
+        LIFE_STEAL("lifeSteal", "Life steal", 27.5),                      // Per 1% LS
+        MOVEMENT_SPEED("movementSpeed", "Movement speed", 12.0);          // Per 1% MS
 
         private final String key;
+        private final String displayName;
         private final Double goldValue;
 
-        Criterion(String key, Double goldValue) {
+        Criterion(String key, String displayName, Double goldValue) {
             this.key = key;
+            this.displayName = displayName;
             this.goldValue = goldValue;
         }
 
@@ -63,6 +78,13 @@ public class ItemCandidate {
             return key;
         }
 
+        /**
+         * Nombre para mostrar en las explicaciones (ej: "Attack damage")
+         */
+        public String getDisplayName() {
+            return displayName;
+        }
+
         public Double getGoldValue() {
             return goldValue;
         }
@@ -0,0 +1,168 @@
+package rafa.tfg.domain.model.recommendation;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import rafa.tfg.domain.model.Item;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Snapshot inmutable del catálogo de items usado por el sistema de recomendaciones
+ * Se construye una vez tras la carga de items y se sustituye completo en cada recarga.
+ * Los items se comparten entre peticiones, por lo que no deben modificarse.
+ * Incluye un índice de bitsets (bit i = items.get(i)) con los items comprables y los
+ * relevantes para cada tipo de escalado, de modo que filtrar candidatos son operaciones AND/ANDNOT,
+ * y la fila de criterios y la gold efficiency de cada item, precalculadas al cargar el catálogo.
+ */
+@Getter
+public final class ItemCatalog {
+
+    // Generación del snapshot, se incrementa en cada recarga
+    private final long version;
+    private final Instant loadedAt;
+    private final List<Item> items;
+    private final Map<String, Item> itemsById;
+
+    // Índice de candidatos: posición del item en items por itemId y máscaras por regla
+    @Getter(AccessLevel.NONE)
+    private final Map<String, Integer> ordinalsById;
+    @Getter(AccessLevel.NONE)
+    private final BitSet purchasableMask;
+    @Getter(AccessLevel.NONE)
+    private final Map<ChampionProfile.ChampionScalingType, BitSet> candidateMasks;
+
+    // Criterios y gold efficiency por posición del item (compartidos, de solo lectura)
+    @Getter(AccessLevel.NONE)
+    private final double[][] criteriaRows;
+    @Getter(AccessLevel.NONE)
+    private final double[] goldEfficiencies;
+
+    private ItemCatalog(long version, List<Item> items, double[][] criteriaRows, double[] goldEfficiencies) {
+        if (criteriaRows.length != items.size() || goldEfficiencies.length != items.size()) {
+            throw new IllegalArgumentException("Precomputed criteria must have one row per item");
+        }
+
+        this.version = version;
+        this.loadedAt = Instant.now();
+        this.items = List.copyOf(items);
+
+        Map<String, Item> byId = new HashMap<>();
+        for (Item item : this.items) {
+            byId.put(item.getItemId(), item);
+        }
+        this.itemsById = Collections.unmodifiableMap(byId);
+
+        // Paso 1: Evaluar las reglas estáticas una vez por item
+        Map<String, Integer> ordinals = new HashMap<>();
+        BitSet purchasable = new BitSet(this.items.size());
+        Map<ChampionProfile.ChampionScalingType, BitSet> relevant =
+                new EnumMap<>(ChampionProfile.ChampionScalingType.class);
+        for (ChampionProfile.ChampionScalingType scalingType : ChampionProfile.ChampionScalingType.values()) {
+            relevant.put(scalingType, new BitSet(this.items.size()));
+        }
+
+        for (int i = 0; i < this.items.size(); i++) {
+            Item item = this.items.get(i);
+            ordinals.put(item.getItemId(), i);
+
+            if (ItemRelevanceRules.isPurchasable(item)) {
+                purchasable.set(i);
+            }
+            for (Map.Entry<ChampionProfile.ChampionScalingType, BitSet> entry : relevant.entrySet()) {
+                if (ItemRelevanceRules.isRelevant(item, entry.getKey())) {
+                    entry.getValue().set(i);
+                }
+            }
+        }
+
+        // Paso 2: Precombinar la máscara de comprables con la de cada tipo de escalado
+        for (BitSet mask : relevant.values()) {
+            mask.and(purchasable);
+        }
+
+        this.ordinalsById = Collections.unmodifiableMap(ordinals);
+        this.purchasableMask = purchasable;
+        this.candidateMasks = relevant;
+        this.criteriaRows = criteriaRows;
+        this.goldEfficiencies = goldEfficiencies;
+    }
+
+    /**
+     * Crea un snapshot con los items indicados y sus criterios precalculados
+     *
+     * @param criteriaRows     Fila de criterios de cada item, en el mismo orden que items
+     * @param goldEfficiencies Gold efficiency de cada item, en el mismo orden que items
+     */
+    public static ItemCatalog of(long version, List<Item> items, double[][] criteriaRows, double[] goldEfficiencies) {
+        return new ItemCatalog(version, items, criteriaRows, goldEfficiencies);
+    }
+
+    /**
+     * Busca un item por su itemId (ej: "1001")
+     */
+    public Optional<Item> findByItemId(String itemId) {
+        return Optional.ofNullable(itemsById.get(itemId));
+    }
+
+    /**
+     * Posición del item en getItems() (bit del índice), o -1 si no está en el catálogo
+     */
+    public int ordinalOf(String itemId) {
+        Integer ordinal = ordinalsById.get(itemId);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    /**
+     * Copia de la máscara de items comprables y relevantes para el tipo de escalado
+     * El llamante puede modificarla (p. ej. quitar los items que ya tiene el jugador)
+     */
+    public BitSet candidateMask(ChampionProfile.ChampionScalingType scalingType) {
+        return (BitSet) candidateMasks.get(scalingType).clone();
+    }
+
+    /**
+     * Fila de criterios precalculada del item en la posición indicada
+     * No debe modificarse: se comparte entre peticiones
+     */
+    public double[] criteriaRow(int ordinal) {
+        return criteriaRows[ordinal];
+    }
+
+    public double goldEfficiency(int ordinal) {
+        return goldEfficiencies[ordinal];
+    }
+
+    /**
+     * Número de items comprables en el catálogo
+     */
+    public int purchasableCount() {
+        return purchasableMask.cardinality();
+    }
+
+    /**
+     * Items seleccionados por una máscara, en el orden del catálogo
+     */
+    public List<Item> itemsOf(BitSet mask) {
+        List<Item> selected = new ArrayList<>(mask.cardinality());
+        for (int i = mask.nextSetBit(0); i >= 0; i = mask.nextSetBit(i + 1)) {
+            selected.add(items.get(i));
+        }
+        return selected;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+}
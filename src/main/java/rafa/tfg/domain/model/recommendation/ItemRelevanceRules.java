@@ -0,0 +1,78 @@
+package rafa.tfg.domain.model.recommendation;
+
+import rafa.tfg.domain.model.Item;
+
+/**
+ * Reglas estáticas de filtrado de items para las recomendaciones
+ * Solo dependen de los datos del item (del parche), por lo que el catálogo las evalúa una vez
+ * al construirse y guarda el resultado como bitsets
+ */
+public final class ItemRelevanceRules {
+
+    private ItemRelevanceRules() {
+    }
+
+    /**
+     * Verifica si el item es comprable en la tienda
+     */
+    public static boolean isPurchasable(Item item) {
+        return Boolean.TRUE.equals(item.getInStore()) && Boolean.TRUE.equals(item.getPurchasable());
+    }
+
+    /**
+     * Verifica si el item es relevante para un tipo de escalado de campeón
+     */
+    public static boolean isRelevant(Item item, ChampionProfile.ChampionScalingType scalingType) {
+        return switch (scalingType) {
+            case AD_FOCUSED -> hasAdStats(item) || hasPhysicalDamageStats(item);
+            case AP_FOCUSED -> hasApStats(item) || hasMagicDamageStats(item);
+            case TANK -> hasTankStats(item);
+            // Aceptar items con AD, AP o hybrid
+            case MIXED -> hasAdStats(item) || hasApStats(item) || hasHybridStats(item);
+            // Aceptar items con CDR, MS, utility stats
+            case UTILITY -> hasUtilityStats(item);
+        };
+    }
+
+    private static boolean hasAdStats(Item item) {
+        return isPositive(item.getFlatPhysicalDamageMod())
+                || isPositive(item.getPercentAttackSpeedMod())
+                || isPositive(item.getFlatCritChanceMod());
+    }
+
+    private static boolean hasApStats(Item item) {
+        return isPositive(item.getFlatMagicDamageMod());
+    }
+
+    private static boolean hasPhysicalDamageStats(Item item) {
+        return hasAdStats(item)
+                || isPositive(item.getPercentArmorMod())
+                || isPositive(item.getPercentLifeStealMod());
+    }
+
+    private static boolean hasMagicDamageStats(Item item) {
+        return hasApStats(item) || isPositive(item.getPercentMPPoolMod());
+    }
+
+    private static boolean hasTankStats(Item item) {
+        return isPositive(item.getFlatHPPoolMod())
+                || isPositive(item.getFlatArmorMod())
+                || isPositive(item.getFlatSpellBlockMod());
+    }
+
+    private static boolean hasHybridStats(Item item) {
+        boolean hasAd = hasAdStats(item);
+        boolean hasAp = hasApStats(item);
+        boolean hasTank = hasTankStats(item);
+
+        return (hasAd && hasAp) || (hasAd && hasTank) || (hasAp && hasTank);
+    }
+
+    private static boolean hasUtilityStats(Item item) {
+        return isPositive(item.getFlatMovementSpeedMod());
+    }
+
+    private static boolean isPositive(Double value) {
+        return value != null && value > 0;
+    }
+}
@@ -0,0 +1,50 @@
+package rafa.tfg.domain.model.recommendation;
+
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Datos compartidos por las recomendaciones de una misma petición
+ * En modo batch todas las entradas usan el mismo snapshot del catálogo y reutilizan
+ * los análisis de equipos enemigos ya calculados
+ */
+@Getter
+public final class RecommendationContext {
+
+    private final ItemCatalog catalog;
+
+    // Análisis enemigos por alineación (null si no se comparten)
+    private final Map<String, EnemyComposition> enemyCompositions;
+
+    private RecommendationContext(ItemCatalog catalog, Map<String, EnemyComposition> enemyCompositions) {
+        this.catalog = catalog;
+        this.enemyCompositions = enemyCompositions;
+    }
+
+    /**
+     * Contexto para una única recomendación
+     */
+    public static RecommendationContext single(ItemCatalog catalog) {
+        return new RecommendationContext(catalog, null);
+    }
+
+    /**
+     * Contexto compartido por varias recomendaciones, seguro para uso concurrente
+     */
+    public static RecommendationContext shared(ItemCatalog catalog) {
+        return new RecommendationContext(catalog, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Devuelve el análisis de la alineación enemiga, calculándolo solo la primera vez
+     */
+    public EnemyComposition enemyComposition(String rosterKey, Supplier<EnemyComposition> analysis) {
+        if (enemyCompositions == null) {
+            return analysis.get();
+        }
+        return enemyCompositions.computeIfAbsent(rosterKey, key -> analysis.get());
+    }
+}
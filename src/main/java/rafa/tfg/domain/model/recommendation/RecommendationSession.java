@@ -0,0 +1,68 @@
+package rafa.tfg.domain.model.recommendation;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.Getter;
+import lombok.Setter;
+import rafa.tfg.application.dto.recommendation.ItemRecommendationResponseDTO;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sesión de recomendación en vivo
+ * Guarda el último estado de partida recibido (para aplicar deltas) y la última
+ * recomendación enviada, de modo que solo se notifica cuando cambia el Top K
+ */
+@Getter
+@Setter
+public class RecommendationSession {
+
+    private final String id;
+    private final int topK;
+
+    // Estado de partida acumulado en formato JSON (destino de los merge patch)
+    private ObjectNode state;
+
+    private GameStateFingerprint lastFingerprint;
+    private List<String> lastTopItemIds;
+    private ItemRecommendationResponseDTO lastRecommendation;
+
+    private volatile long lastAccessMillis;
+
+    // Versión de la última recomendación calculada y de la última enviada (esta con publishLock)
+    private long recommendationVersion;
+    private long publishedVersion;
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    // ReentrantLock en lugar de synchronized para no bloquear el hilo portador de los hilos virtuales
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Serializa los envíos a los suscriptores, que se hacen sin el bloqueo de estado
+    private final ReentrantLock publishLock = new ReentrantLock();
+
+    public RecommendationSession(String id, int topK, ObjectNode state) {
+        this.id = id;
+        this.topK = topK;
+        this.state = state;
+        this.lastAccessMillis = System.currentTimeMillis();
+    }
+
+    public void touch() {
+        this.lastAccessMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Suscriptor de la sesión (p. ej. una conexión SSE)
+     */
+    public interface Listener {
+
+        void onRecommendation(ItemRecommendationResponseDTO recommendation);
+
+        /**
+         * La sesión se ha cerrado o ha caducado
+         */
+        void onClose();
+    }
+}
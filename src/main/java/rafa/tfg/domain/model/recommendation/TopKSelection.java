@@ -0,0 +1,124 @@
+package rafa.tfg.domain.model.recommendation;
+
+/**
+ * Selección de los K mejores scores sin ordenar todo el array
+ * Usa un min-heap acotado a K posiciones sobre los scores primitivos (O(n log k)).
+ * Los empates se resuelven a favor del índice menor, igual que una ordenación estable.
+ */
+public final class TopKSelection {
+
+    private static final TopKSelection EMPTY = new TopKSelection(new int[0], new double[0]);
+
+    // Índices de los seleccionados, de mejor a peor
+    private final int[] indices;
+    private final double[] scores;
+
+    private TopKSelection(int[] indices, double[] scores) {
+        this.indices = indices;
+        this.scores = scores;
+    }
+
+    /**
+     * Selecciona los k mayores scores
+     *
+     * @param scores Scores indexados por posición del candidato
+     * @param k      Número máximo de elementos a devolver
+     */
+    public static TopKSelection of(double[] scores, int k) {
+        int size = Math.min(k, scores.length);
+
+        if (size <= 0) {
+            return EMPTY;
+        }
+
+        // Paso 1: Llenar el heap con los primeros elementos y mantenerlo con el peor en la raíz
+        int[] heap = new int[size];
+        for (int i = 0; i < size; i++) {
+            heap[i] = i;
+        }
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(heap, size, i, scores);
+        }
+
+        // Paso 2: Sustituir la raíz cuando aparece un elemento mejor
+        for (int i = size; i < scores.length; i++) {
+            if (isWorse(heap[0], i, scores)) {
+                heap[0] = i;
+                siftDown(heap, size, 0, scores);
+            }
+        }
+
+        // Paso 3: Extraer del heap del peor al mejor para dejarlo ordenado de mejor a peor
+        int[] indices = new int[size];
+        double[] selectedScores = new double[size];
+        int remaining = size;
+
+        for (int position = size - 1; position >= 0; position--) {
+            indices[position] = heap[0];
+            selectedScores[position] = scores[heap[0]];
+            heap[0] = heap[--remaining];
+            siftDown(heap, remaining, 0, scores);
+        }
+
+        return new TopKSelection(indices, selectedScores);
+    }
+
+    /**
+     * Indica si el elemento a es peor que b (score menor o, en empate, índice mayor)
+     */
+    private static boolean isWorse(int a, int b, double[] scores) {
+        int comparison = Double.compare(scores[a], scores[b]);
+        return comparison < 0 || (comparison == 0 && a > b);
+    }
+
+    private static void siftDown(int[] heap, int size, int position, double[] scores) {
+        while (true) {
+            int left = 2 * position + 1;
+            if (left >= size) {
+                return;
+            }
+
+            int worst = left;
+            int right = left + 1;
+            if (right < size && isWorse(heap[right], heap[left], scores)) {
+                worst = right;
+            }
+
+            if (!isWorse(heap[worst], heap[position], scores)) {
+                return;
+            }
+
+            int swap = heap[position];
+            heap[position] = heap[worst];
+            heap[worst] = swap;
+            position = worst;
+        }
+    }
+
+    public int size() {
+        return indices.length;
+    }
+
+    public boolean isEmpty() {
+        return indices.length == 0;
+    }
+
+    /**
+     * Índice del elemento en la posición indicada (0 = mejor)
+     */
+    public int indexAt(int rank) {
+        return indices[rank];
+    }
+
+    public double scoreAt(int rank) {
+        return scores[rank];
+    }
+
+    /**
+     * Score del K-ésimo elemento seleccionado: umbral que debe superar cualquier alternativa
+     * para entrar en el Top K. NEGATIVE_INFINITY si no hay selección
+     */
+    public double getKthScore() {
+        return indices.length == 0 ? Double.NEGATIVE_INFINITY : scores[indices.length - 1];
+    }
+}
@@ -1,60 +1,197 @@
 package rafa.tfg.domain.model.recommendation;
 
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
  * Pesos dinámicos para cada criterio basados en el perfil del campeón y contexto del juego
+ * Los pesos se guardan en un array indexado por ItemCandidate.Criterion.ordinal(), junto con los
+ * valores derivados que usa TODIM (criterio de referencia y pesos relativos).
+ * Es inmutable: se construye con un Builder, que normaliza los pesos, y se comparte entre peticiones.
  */
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
-public class WeightProfile {
+public final class WeightProfile {
+
+    private static final ItemCandidate.Criterion[] CRITERIA = ItemCandidate.Criterion.values();
+    private static final Map<String, ItemCandidate.Criterion> CRITERIA_BY_KEY = new HashMap<>();
+
+    static {
+        for (ItemCandidate.Criterion criterion : CRITERIA) {
+            CRITERIA_BY_KEY.put(criterion.getKey(), criterion);
+        }
+    }
+
+    private final double[] weights;
+    private final double totalWeight;
+
+    // Derivados para TODIM: criterio de mayor peso y pesos relativos a él
+    private final double[] relativeWeights = new double[CRITERIA.length];
+    private final int referenceCriterion;
+    private final double referenceWeight;
+
+    private WeightProfile(double[] weights, double totalWeight) {
+        this.weights = weights;
+        this.totalWeight = totalWeight;
 
-    private Map<String, Double> weights;
-    private Double totalWeight;
+        // Criterio de referencia: el de mayor peso (el primero en caso de empate)
+        int reference = 0;
+        double maxWeight = 0.0;
+
+        for (int c = 0; c < weights.length; c++) {
+            if (weights[c] > maxWeight) {
+                maxWeight = weights[c];
+                reference = c;
+            }
+        }
+
+        this.referenceCriterion = reference;
+        this.referenceWeight = weights[reference];
+
+        for (int c = 0; c < weights.length; c++) {
+            relativeWeights[c] = weights[c] / referenceWeight;
+        }
+    }
 
     /**
-     * Normaliza los pesos para que sumen 1.0
+     * Builder con el mismo peso inicial para todos los criterios
      */
-    public void normalize() {
-        if (weights == null || weights.isEmpty()) {
-            return;
-        }
+    public static Builder builder(double initialWeight) {
+        return new Builder(initialWeight);
+    }
+
+    /**
+     * Peso de un criterio por ordinal (acceso directo para los bucles de los algoritmos)
+     */
+    public double weight(int criterion) {
+        return weights[criterion];
+    }
+
+    public double weight(ItemCandidate.Criterion criterion) {
+        return weights[criterion.ordinal()];
+    }
+
+    /**
+     * Criterio de referencia de TODIM (el de mayor peso; el primero en caso de empate)
+     */
+    public int referenceCriterion() {
+        return referenceCriterion;
+    }
+
+    public double referenceWeight() {
+        return referenceWeight;
+    }
+
+    /**
+     * Copia de los pesos relativos al criterio de referencia, indexados por ordinal
+     */
+    public double[] relativeWeights() {
+        return relativeWeights.clone();
+    }
 
-        totalWeight = weights.values().stream()
-                .mapToDouble(Double::doubleValue)
-                .sum();
+    /**
+     * Copia de los pesos indexada por ItemCandidate.Criterion.ordinal()
+     */
+    public double[] toArray() {
+        return weights.clone();
+    }
 
-        if (totalWeight > 0) {
-            weights.replaceAll((k, v) -> v / totalWeight);
-            totalWeight = 1.0;
+    /**
+     * Pesos por clave de criterio (adaptador para la salida JSON)
+     */
+    public Map<String, Double> getWeights() {
+        Map<String, Double> map = new LinkedHashMap<>();
+        for (ItemCandidate.Criterion criterion : CRITERIA) {
+            map.put(criterion.getKey(), weights[criterion.ordinal()]);
         }
+        return map;
+    }
+
+    public Double getTotalWeight() {
+        return totalWeight;
     }
 
     /**
      * Obtiene el peso de un criterio específico
      */
     public Double getWeight(String criterion) {
-        return weights.getOrDefault(criterion, 0.0);
+        ItemCandidate.Criterion key = CRITERIA_BY_KEY.get(criterion);
+        return key != null ? weights[key.ordinal()] : 0.0;
     }
 
-    /**
-     * Establece el peso de un criterio
-     */
-    public void setWeight(String criterion, Double weight) {
-        weights.put(criterion, weight);
+    @Override
+    public String toString() {
+        return "WeightProfile(weights=" + getWeights() + ", totalWeight=" + totalWeight + ")";
     }
 
     /**
-     * Incrementa el peso de un criterio
+     * Acumula los ajustes de pesos; build() los normaliza para que sumen 1.0 y congela el perfil
      */
-    public void increaseWeight(String criterion, Double increment) {
-        weights.put(criterion, weights.getOrDefault(criterion, 0.0) + increment);
+    public static final class Builder {
+
+        private final double[] weights = new double[CRITERIA.length];
+
+        private Builder(double initialWeight) {
+            Arrays.fill(weights, initialWeight);
+        }
+
+        /**
+         * Incrementa el peso de un criterio
+         */
+        public Builder increase(ItemCandidate.Criterion criterion, double increment) {
+            weights[criterion.ordinal()] += increment;
+            return this;
+        }
+
+        /**
+         * Establece el peso de un criterio
+         */
+        public Builder set(ItemCandidate.Criterion criterion, double weight) {
+            weights[criterion.ordinal()] = weight;
+            return this;
+        }
+
+        /**
+         * Incrementa el peso de un criterio por clave
+         */
+        public Builder increaseWeight(String criterion, Double increment) {
+            return increase(criterionFor(criterion), increment);
+        }
+
+        /**
+         * Establece el peso de un criterio por clave
+         */
+        public Builder setWeight(String criterion, Double weight) {
+            return set(criterionFor(criterion), weight);
+        }
+
+        /**
+         * Normaliza una copia de los pesos y construye el perfil inmutable
+         */
+        public WeightProfile build() {
+            double[] normalized = weights.clone();
+
+            double totalWeight = 0.0;
+            for (double weight : normalized) {
+                totalWeight += weight;
+            }
+
+            if (totalWeight > 0) {
+                for (int c = 0; c < normalized.length; c++) {
+                    normalized[c] = normalized[c] / totalWeight;
+                }
+                totalWeight = 1.0;
+            }
+
+            return new WeightProfile(normalized, totalWeight);
+        }
+    }
+
+    private static ItemCandidate.Criterion criterionFor(String key) {
+        ItemCandidate.Criterion criterion = CRITERIA_BY_KEY.get(key);
+        if (criterion == null) {
+            throw new IllegalArgumentException("Unknown criterion: " + key);
+        }
+        return criterion;
     }
 }
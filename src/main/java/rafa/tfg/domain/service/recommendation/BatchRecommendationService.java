@@ -0,0 +1,149 @@
+package rafa.tfg.domain.service.recommendation;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import rafa.tfg.application.dto.recommendation.BatchRecommendationResponseDTO;
+import rafa.tfg.application.dto.recommendation.GameStateRequestDTO;
+import rafa.tfg.application.dto.recommendation.ItemRecommendationResponseDTO;
+import rafa.tfg.domain.model.recommendation.RecommendationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servicio de recomendaciones en lote
+ * Procesa varios estados de juego en paralelo sobre un pool acotado, compartiendo el snapshot
+ * del catálogo y los análisis enemigos. Los errores se informan por entrada sin abortar el lote
+ */
+@Service
+@Slf4j
+public class BatchRecommendationService {
+
+    public static final String STATUS_OK = "OK";
+    public static final String STATUS_ERROR = "ERROR";
+
+    private final ItemRecommendationService itemRecommendationService;
+    private final ItemCatalogService itemCatalogService;
+    private final int maxBatchSize;
+    private final ExecutorService executor;
+
+    public BatchRecommendationService(
+            ItemRecommendationService itemRecommendationService,
+            ItemCatalogService itemCatalogService,
+            @Value("${recommendation.batch.parallelism:0}") int parallelism,
+            @Value("${recommendation.batch.queue-capacity:256}") int queueCapacity,
+            @Value("${recommendation.batch.max-size:500}") int maxBatchSize) {
+        this.itemRecommendationService = itemRecommendationService;
+        this.itemCatalogService = itemCatalogService;
+        this.maxBatchSize = maxBatchSize;
+
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+
+        // Cola acotada: si se llena, el hilo de la petición ejecuta la tarea (contrapresión)
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "recommendation-batch-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Genera las recomendaciones de todos los estados, en el mismo orden de entrada
+     *
+     * @param explain Si se generan los textos de explicación de cada item
+     * @throws IllegalArgumentException si el lote supera el tamaño máximo configurado
+     */
+    public BatchRecommendationResponseDTO recommendBatch(
+            List<GameStateRequestDTO> gameStates, int topK, boolean explain) {
+        long startTime = System.currentTimeMillis();
+
+        if (gameStates.size() > maxBatchSize) {
+            throw new IllegalArgumentException(
+                    "Batch size " + gameStates.size() + " exceeds maximum of " + maxBatchSize);
+        }
+
+        log.info("Starting batch recommendation for {} game states", gameStates.size());
+
+        // Paso 1: Contexto compartido por todas las entradas del lote
+        RecommendationContext context = RecommendationContext.shared(itemCatalogService.getCatalog());
+
+        // Paso 2: Lanzar cada entrada en el pool
+        List<CompletableFuture<BatchRecommendationResponseDTO.BatchEntryDTO>> futures = new ArrayList<>(gameStates.size());
+        for (int i = 0; i < gameStates.size(); i++) {
+            int index = i;
+            GameStateRequestDTO gameState = gameStates.get(i);
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> recommendEntry(index, gameState, topK, explain, context), executor));
+        }
+
+        // Paso 3: Recoger resultados en orden
+        List<BatchRecommendationResponseDTO.BatchEntryDTO> results = new ArrayList<>(futures.size());
+        int failed = 0;
+
+        for (CompletableFuture<BatchRecommendationResponseDTO.BatchEntryDTO> future : futures) {
+            BatchRecommendationResponseDTO.BatchEntryDTO entry = future.join();
+            if (STATUS_ERROR.equals(entry.getStatus())) {
+                failed++;
+            }
+            results.add(entry);
+        }
+
+        long processingTime = System.currentTimeMillis() - startTime;
+
+        log.info("Batch recommendation completed in {}ms: {} succeeded, {} failed (enemy analyses: {})",
+                processingTime, results.size() - failed, failed, context.getEnemyCompositions().size());
+
+        return BatchRecommendationResponseDTO.builder()
+                .total(results.size())
+                .succeeded(results.size() - failed)
+                .failed(failed)
+                .catalogVersion(context.getCatalog().getVersion())
+                .results(results)
+                .processingTimeMs(processingTime)
+                .build();
+    }
+
+    /**
+     * Procesa una entrada del lote, convirtiendo cualquier error en un resultado ERROR
+     */
+    private BatchRecommendationResponseDTO.BatchEntryDTO recommendEntry(
+            int index, GameStateRequestDTO gameState, int topK, boolean explain, RecommendationContext context) {
+        try {
+            ItemRecommendationResponseDTO response =
+                    itemRecommendationService.recommendItems(gameState, topK, context, explain);
+
+            return BatchRecommendationResponseDTO.BatchEntryDTO.builder()
+                    .index(index)
+                    .status(STATUS_OK)
+                    .recommendation(response)
+                    .build();
+
+        } catch (Exception e) {
+            log.warn("Batch entry {} failed: {}", index, e.toString());
+
+            return BatchRecommendationResponseDTO.BatchEntryDTO.builder()
+                    .index(index)
+                    .status(STATUS_ERROR)
+                    .error(e.getClass().getSimpleName() + (e.getMessage() != null ? ": " + e.getMessage() : ""))
+                    .build();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -7,11 +7,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import rafa.tfg.application.dto.recommendation.GameStateRequestDTO;
 import rafa.tfg.domain.model.Spell;
+import rafa.tfg.domain.model.recommendation.AbilityTagBonus;
 import rafa.tfg.domain.model.recommendation.ChampionProfile;
+import rafa.tfg.domain.model.recommendation.ChampionScalingProfile;
 import rafa.tfg.domain.port.SpellRepository;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Servicio para analizar el perfil de escalado de un campeón
@@ -24,30 +27,140 @@ public class ChampionAnalysisService {
     private final SpellRepository spellRepository;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    // Perfiles estáticos de escalado por campeón (se invalidan al recargar habilidades)
+    private final Map<String, CachedScalingProfile> scalingProfileCache = new ConcurrentHashMap<>();
+
+    // Cada invalidación abre una generación nueva; los perfiles de generaciones anteriores no se usan
+    private final AtomicLong generation = new AtomicLong();
+
     /**
      * Analiza el perfil de escalado del campeón activo
      */
     public ChampionProfile analyzeChampion(GameStateRequestDTO.ActivePlayerDTO activePlayer, String championName) {
         log.info("Analyzing champion profile for: {}", championName);
 
-        // Obtener habilidades del campeón desde la BD
-        List<Spell> championSpells = spellRepository.findByChampionId(championName);
+        // Obtener la parte estática del perfil (cacheada por campeón)
+        ChampionScalingProfile scalingProfile = getScalingProfile(championName);
 
-        if (championSpells.isEmpty()) {
+        if (!scalingProfile.hasAbilities()) {
             log.warn("No spells found for champion: {}", championName);
             return createDefaultProfile(activePlayer, championName);
         }
 
-        // Analizar escalados de las habilidades
-        ChampionProfile.ChampionProfileBuilder profileBuilder = ChampionProfile.builder()
+        // Combinar los ratios cacheados con las stats actuales del jugador
+        ChampionProfile profile = ChampionProfile.builder()
                 .championName(championName)
                 .championId(championName)
                 .championLevel(activePlayer.getLevel())
                 .currentAd(activePlayer.getChampionStats().getAttackDamage())
                 .currentAp(activePlayer.getChampionStats().getAbilityPower())
                 .currentAttackSpeed(activePlayer.getChampionStats().getAttackSpeed())
-                .currentCdr(activePlayer.getChampionStats().getCooldownReduction());
+                .currentCdr(activePlayer.getChampionStats().getCooldownReduction())
+                .totalAdRatio(scalingProfile.getTotalAdRatio())
+                .totalApRatio(scalingProfile.getTotalApRatio())
+                .totalBonusAdRatio(scalingProfile.getTotalBonusAdRatio())
+                .totalHealthRatio(scalingProfile.getTotalHealthRatio())
+                .totalArmorRatio(scalingProfile.getTotalArmorRatio())
+                .totalMrRatio(scalingProfile.getTotalMrRatio())
+                .abilitiesWithAdScaling(scalingProfile.getAbilitiesWithAdScaling())
+                .abilitiesWithApScaling(scalingProfile.getAbilitiesWithApScaling())
+                .totalAbilities(scalingProfile.getTotalAbilities())
+                .abilityTags(scalingProfile.getAbilityTags())
+                .abilityTagCounts(scalingProfile.getAbilityTagCounts())
+                .build();
+
+        // Determinar tipo de escalado
+        profile.setScalingType(profile.determineScalingType());
+
+        log.info("Champion profile created: scalingType={}, adRatio={}, apRatio={}",
+                profile.getScalingType(), profile.getTotalAdRatio(), profile.getTotalApRatio());
+
+        return profile;
+    }
+
+    /**
+     * Obtiene el perfil estático de escalado del campeón, calculándolo la primera vez
+     * La consulta a la BD se hace fuera del bloqueo del mapa; el perfil se guarda con la generación
+     * en la que empezó a cargarse, así que una invalidación concurrente no queda deshecha por él.
+     * Solo se cachean campeones con habilidades: el nombre llega en la petición y un nombre
+     * desconocido no debe ocupar una entrada (la caché queda acotada por los campeones de la BD)
+     */
+    public ChampionScalingProfile getScalingProfile(String championName) {
+        // Paso 1: Perfil cacheado de la generación actual
+        long currentGeneration = generation.get();
+        CachedScalingProfile cached = scalingProfileCache.get(championName);
+        if (cached != null && cached.generation() == currentGeneration) {
+            return cached.profile();
+        }
+
+        // Paso 2: Construirlo sin bloquear el mapa (dos hilos pueden construirlo a la vez; el resultado es el mismo)
+        ChampionScalingProfile profile = buildScalingProfile(championName);
+
+        // Paso 3: Guardarlo salvo que ya haya uno de una generación igual o posterior
+        if (profile.hasAbilities()) {
+            storeScalingProfile(championName, new CachedScalingProfile(currentGeneration, profile));
+        }
+
+        return profile;
+    }
+
+    /**
+     * Invalida los perfiles cacheados (tras recargar las habilidades)
+     */
+    public void invalidateScalingProfiles() {
+        generation.incrementAndGet();
+        int cachedProfiles = scalingProfileCache.size();
+        scalingProfileCache.clear();
+        log.info("Invalidated {} cached champion scaling profiles", cachedProfiles);
+    }
+
+    /**
+     * Número de perfiles cacheados (de cualquier generación)
+     */
+    int cachedScalingProfiles() {
+        return scalingProfileCache.size();
+    }
 
+    /**
+     * Precalcula los perfiles de todos los campeones con habilidades en la BD (tras recargarlas)
+     * Los perfiles anteriores se descartan
+     */
+    public void warmScalingProfiles() {
+        // Paso 1: Nueva generación antes de leer, para que los perfiles cargados antes queden obsoletos
+        long warmGeneration = generation.incrementAndGet();
+
+        Map<String, List<Spell>> spellsByChampion = new HashMap<>();
+        for (Spell spell : spellRepository.findAll()) {
+            if (spell.getChampionId() != null) {
+                spellsByChampion.computeIfAbsent(spell.getChampionId(), id -> new ArrayList<>()).add(spell);
+            }
+        }
+
+        // Paso 2: Sustituir los perfiles de generaciones anteriores
+        scalingProfileCache.values().removeIf(cached -> cached.generation() < warmGeneration);
+        spellsByChampion.forEach((championId, spells) -> storeScalingProfile(
+                championId, new CachedScalingProfile(warmGeneration, buildScalingProfile(championId, spells))));
+
+        log.info("Warmed {} champion scaling profiles", spellsByChampion.size());
+    }
+
+    /**
+     * Guarda un perfil salvo que el cacheado sea de una generación igual o posterior
+     */
+    private void storeScalingProfile(String championName, CachedScalingProfile loaded) {
+        scalingProfileCache.merge(championName, loaded,
+                (existing, candidate) -> existing.generation() >= candidate.generation() ? existing : candidate);
+    }
+
+    /**
+     * Construye el perfil estático a partir de las habilidades del campeón en la BD
+     */
+    private ChampionScalingProfile buildScalingProfile(String championName) {
+        // Obtener habilidades del campeón desde la BD
+        return buildScalingProfile(championName, spellRepository.findByChampionId(championName));
+    }
+
+    private ChampionScalingProfile buildScalingProfile(String championName, List<Spell> championSpells) {
         double totalAdRatio = 0.0;
         double totalApRatio = 0.0;
         double totalBonusAdRatio = 0.0;
@@ -61,9 +174,10 @@ public class ChampionAnalysisService {
 
         for (Spell spell : championSpells) {
             // Extraer tags de levelTipLabels
-            //List<String> levelTipLabels = parseLevelTipLabels(spell.getLevelTipLabels());
-            List<String> levelTipLabels =spell.getLevelTipLabels();
-            allTags.addAll(levelTipLabels);
+            List<String> levelTipLabels = spell.getLevelTipLabels();
+            if (levelTipLabels != null) {
+                allTags.addAll(levelTipLabels);
+            }
 
             // Analizar vars para detectar escalados
             Map<String, Object> scalingRatios = extractScalingRatios(spell.getVars());
@@ -97,8 +211,12 @@ public class ChampionAnalysisService {
             }
         }
 
-        // Construir perfil
-        ChampionProfile profile = profileBuilder
+        log.debug("Built scaling profile for {} from {} spells", championName, championSpells.size());
+
+        List<String> abilityTags = allTags.stream().distinct().toList();
+
+        return ChampionScalingProfile.builder()
+                .championId(championName)
                 .totalAdRatio(totalAdRatio)
                 .totalApRatio(totalApRatio)
                 .totalBonusAdRatio(totalBonusAdRatio)
@@ -108,16 +226,9 @@ public class ChampionAnalysisService {
                 .abilitiesWithAdScaling(abilitiesWithAd)
                 .abilitiesWithApScaling(abilitiesWithAp)
                 .totalAbilities(championSpells.size())
-                .abilityTags(allTags.stream().distinct().collect(Collectors.toList()))
+                .abilityTags(abilityTags)
+                .abilityTagCounts(AbilityTagBonus.countTags(abilityTags))
                 .build();
-
-        // Determinar tipo de escalado
-        profile.setScalingType(profile.determineScalingType());
-
-        log.info("Champion profile created: scalingType={}, adRatio={}, apRatio={}",
-                profile.getScalingType(), totalAdRatio, totalApRatio);
-
-        return profile;
     }
 
     /**
@@ -191,6 +302,12 @@ public class ChampionAnalysisService {
         return 0.0;
     }
 
+    /**
+     * Perfil de escalado junto con la generación en la que se empezó a construir
+     */
+    private record CachedScalingProfile(long generation, ChampionScalingProfile profile) {
+    }
+
     /**
      * Crea un perfil por defecto cuando no hay datos de habilidades
      */
@@ -213,6 +330,7 @@ public class ChampionAnalysisService {
                 .abilitiesWithApScaling(0)
                 .totalAbilities(0)
                 .abilityTags(Collections.emptyList())
+                .abilityTagCounts(new int[AbilityTagBonus.values().length])
                 .scalingType(ChampionProfile.ChampionScalingType.UTILITY)
                 .build();
     }
@@ -0,0 +1,216 @@
+package rafa.tfg.domain.service.recommendation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import rafa.tfg.domain.model.Champion;
+import rafa.tfg.domain.model.Spell;
+import rafa.tfg.domain.model.recommendation.ChampionThreatProfile;
+import rafa.tfg.domain.model.recommendation.ChampionThreatProfile.DamageProfile;
+import rafa.tfg.domain.port.ChampionRepository;
+import rafa.tfg.domain.port.SpellRepository;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Índice en memoria con el perfil de amenaza de cada campeón
+ * Se reconstruye al cargar campeones o habilidades, de modo que el análisis enemigo no accede a la BD
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChampionThreatIndexService {
+
+    private final ChampionRepository championRepository;
+    private final SpellRepository spellRepository;
+
+    // Stats base promedio de campeones nivel 1-18
+    private static final double BASE_ARMOR_LV1 = 30.0;
+    private static final double BASE_MR_LV1 = 30.0;
+    private static final double BASE_HP_LV1 = 600.0;
+    private static final double ARMOR_PER_LEVEL = 4.0;
+    private static final double MR_PER_LEVEL = 1.25;
+    private static final double HP_PER_LEVEL = 95.0;
+    private static final double BASE_AD_LV1 = 60.0;
+    private static final double AD_PER_LEVEL = 3.5;
+    private static final double BASE_ATTACK_SPEED = 0.65;
+
+    // Keywords para detectar CC
+    private static final String[] HARD_CC_KEYWORDS = {"stun", "root", "knock", "charm", "fear", "taunt", "suppress", "airborne", "sleep"};
+    private static final String[] SLOW_KEYWORDS = {"slow", "cripple"};
+
+    private final AtomicReference<Map<String, ChampionThreatProfile>> currentIndex = new AtomicReference<>();
+
+    /**
+     * Obtiene el perfil de amenaza de un campeón, o un perfil por defecto si no está en el índice
+     */
+    public ChampionThreatProfile getProfile(String championId) {
+        ChampionThreatProfile profile = getIndex().get(championId);
+
+        if (profile == null) {
+            // Debug: se repite en cada petición que nombra un campeón desconocido
+            log.debug("Champion {} not found in threat index, using default stats", championId);
+            return buildProfile(championId, null, Collections.emptyList());
+        }
+
+        return profile;
+    }
+
+    /**
+     * Reconstruye el índice completo desde la BD y lo sustituye de forma atómica
+     */
+    public synchronized Map<String, ChampionThreatProfile> rebuild() {
+        Map<String, Champion> championsById = championRepository.findAll().stream()
+                .collect(Collectors.toMap(Champion::getChampionId, c -> c, (a, b) -> a));
+
+        Map<String, List<Spell>> spellsByChampion = spellRepository.findAll().stream()
+                .filter(spell -> spell.getChampionId() != null)
+                .collect(Collectors.groupingBy(Spell::getChampionId));
+
+        Set<String> championIds = new HashSet<>(championsById.keySet());
+        championIds.addAll(spellsByChampion.keySet());
+
+        Map<String, ChampionThreatProfile> index = new HashMap<>();
+        for (String championId : championIds) {
+            index.put(championId, buildProfile(
+                    championId,
+                    championsById.get(championId),
+                    spellsByChampion.getOrDefault(championId, Collections.emptyList())));
+        }
+
+        currentIndex.set(Collections.unmodifiableMap(index));
+
+        log.info("Champion threat index rebuilt: {} champions ({} with spells)",
+                index.size(), spellsByChampion.size());
+
+        return index;
+    }
+
+    private Map<String, ChampionThreatProfile> getIndex() {
+        Map<String, ChampionThreatProfile> index = currentIndex.get();
+
+        if (index == null) {
+            synchronized (this) {
+                index = currentIndex.get();
+                if (index == null) {
+                    index = rebuild();
+                }
+            }
+        }
+
+        return index;
+    }
+
+    /**
+     * Construye el perfil de amenaza de un campeón a partir de sus stats y habilidades
+     */
+    private ChampionThreatProfile buildProfile(String championId, Champion champion, List<Spell> spells) {
+        ChampionThreatProfile.ChampionThreatProfileBuilder builder = ChampionThreatProfile.builder()
+                .championId(championId)
+                .damageProfile(analyzeDamageType(champion, spells));
+
+        if (champion != null) {
+            // Stats nulas a 0: una fila incompleta no debe hacer fallar la reconstrucción del índice
+            builder.armorByLevel(ChampionThreatProfile.buildLevelCurve(
+                            getDoubleValue(champion.getArmor()), getDoubleValue(champion.getArmorPerLevel())))
+                    .magicResistByLevel(ChampionThreatProfile.buildLevelCurve(
+                            getDoubleValue(champion.getSpellBlock()), getDoubleValue(champion.getSpellBlockPerLevel())))
+                    .healthByLevel(ChampionThreatProfile.buildLevelCurve(
+                            getDoubleValue(champion.getHp()), getDoubleValue(champion.getHpPerLevel())))
+                    .attackDamageByLevel(ChampionThreatProfile.buildLevelCurve(
+                            getDoubleValue(champion.getAttackDamage()), getDoubleValue(champion.getAttackDamagePerLevel())))
+                    .baseAttackSpeed(getDoubleValue(champion.getAttackSpeed()));
+        } else {
+            // Usar valores base si no se encuentra el campeón
+            builder.armorByLevel(ChampionThreatProfile.buildLevelCurve(BASE_ARMOR_LV1, ARMOR_PER_LEVEL))
+                    .magicResistByLevel(ChampionThreatProfile.buildLevelCurve(BASE_MR_LV1, MR_PER_LEVEL))
+                    .healthByLevel(ChampionThreatProfile.buildLevelCurve(BASE_HP_LV1, HP_PER_LEVEL))
+                    .attackDamageByLevel(ChampionThreatProfile.buildLevelCurve(BASE_AD_LV1, AD_PER_LEVEL))
+                    .baseAttackSpeed(BASE_ATTACK_SPEED);
+        }
+
+        // Analizar las capacidades de CC del campeón
+        boolean hasHardCC = false;
+        boolean hasSlows = false;
+        int ccAbilityCount = 0;
+
+        for (Spell spell : spells) {
+            String description = (spell.getDescription() + " " + spell.getTooltip()).toLowerCase();
+
+            for (String keyword : HARD_CC_KEYWORDS) {
+                if (description.contains(keyword)) {
+                    hasHardCC = true;
+                    ccAbilityCount++;
+                    break;
+                }
+            }
+
+            for (String keyword : SLOW_KEYWORDS) {
+                if (description.contains(keyword)) {
+                    hasSlows = true;
+                    break;
+                }
+            }
+        }
+
+        return builder
+                .hasHardCC(hasHardCC)
+                .hasSlows(hasSlows)
+                .ccAbilityCount(ccAbilityCount)
+                .build();
+    }
+
+    /**
+     * Analiza el tipo de daño principal del campeón
+     */
+    private DamageProfile analyzeDamageType(Champion champion, List<Spell> spells) {
+        if (spells.isEmpty()) {
+            // Si no hay datos, usar heurística basada en tags del campeón
+            if (champion != null) {
+                String tags = String.valueOf(champion.getTags());
+                if (tags.contains("Mage") || tags.contains("Support")) {
+                    return DamageProfile.MAGICAL;
+                } else if (tags.contains("Marksman") || tags.contains("Assassin") || tags.contains("Fighter")) {
+                    return DamageProfile.PHYSICAL;
+                }
+            }
+            return DamageProfile.PHYSICAL; // Default
+        }
+
+        // Analizar escalados de habilidades
+        int adScalingCount = 0;
+        int apScalingCount = 0;
+
+        for (Spell spell : spells) {
+            if (spell.getVars() != null && !spell.getVars().isEmpty()) {
+                String vars = spell.getVars().toLowerCase();
+                if (vars.contains("attackdamage") || vars.contains("bonusad") || vars.contains("totalad")) {
+                    adScalingCount++;
+                }
+                if (vars.contains("spelldamage") || vars.contains("ap")) {
+                    apScalingCount++;
+                }
+            }
+        }
+
+        // Determinar perfil
+        if (adScalingCount > apScalingCount * 2) {
+            return DamageProfile.PHYSICAL;
+        } else if (apScalingCount > adScalingCount * 2) {
+            return DamageProfile.MAGICAL;
+        } else {
+            return DamageProfile.MIXED;
+        }
+    }
+
+    private double getDoubleValue(Double value) {
+        return value != null ? value : 0.0;
+    }
+}
@@ -3,14 +3,19 @@ package rafa.tfg.domain.service.recommendation;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import rafa.tfg.domain.model.Item;
+import rafa.tfg.domain.model.recommendation.AbilityTagBonus;
 import rafa.tfg.domain.model.recommendation.ChampionProfile;
+import rafa.tfg.domain.model.recommendation.DecisionMatrix;
 import rafa.tfg.domain.model.recommendation.EnemyComposition;
 import rafa.tfg.domain.model.recommendation.ItemCandidate;
+import rafa.tfg.domain.model.recommendation.ItemCatalog;
 import rafa.tfg.domain.model.recommendation.WeightProfile;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -20,40 +25,68 @@ import java.util.stream.Collectors;
 @Slf4j
 public class CriteriaMatrixService {
 
+    // Umbrales que afectan a los pesos (bits de la clave del perfil)
+    private static final int HIGH_AD_RATIO = 1;
+    private static final int HIGH_AP_RATIO = 1 << 1;
+    private static final int HIGH_ENEMY_ARMOR = 1 << 2;
+    private static final int HIGH_ENEMY_MAGIC_RESIST = 1 << 3;
+    private static final int PHYSICAL_THREAT = 1 << 4;
+    private static final int MAGICAL_THREAT = 1 << 5;
+    private static final int CC_THREAT = 1 << 6;
+    private static final int BALANCED_THREAT = 1 << 7;
+
+    private static final int SCALING_TYPE_BITS = 3;
+    private static final int FLAG_BITS = 8;
+    private static final int TAG_COUNT_BITS = 8;
+    private static final int TAG_COUNT_MASK = (1 << TAG_COUNT_BITS) - 1;
+    private static final long UNCACHEABLE_KEY = -1L;
+
+    // El espacio de claves es pequeño; el límite solo protege frente a datos anómalos
+    private static final int MAX_CACHED_WEIGHT_PROFILES = 4096;
+
+    // Perfiles de pesos normalizados por clave empaquetada (compartidos, de solo lectura)
+    private final Map<Long, WeightProfile> weightProfileCache = new ConcurrentHashMap<>();
+
     /**
      * Construye la matriz de criterios para todos los items candidatos
      */
-    public List<ItemCandidate> buildCriteriaMatrix(List<Item> items) {
+    public DecisionMatrix buildCriteriaMatrix(List<Item> items) {
         log.info("Building criteria matrix for {} items", items.size());
 
-        return items.stream()
+        List<ItemCandidate> candidates = items.stream()
                 .map(this::buildItemCandidate)
                 .collect(Collectors.toList());
+
+        return DecisionMatrix.of(candidates);
+    }
+
+    /**
+     * Construye la matriz de criterios para los items de una máscara de candidatos del catálogo
+     * Recorre los bits directamente, sin materializar la lista de items ni recalcular criterios
+     */
+    public DecisionMatrix buildCriteriaMatrix(ItemCatalog catalog, BitSet candidateMask) {
+        log.info("Building criteria matrix for {} items", candidateMask.cardinality());
+
+        List<Item> items = catalog.getItems();
+        List<ItemCandidate> candidates = new ArrayList<>(candidateMask.cardinality());
+
+        // Las filas de criterios y la gold efficiency están precalculadas en el catálogo
+        for (int i = candidateMask.nextSetBit(0); i >= 0; i = candidateMask.nextSetBit(i + 1)) {
+            candidates.add(buildItemCandidate(items.get(i), catalog.criteriaRow(i), catalog.goldEfficiency(i)));
+        }
+
+        return DecisionMatrix.of(candidates);
     }
 
     /**
      * Construye un candidato con sus criterios evaluados
      */
     private ItemCandidate buildItemCandidate(Item item) {
-        Map<String, Double> criteria = new HashMap<>();
-
-        // Extraer los 12 criterios del item
-        criteria.put("attackDamage", getDoubleValue(item.getFlatPhysicalDamageMod()));
-        criteria.put("abilityPower", getDoubleValue(item.getFlatMagicDamageMod()));
-        criteria.put("attackSpeed", getDoubleValue(item.getPercentAttackSpeedMod()) * 100); // Convertir a %
-        criteria.put("criticalChance", getDoubleValue(item.getFlatCritChanceMod()) * 100); // Convertir a %
-        criteria.put("armor", getDoubleValue(item.getFlatArmorMod()));
-        criteria.put("magicResist", getDoubleValue(item.getFlatSpellBlockMod()));
-        criteria.put("health", getDoubleValue(item.getFlatHPPoolMod()));
-        criteria.put("cooldownReduction", 0.0); // El CDR ahora es Ability Haste, necesitamos mapear
-        criteria.put("armorPenetration", getDoubleValue(item.getPercentArmorMod()));
-        criteria.put("magicPenetration", getDoubleValue(item.getPercentMPPoolMod()));
-        criteria.put("lifeSteal", getDoubleValue(item.getPercentLifeStealMod()) * 100); // Convertir a %
-        criteria.put("movementSpeed", calculateMovementSpeed(item));
-
-        // Calcular Gold Efficiency
-        double goldEfficiency = calculateGoldEfficiency(criteria, item.getGoldTotal());
+        double[] criteria = extractCriteria(item);
+        return buildItemCandidate(item, criteria, calculateGoldEfficiency(criteria, item.getGoldTotal()));
+    }
 
+    private ItemCandidate buildItemCandidate(Item item, double[] criteria, double goldEfficiency) {
         return ItemCandidate.builder()
                 .item(item)
                 .itemId(item.getItemId())
@@ -65,10 +98,34 @@ public class CriteriaMatrixService {
                 .build();
     }
 
+    /**
+     * Extrae la fila de criterios del item (indexada por ItemCandidate.Criterion.ordinal())
+     * Solo depende de los datos del item, por lo que el catálogo la precalcula al cargarse
+     */
+    public double[] extractCriteria(Item item) {
+        double[] criteria = new double[DecisionMatrix.CRITERIA_COUNT];
+
+        // Extraer los 12 criterios del item
+        criteria[ItemCandidate.Criterion.ATTACK_DAMAGE.ordinal()] = getDoubleValue(item.getFlatPhysicalDamageMod());
+        criteria[ItemCandidate.Criterion.ABILITY_POWER.ordinal()] = getDoubleValue(item.getFlatMagicDamageMod());
+        criteria[ItemCandidate.Criterion.ATTACK_SPEED.ordinal()] = getDoubleValue(item.getPercentAttackSpeedMod()) * 100; // Convertir a %
+        criteria[ItemCandidate.Criterion.CRITICAL_CHANCE.ordinal()] = getDoubleValue(item.getFlatCritChanceMod()) * 100; // Convertir a %
+        criteria[ItemCandidate.Criterion.ARMOR.ordinal()] = getDoubleValue(item.getFlatArmorMod());
+        criteria[ItemCandidate.Criterion.MAGIC_RESIST.ordinal()] = getDoubleValue(item.getFlatSpellBlockMod());
+        criteria[ItemCandidate.Criterion.HEALTH.ordinal()] = getDoubleValue(item.getFlatHPPoolMod());
+        criteria[ItemCandidate.Criterion.COOLDOWN_REDUCTION.ordinal()] = 0.0; // El CDR ahora es Ability Haste, necesitamos mapear
+        criteria[ItemCandidate.Criterion.ARMOR_PENETRATION.ordinal()] = getDoubleValue(item.getPercentArmorMod());
+        criteria[ItemCandidate.Criterion.MAGIC_PENETRATION.ordinal()] = getDoubleValue(item.getPercentMPPoolMod());
+        criteria[ItemCandidate.Criterion.LIFE_STEAL.ordinal()] = getDoubleValue(item.getPercentLifeStealMod()) * 100; // Convertir a %
+        criteria[ItemCandidate.Criterion.MOVEMENT_SPEED.ordinal()] = calculateMovementSpeed(item);
+
+        return criteria;
+    }
+
     /**
      * Calcula la Gold Efficiency del item
      */
-    private double calculateGoldEfficiency(Map<String, Double> criteria, Integer goldTotal) {
+    public double calculateGoldEfficiency(double[] criteria, Integer goldTotal) {
         if (goldTotal == null || goldTotal == 0) {
             return 0.0;
         }
@@ -76,20 +133,9 @@ public class CriteriaMatrixService {
         double totalGoldValue = 0.0;
 
         // Sumar el valor de oro de cada stat según ItemCandidate.Criterion
-        for (ItemCandidate.Criterion criterion : ItemCandidate.Criterion.values()) {
-            String key = criterion.getKey();
-            Double value = criteria.getOrDefault(key, 0.0);
-            Double goldValue = criterion.getGoldValue();
-
-            // Para porcentajes (AS, Crit, LS, MS), el valor ya está en %
-            if (key.equals("attackSpeed") || key.equals("criticalChance") || key.equals("lifeSteal")) {
-                totalGoldValue += (value * goldValue);
-            } else if (key.equals("movementSpeed")) {
-                // Movement speed se calcula diferente (valor total, no %)
-                totalGoldValue += (value * goldValue);
-            } else {
-                totalGoldValue += (value * goldValue);
-            }
+        // Para porcentajes (AS, Crit, LS) el valor ya está en %, y MS es el valor total
+        for (ItemCandidate.Criterion criterion : DecisionMatrix.CRITERIA) {
+            totalGoldValue += criteria[criterion.ordinal()] * criterion.getGoldValue();
         }
 
         // Gold Efficiency = (Valor total de stats / Costo de oro) * 100
@@ -107,6 +153,8 @@ public class CriteriaMatrixService {
 
     /**
      * Calcula los pesos dinámicos según el perfil del campeón y composición enemiga
+     * El resultado solo depende de una clave discreta (tipo de escalado, umbrales superados y
+     * etiquetas del campeón), por lo que cada perfil se calcula una vez y se reutiliza
      */
     public WeightProfile calculateDynamicWeights(
             ChampionProfile championProfile,
@@ -118,145 +166,196 @@ public class CriteriaMatrixService {
                 enemyComposition.getMagicalThreat(),
                 enemyComposition.getCcThreat());
 
-        Map<String, Double> weights = new HashMap<>();
+        ChampionProfile.ChampionScalingType scalingType = championProfile.getScalingType();
+        int flags = championFlags(championProfile) | enemyFlags(enemyComposition);
+        int[] tagCounts = championProfile.getAbilityTagCounts() != null
+                ? championProfile.getAbilityTagCounts()
+                : AbilityTagBonus.countTags(championProfile.getAbilityTags());
 
-        // Inicializar pesos base (todos iguales)
-        for (ItemCandidate.Criterion criterion : ItemCandidate.Criterion.values()) {
-            weights.put(criterion.getKey(), 1.0);
+        long key = weightProfileKey(scalingType, flags, tagCounts);
+
+        // Claves no representables (demasiadas etiquetas) o caché llena: cálculo directo
+        if (key == UNCACHEABLE_KEY) {
+            return buildWeightProfile(scalingType, flags, tagCounts);
+        }
+
+        WeightProfile cached = weightProfileCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        WeightProfile weightProfile = buildWeightProfile(scalingType, flags, tagCounts);
+        if (weightProfileCache.size() < MAX_CACHED_WEIGHT_PROFILES) {
+            weightProfileCache.putIfAbsent(key, weightProfile);
         }
 
+        return weightProfile;
+    }
+
+    /**
+     * Construye y normaliza un perfil de pesos a partir de su clave ya decodificada
+     * El perfil devuelto es inmutable y se comparte entre peticiones
+     */
+    private WeightProfile buildWeightProfile(
+            ChampionProfile.ChampionScalingType scalingType, int flags, int[] tagCounts) {
+
+        // Inicializar pesos base (todos iguales)
+        WeightProfile.Builder weights = WeightProfile.builder(1.0);
+
         // Ajustar pesos según el tipo de campeón
-        adjustWeightsByChampionType(weights, championProfile);
+        adjustWeightsByChampionType(weights, scalingType, flags);
 
         // Ajustar pesos según la composición enemiga
-        adjustWeightsByEnemyComposition(weights, enemyComposition);
+        adjustWeightsByEnemyComposition(weights, flags);
 
         // Ajustar pesos según las etiquetas de habilidades
-        adjustWeightsByAbilityTags(weights, championProfile.getAbilityTags());
-
-        // Crear y normalizar el perfil de pesos
-        WeightProfile weightProfile = WeightProfile.builder()
-                .weights(weights)
-                .build();
+        adjustWeightsByAbilityTags(weights, tagCounts);
 
-        weightProfile.normalize();
+        // Normalizar el perfil de pesos y congelarlo
+        WeightProfile weightProfile = weights.build();
 
-        log.debug("Final normalized weights: {}", weights);
+        log.debug("Final normalized weights: {}", weightProfile);
 
         return weightProfile;
     }
 
+    /**
+     * Empaqueta la clave del perfil de pesos en un long:
+     * bits 0-2 tipo de escalado, bits 3-10 umbrales superados y 8 bits por contador de etiquetas
+     */
+    private static long weightProfileKey(
+            ChampionProfile.ChampionScalingType scalingType, int flags, int[] tagCounts) {
+
+        long key = scalingType.ordinal() | ((long) flags << SCALING_TYPE_BITS);
+        int shift = SCALING_TYPE_BITS + FLAG_BITS;
+
+        for (int count : tagCounts) {
+            if (count > TAG_COUNT_MASK) {
+                return UNCACHEABLE_KEY;
+            }
+            key |= (long) count << shift;
+            shift += TAG_COUNT_BITS;
+        }
+
+        return key;
+    }
+
+    /**
+     * Umbrales del campeón: ratios de escalado altos
+     */
+    private static int championFlags(ChampionProfile profile) {
+        int flags = 0;
+        if (profile.getTotalAdRatio() > 3.0) flags |= HIGH_AD_RATIO;
+        if (profile.getTotalApRatio() > 3.0) flags |= HIGH_AP_RATIO;
+        return flags;
+    }
+
+    /**
+     * Umbrales superados por la composición enemiga
+     */
+    private static int enemyFlags(EnemyComposition composition) {
+        int flags = 0;
+        if (composition.getAverageArmor() > 80) flags |= HIGH_ENEMY_ARMOR;
+        if (composition.getAverageMagicResist() > 60) flags |= HIGH_ENEMY_MAGIC_RESIST;
+        if (composition.getPhysicalThreat() > 0.6) flags |= PHYSICAL_THREAT;
+        if (composition.getMagicalThreat() > 0.6) flags |= MAGICAL_THREAT;
+        if (composition.getCcThreat() > 0.6) flags |= CC_THREAT;
+        if (composition.getPhysicalThreat() > 0.4 && composition.getMagicalThreat() > 0.4) flags |= BALANCED_THREAT;
+        return flags;
+    }
+
     /**
      * Ajusta pesos según el tipo de escalado del campeón
      */
-    private void adjustWeightsByChampionType(Map<String, Double> weights, ChampionProfile profile) {
-        switch (profile.getScalingType()) {
+    private void adjustWeightsByChampionType(
+            WeightProfile.Builder weights, ChampionProfile.ChampionScalingType scalingType, int flags) {
+        switch (scalingType) {
             case AD_FOCUSED:
-                weights.put("attackDamage", weights.get("attackDamage") + 5.0);
-                weights.put("attackSpeed", weights.get("attackSpeed") + 3.0);
-                weights.put("criticalChance", weights.get("criticalChance") + 3.0);
-                weights.put("armorPenetration", weights.get("armorPenetration") + 2.0);
-                weights.put("lifeSteal", weights.get("lifeSteal") + 2.0);
+                weights.increase(ItemCandidate.Criterion.ATTACK_DAMAGE, 5.0);
+                weights.increase(ItemCandidate.Criterion.ATTACK_SPEED, 3.0);
+                weights.increase(ItemCandidate.Criterion.CRITICAL_CHANCE, 3.0);
+                weights.increase(ItemCandidate.Criterion.ARMOR_PENETRATION, 2.0);
+                weights.increase(ItemCandidate.Criterion.LIFE_STEAL, 2.0);
                 break;
 
             case AP_FOCUSED:
-                weights.put("abilityPower", weights.get("abilityPower") + 5.0);
-                weights.put("magicPenetration", weights.get("magicPenetration") + 3.0);
-                weights.put("cooldownReduction", weights.get("cooldownReduction") + 3.0);
+                weights.increase(ItemCandidate.Criterion.ABILITY_POWER, 5.0);
+                weights.increase(ItemCandidate.Criterion.MAGIC_PENETRATION, 3.0);
+                weights.increase(ItemCandidate.Criterion.COOLDOWN_REDUCTION, 3.0);
                 break;
 
             case TANK:
-                weights.put("health", weights.get("health") + 5.0);
-                weights.put("armor", weights.get("armor") + 4.0);
-                weights.put("magicResist", weights.get("magicResist") + 4.0);
+                weights.increase(ItemCandidate.Criterion.HEALTH, 5.0);
+                weights.increase(ItemCandidate.Criterion.ARMOR, 4.0);
+                weights.increase(ItemCandidate.Criterion.MAGIC_RESIST, 4.0);
                 break;
 
             case MIXED:
-                weights.put("attackDamage", weights.get("attackDamage") + 3.0);
-                weights.put("abilityPower", weights.get("abilityPower") + 3.0);
-                weights.put("health", weights.get("health") + 2.0);
+                weights.increase(ItemCandidate.Criterion.ATTACK_DAMAGE, 3.0);
+                weights.increase(ItemCandidate.Criterion.ABILITY_POWER, 3.0);
+                weights.increase(ItemCandidate.Criterion.HEALTH, 2.0);
                 break;
 
             case UTILITY:
-                weights.put("cooldownReduction", weights.get("cooldownReduction") + 4.0);
-                weights.put("movementSpeed", weights.get("movementSpeed") + 3.0);
-                weights.put("health", weights.get("health") + 2.0);
+                weights.increase(ItemCandidate.Criterion.COOLDOWN_REDUCTION, 4.0);
+                weights.increase(ItemCandidate.Criterion.MOVEMENT_SPEED, 3.0);
+                weights.increase(ItemCandidate.Criterion.HEALTH, 2.0);
                 break;
         }
 
         // Ajustar según ratios específicos
-        if (profile.getTotalAdRatio() > 3.0) {
-            weights.put("attackDamage", weights.get("attackDamage") + 2.0);
+        if ((flags & HIGH_AD_RATIO) != 0) {
+            weights.increase(ItemCandidate.Criterion.ATTACK_DAMAGE, 2.0);
         }
-        if (profile.getTotalApRatio() > 3.0) {
-            weights.put("abilityPower", weights.get("abilityPower") + 2.0);
+        if ((flags & HIGH_AP_RATIO) != 0) {
+            weights.increase(ItemCandidate.Criterion.ABILITY_POWER, 2.0);
         }
     }
 
     /**
-     * Ajusta pesos según la composición enemiga
+     * Ajusta pesos según los umbrales superados por la composición enemiga
      */
-    private void adjustWeightsByEnemyComposition(Map<String, Double> weights, EnemyComposition composition) {
+    private void adjustWeightsByEnemyComposition(WeightProfile.Builder weights, int flags) {
         // Si el enemigo tiene mucha armadura, priorizar penetración de armadura
-        if (composition.getAverageArmor() > 80) {
-            weights.put("armorPenetration", weights.get("armorPenetration") + 3.0);
+        if ((flags & HIGH_ENEMY_ARMOR) != 0) {
+            weights.increase(ItemCandidate.Criterion.ARMOR_PENETRATION, 3.0);
         }
 
         // Si el enemigo tiene mucha MR, priorizar penetración mágica
-        if (composition.getAverageMagicResist() > 60) {
-            weights.put("magicPenetration", weights.get("magicPenetration") + 3.0);
+        if ((flags & HIGH_ENEMY_MAGIC_RESIST) != 0) {
+            weights.increase(ItemCandidate.Criterion.MAGIC_PENETRATION, 3.0);
         }
 
         // Si el enemigo hace daño físico, priorizar armadura
-        if (composition.getPhysicalThreat() > 0.6) {
-            weights.put("armor", weights.get("armor") + 3.0);
+        if ((flags & PHYSICAL_THREAT) != 0) {
+            weights.increase(ItemCandidate.Criterion.ARMOR, 3.0);
         }
 
         // Si el enemigo hace daño mágico, priorizar MR
-        if (composition.getMagicalThreat() > 0.6) {
-            weights.put("magicResist", weights.get("magicResist") + 3.0);
+        if ((flags & MAGICAL_THREAT) != 0) {
+            weights.increase(ItemCandidate.Criterion.MAGIC_RESIST, 3.0);
         }
 
         // Si el enemigo tiene mucho CC, priorizar salud y resistencias
-        if (composition.getCcThreat() > 0.6) {
-            weights.put("health", weights.get("health") + 2.0);
-            weights.put("magicResist", weights.get("magicResist") + 1.5);
+        if ((flags & CC_THREAT) != 0) {
+            weights.increase(ItemCandidate.Criterion.HEALTH, 2.0);
+            weights.increase(ItemCandidate.Criterion.MAGIC_RESIST, 1.5);
         }
 
         // Amenazas balanceadas
-        if (composition.getPhysicalThreat() > 0.4 && composition.getMagicalThreat() > 0.4) {
-            weights.put("health", weights.get("health") + 2.0);
+        if ((flags & BALANCED_THREAT) != 0) {
+            weights.increase(ItemCandidate.Criterion.HEALTH, 2.0);
         }
     }
 
     /**
-     * Ajusta pesos según las etiquetas de habilidades
+     * Ajusta pesos según las etiquetas de habilidades (contadas al construir el perfil del campeón)
      */
-    private void adjustWeightsByAbilityTags(Map<String, Double> weights, List<String> abilityTags) {
-        if (abilityTags == null || abilityTags.isEmpty()) {
-            return;
-        }
-
-        for (String tag : abilityTags) {
-            String lowerTag = tag.toLowerCase();
-
-            if (lowerTag.contains("damage") || lowerTag.contains("ad ratio")) {
-                weights.put("attackDamage", weights.get("attackDamage") + 1.0);
-            }
-            if (lowerTag.contains("ap ratio") || lowerTag.contains("magic")) {
-                weights.put("abilityPower", weights.get("abilityPower") + 1.0);
-            }
-            if (lowerTag.contains("cooldown") || lowerTag.contains("cdr")) {
-                weights.put("cooldownReduction", weights.get("cooldownReduction") + 1.5);
-            }
-            if (lowerTag.contains("attack speed")) {
-                weights.put("attackSpeed", weights.get("attackSpeed") + 1.0);
-            }
-            if (lowerTag.contains("armor") && !lowerTag.contains("penetration")) {
-                weights.put("armor", weights.get("armor") + 1.0);
-            }
-            if (lowerTag.contains("health") || lowerTag.contains("hp")) {
-                weights.put("health", weights.get("health") + 1.0);
+    private void adjustWeightsByAbilityTags(WeightProfile.Builder weights, int[] tagCounts) {
+        for (AbilityTagBonus bonus : AbilityTagBonus.values()) {
+            int count = tagCounts[bonus.ordinal()];
+            if (count > 0) {
+                weights.increase(bonus.getCriterion(), count * bonus.getIncrement());
             }
         }
     }
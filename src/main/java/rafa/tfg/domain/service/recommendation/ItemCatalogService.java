@@ -0,0 +1,78 @@
+package rafa.tfg.domain.service.recommendation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import rafa.tfg.domain.model.Item;
+import rafa.tfg.domain.model.recommendation.ItemCatalog;
+import rafa.tfg.domain.port.ItemRepository;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Servicio que mantiene el snapshot en memoria del catálogo de items
+ * Evita consultar la BD en cada petición de recomendación
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ItemCatalogService {
+
+    private final ItemRepository itemRepository;
+    private final CriteriaMatrixService criteriaMatrixService;
+
+    private final AtomicReference<ItemCatalog> currentCatalog = new AtomicReference<>();
+    private final AtomicLong versionSequence = new AtomicLong();
+
+    /**
+     * Obtiene el snapshot actual del catálogo (lo carga la primera vez si no existe)
+     */
+    public ItemCatalog getCatalog() {
+        ItemCatalog catalog = currentCatalog.get();
+
+        if (catalog == null) {
+            synchronized (this) {
+                catalog = currentCatalog.get();
+                if (catalog == null) {
+                    catalog = reload();
+                }
+            }
+        }
+
+        return catalog;
+    }
+
+    /**
+     * Reconstruye el snapshot desde la BD y lo sustituye de forma atómica
+     * Los criterios y la gold efficiency de cada item se calculan aquí una sola vez
+     */
+    public synchronized ItemCatalog reload() {
+        List<Item> items = itemRepository.findAll();
+
+        double[][] criteriaRows = new double[items.size()][];
+        double[] goldEfficiencies = new double[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            criteriaRows[i] = criteriaMatrixService.extractCriteria(item);
+            goldEfficiencies[i] = criteriaMatrixService.calculateGoldEfficiency(criteriaRows[i], item.getGoldTotal());
+        }
+
+        ItemCatalog catalog = ItemCatalog.of(versionSequence.incrementAndGet(), items, criteriaRows, goldEfficiencies);
+
+        currentCatalog.set(catalog);
+
+        log.info("Item catalog reloaded: version={}, items={}", catalog.getVersion(), catalog.size());
+
+        return catalog;
+    }
+
+    /**
+     * Versión del snapshot actual (0 si aún no se ha cargado)
+     */
+    public long getVersion() {
+        ItemCatalog catalog = currentCatalog.get();
+        return catalog != null ? catalog.getVersion() : 0L;
+    }
+}
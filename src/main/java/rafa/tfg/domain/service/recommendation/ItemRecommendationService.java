@@ -5,14 +5,19 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import rafa.tfg.application.dto.recommendation.GameStateRequestDTO;
 import rafa.tfg.application.dto.recommendation.ItemRecommendationResponseDTO;
-import rafa.tfg.domain.model.Item;
 import rafa.tfg.domain.model.recommendation.ChampionProfile;
+import rafa.tfg.domain.model.recommendation.DecisionMatrix;
+import rafa.tfg.domain.model.recommendation.Deadline;
 import rafa.tfg.domain.model.recommendation.EnemyComposition;
+import rafa.tfg.domain.model.recommendation.ExecutionMode;
+import rafa.tfg.domain.model.recommendation.GameStateFingerprint;
+import rafa.tfg.domain.model.recommendation.ItemCatalog;
 import rafa.tfg.domain.model.recommendation.ItemCandidate;
+import rafa.tfg.domain.model.recommendation.RecommendationContext;
+import rafa.tfg.domain.model.recommendation.TopKSelection;
 import rafa.tfg.domain.model.recommendation.WeightProfile;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Servicio principal de recomendaciones de items
@@ -26,19 +31,88 @@ public class ItemRecommendationService {
     private final ChampionAnalysisService championAnalysisService;
     private final EnemyAnalysisService enemyAnalysisService;
     private final ItemFilterService itemFilterService;
+    private final ItemCatalogService itemCatalogService;
     private final CriteriaMatrixService criteriaMatrixService;
-    private final TOPSISService topsisService;
-    private final TODIMService todimService;
+    private final RecommendationCacheService recommendationCacheService;
+    private final McdmExecutionService mcdmExecutionService;
 
-    // Pesos para combinación de algoritmos
-    private static final double TOPSIS_WEIGHT = 0.70;
-    private static final double TODIM_WEIGHT = 0.30;
+    // Número de recomendaciones devueltas por defecto
+    public static final int DEFAULT_TOP_K = 5;
+
+    // Número de stats destacadas en la explicación de cada item
+    private static final int EXPLANATION_TOP_STATS = 3;
+
+    // Inicio de la explicación por tipo de escalado, precompilado una vez
+    private static final Map<ChampionProfile.ChampionScalingType, String> EXPLANATION_PREFIXES =
+            new EnumMap<>(ChampionProfile.ChampionScalingType.class);
+
+    static {
+        for (ChampionProfile.ChampionScalingType scalingType : ChampionProfile.ChampionScalingType.values()) {
+            EXPLANATION_PREFIXES.put(scalingType, "Recommended for "
+                    + scalingType.name().toLowerCase(Locale.ROOT).replace('_', ' ') + " champions. ");
+        }
+    }
+
+    // Plazo por defecto: sin límite de tiempo
+    public static final long NO_DEADLINE = 0L;
 
     /**
-     * Genera recomendaciones de items basadas en el estado del juego
+     * Genera recomendaciones de items basadas en el estado del juego (Top 5)
      */
     public ItemRecommendationResponseDTO recommendItems(GameStateRequestDTO gameState) {
+        return recommendItems(gameState, DEFAULT_TOP_K);
+    }
+
+    /**
+     * Genera las topK mejores recomendaciones de items basadas en el estado del juego
+     */
+    public ItemRecommendationResponseDTO recommendItems(GameStateRequestDTO gameState, int topK) {
+        return recommendItems(gameState, topK, NO_DEADLINE);
+    }
+
+    /**
+     * Genera las topK recomendaciones dentro de un plazo en milisegundos
+     * Si TODIM no cabe en el tiempo restante se ejecuta sobre menos candidatos o se omite
+     *
+     * @param deadlineMs Plazo desde el inicio de la petición (NO_DEADLINE para no limitarlo)
+     */
+    public ItemRecommendationResponseDTO recommendItems(GameStateRequestDTO gameState, int topK, long deadlineMs) {
+        return recommendItems(gameState, topK, deadlineMs, true);
+    }
+
+    /**
+     * Genera las topK recomendaciones dentro de un plazo, con o sin explicaciones
+     *
+     * @param explain Si es false no se generan los textos de explicación (clientes automáticos)
+     */
+    public ItemRecommendationResponseDTO recommendItems(
+            GameStateRequestDTO gameState, int topK, long deadlineMs, boolean explain) {
+        return recommendItems(gameState, topK,
+                RecommendationContext.single(itemCatalogService.getCatalog()), deadlineMs, explain);
+    }
+
+    /**
+     * Genera recomendaciones usando un contexto compartido (snapshot del catálogo y análisis enemigos)
+     */
+    public ItemRecommendationResponseDTO recommendItems(
+            GameStateRequestDTO gameState, int topK, RecommendationContext context) {
+        return recommendItems(gameState, topK, context, true);
+    }
+
+    public ItemRecommendationResponseDTO recommendItems(
+            GameStateRequestDTO gameState, int topK, RecommendationContext context, boolean explain) {
+        return recommendItems(gameState, topK, context, NO_DEADLINE, explain);
+    }
+
+    private ItemRecommendationResponseDTO recommendItems(
+            GameStateRequestDTO gameState,
+            int topK,
+            RecommendationContext context,
+            long deadlineMs,
+            boolean explain) {
         long startTime = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+        Deadline deadline = Deadline.after(startNanos, deadlineMs);
 
         log.info("Starting item recommendation process");
 
@@ -49,56 +123,122 @@ public class ItemRecommendationService {
 
         log.info("Active player: {} playing {}", activePlayer.getSummonerName(), championName);
 
-        // Paso 2: Analizar perfil del campeón
+        // Paso 2: Analizar perfil del campeón (su tipo de escalado forma parte de la huella)
         ChampionProfile championProfile = championAnalysisService.analyzeChampion(activePlayer, championName);
 
-        // Paso 3: Analizar composición enemiga
-        EnemyComposition enemyComposition = enemyAnalysisService.analyzeEnemyTeam(
-                gameState.getAllPlayers(),
-                activePlayerTeam);
+        // Paso 2b: Consultar la caché por la huella canónica del estado de partida
+        ItemCatalog catalog = context.getCatalog();
+        GameStateFingerprint fingerprint = buildFingerprint(
+                gameState, activePlayerTeam, championProfile, topK, explain, catalog.getVersion());
+
+        Optional<ItemRecommendationResponseDTO> cached = recommendationCacheService.get(fingerprint);
+        if (cached.isPresent()) {
+            long processingTime = System.currentTimeMillis() - startTime;
+
+            log.info("Item recommendation served from cache in {}ms", processingTime);
+
+            // Solo cambian los campos que no forman parte de la huella; los tiempos son los de esta
+            // petición (solo la consulta), mientras que executionMode y todimCandidates describen
+            // el cálculo cacheado, que siempre es FULL y por tanto cumple cualquier plazo
+            Map<String, Double> stageTimings = new LinkedHashMap<>();
+            StageTimings.record(stageTimings, "cacheLookup", startNanos);
+
+            return cached.get().toBuilder()
+                    .currentGold(activePlayer.getCurrentGold())
+                    .cacheHit(true)
+                    .stageTimingsMs(stageTimings)
+                    .processingTimeMs(processingTime)
+                    .build();
+        }
 
-        // Paso 4: Filtrar items candidatos
-        List<Item> candidateItems = itemFilterService.filterCandidateItems(
+        ItemRecommendationResponseDTO response = computeRecommendations(
+                gameState, activePlayer, activePlayerTeam, championProfile, context, topK,
+                explain, deadline, startTime, startNanos);
+
+        // Solo se cachean los resultados completos; uno degradado por el plazo no debe reutilizarse
+        if (ExecutionMode.FULL.name().equals(response.getExecutionMode())) {
+            recommendationCacheService.put(fingerprint, response);
+        }
+
+        return response;
+    }
+
+    /**
+     * Ejecuta el pipeline completo de recomendación (sin caché)
+     */
+    private ItemRecommendationResponseDTO computeRecommendations(
+            GameStateRequestDTO gameState,
+            GameStateRequestDTO.ActivePlayerDTO activePlayer,
+            String activePlayerTeam,
+            ChampionProfile championProfile,
+            RecommendationContext context,
+            int topK,
+            boolean explain,
+            Deadline deadline,
+            long startTime,
+            long startNanos) {
+
+        ItemCatalog catalog = context.getCatalog();
+        String championName = championProfile.getChampionName();
+        Map<String, Double> stageTimings = new LinkedHashMap<>();
+
+        // Paso 3: Analizar composición enemiga (reutilizada si la alineación ya se analizó en el contexto)
+        EnemyComposition enemyComposition = analyzeEnemyTeam(gameState, activePlayerTeam, context);
+
+        // Paso 4: Filtrar items candidatos con el índice del snapshot actual del catálogo (depende del perfil)
+        BitSet candidateMask = itemFilterService.filterCandidates(
+                catalog,
                 championProfile,
                 extractActivePlayerItems(gameState),
                 activePlayer.getCurrentGold());
 
-        if (candidateItems.isEmpty()) {
+        long stageStart = StageTimings.record(stageTimings, "analysis", startNanos);
+
+        if (candidateMask.isEmpty()) {
             log.warn("No candidate items found");
             return buildEmptyResponse(championName, activePlayer.getLevel(), activePlayer.getCurrentGold(),
-                    championProfile, enemyComposition, startTime);
+                    championProfile, enemyComposition, catalog.getVersion(), stageTimings, startTime);
         }
 
-        log.info("Processing {} candidate items", candidateItems.size());
+        log.info("Processing {} candidate items", candidateMask.cardinality());
 
         // Paso 5: Construir matriz de criterios
-        List<ItemCandidate> itemCandidates = criteriaMatrixService.buildCriteriaMatrix(candidateItems);
+        DecisionMatrix matrix = criteriaMatrixService.buildCriteriaMatrix(catalog, candidateMask);
 
         // Paso 6: Calcular pesos dinámicos
         WeightProfile weights = criteriaMatrixService.calculateDynamicWeights(
                 championProfile, enemyComposition);
 
-        // Paso 7: Aplicar TOPSIS (normalización vectorial + distancias a ideales)
-        itemCandidates = topsisService.applyTOPSIS(itemCandidates, weights);
-
-        // Paso 8: Aplicar TODIM (normalización min-max + dominancia con aversión a pérdidas)
-        // Necesitamos recalcular la matriz porque TOPSIS la modifica
-        List<ItemCandidate> todimCandidates = criteriaMatrixService.buildCriteriaMatrix(candidateItems);
-        todimCandidates = todimService.applyTODIM(todimCandidates, weights);
-
-        // Copiar scores TODIM a los candidatos originales
-        for (int i = 0; i < itemCandidates.size(); i++) {
-            itemCandidates.get(i).setTodimScore(todimCandidates.get(i).getTodimScore());
+        StageTimings.record(stageTimings, "matrix", stageStart);
+
+        // Paso 7 y 8: Aplicar TOPSIS (normalización vectorial + distancias a ideales) y
+        // TODIM (normalización min-max + dominancia con aversión a pérdidas) según el plazo restante
+        // Paso 9: Combinar resultados (70% TOPSIS + 30% TODIM; solo TOPSIS si no hubo tiempo para TODIM)
+        McdmExecutionService.McdmResult mcdm =
+                mcdmExecutionService.evaluate(matrix, weights, topK, deadline, stageTimings);
+        List<ItemCandidate> itemCandidates = mcdm.candidates();
+        double[] topsisScores = mcdm.topsisScores();
+        double[] todimScores = mcdm.todimScores();
+        double[] finalScores = mcdm.finalScores();
+
+        stageStart = System.nanoTime();
+
+        // Paso 10: Seleccionar el Top K por score final (heap acotado, sin ordenar todo)
+        TopKSelection selection = TopKSelection.of(finalScores, topK);
+        List<ItemCandidate> topCandidates = new ArrayList<>(selection.size());
+
+        for (int rank = 0; rank < selection.size(); rank++) {
+            int index = selection.indexAt(rank);
+            ItemCandidate candidate = itemCandidates.get(index);
+            candidate.setTopsisScore(topsisScores[index]);
+            candidate.setTodimScore(todimScores != null ? todimScores[index] : null);
+            candidate.setFinalScore(finalScores[index]);
+            topCandidates.add(candidate);
         }
 
-        // Paso 9: Combinar resultados (70% TOPSIS + 30% TODIM)
-        calculateFinalScores(itemCandidates);
+        log.debug("Top {} selected, k-th final score = {}", selection.size(), selection.getKthScore());
 
-        // Paso 10: Ordenar por score final y tomar Top 5
-        List<ItemCandidate> topCandidates = itemCandidates.stream()
-                .sorted(Comparator.comparingDouble(ItemCandidate::getFinalScore).reversed())
-                .limit(5)
-                .collect(Collectors.toList());
+        StageTimings.record(stageTimings, "selection", stageStart);
 
         // Paso 11: Construir respuesta
         long processingTime = System.currentTimeMillis() - startTime;
@@ -110,28 +250,98 @@ public class ItemRecommendationService {
                 championProfile,
                 enemyComposition,
                 topCandidates,
-                weights,
+                explain,
+                catalog.getVersion(),
+                mcdm,
+                stageTimings,
                 processingTime);
 
-        log.info("Item recommendation process completed in {}ms. Top recommendation: {}",
+        log.info("Item recommendation process completed in {}ms ({}). Top recommendation: {}",
                 processingTime,
+                mcdm.mode(),
                 topCandidates.isEmpty() ? "none" : topCandidates.get(0).getItemName());
 
         return response;
     }
 
     /**
-     * Calcula scores finales combinando TOPSIS y TODIM
+     * Huella del estado de partida para el jugador activo sobre el catálogo actual
+     * Si no cambia, la recomendación tampoco cambia
+     */
+    public GameStateFingerprint fingerprint(GameStateRequestDTO gameState, int topK) {
+        GameStateRequestDTO.ActivePlayerDTO activePlayer = gameState.getActivePlayer();
+        String championName = extractChampionName(gameState, activePlayer.getSummonerName());
+
+        return buildFingerprint(
+                gameState,
+                extractActivePlayerTeam(gameState),
+                championAnalysisService.analyzeChampion(activePlayer, championName),
+                topK,
+                true,
+                itemCatalogService.getCatalog().getVersion());
+    }
+
+    /**
+     * Construye la huella con las entradas que afectan al resultado: campeón, nivel, items
+     * comprados, campeones enemigos con su nivel, tipo de escalado y versión de los datos
+     * De las stats del campeón solo se usa el tipo de escalado que se deriva de ellas
+     */
+    private GameStateFingerprint buildFingerprint(
+            GameStateRequestDTO gameState,
+            String activePlayerTeam,
+            ChampionProfile championProfile,
+            int topK,
+            boolean explain,
+            long catalogVersion) {
+
+        GameStateRequestDTO.ActivePlayerDTO activePlayer = gameState.getActivePlayer();
+
+        GameStateFingerprint.Builder builder = GameStateFingerprint.builder()
+                .championName(championProfile.getChampionName())
+                .level(activePlayer.getLevel())
+                .scalingType(championProfile.getScalingType())
+                .ownedItemIds(extractActivePlayerItems(gameState).stream()
+                        .map(item -> String.valueOf(item.getItemID()))
+                        .toList())
+                .topK(topK)
+                .explain(explain)
+                .catalogVersion(catalogVersion)
+                .cacheGeneration(recommendationCacheService.getGeneration());
+
+        for (GameStateRequestDTO.PlayerDTO player : gameState.getAllPlayers()) {
+            if (!player.getTeam().equals(activePlayerTeam)) {
+                builder.enemy(player.getChampionName(), player.getLevel());
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Analiza el equipo rival de un equipo, reutilizando el análisis si ya existe en el contexto
      */
-    private void calculateFinalScores(List<ItemCandidate> candidates) {
-        for (ItemCandidate candidate : candidates) {
-            double topsisScore = candidate.getTopsisScore() != null ? candidate.getTopsisScore() : 0.0;
-            double todimScore = candidate.getTodimScore() != null ? candidate.getTodimScore() : 0.0;
+    public EnemyComposition analyzeEnemyTeam(
+            GameStateRequestDTO gameState, String team, RecommendationContext context) {
+        return context.enemyComposition(
+                enemyRosterKey(gameState, team),
+                () -> enemyAnalysisService.analyzeEnemyTeam(gameState.getAllPlayers(), team));
+    }
 
-            double finalScore = (TOPSIS_WEIGHT * topsisScore) + (TODIM_WEIGHT * todimScore);
+    /**
+     * Clave de la alineación enemiga (campeón y nivel, ordenados por nombre de campeón)
+     * El orden de llegada no afecta al análisis, así que la misma alineación comparte clave
+     */
+    private String enemyRosterKey(GameStateRequestDTO gameState, String activePlayerTeam) {
+        List<String> enemies = new ArrayList<>();
 
-            candidate.setFinalScore(finalScore);
+        for (GameStateRequestDTO.PlayerDTO player : gameState.getAllPlayers()) {
+            if (!player.getTeam().equals(activePlayerTeam)) {
+                enemies.add(player.getChampionName() + ':' + player.getLevel());
+            }
         }
+
+        Collections.sort(enemies);
+        return String.join(",", enemies);
     }
 
     /**
@@ -181,7 +391,10 @@ public class ItemRecommendationService {
             ChampionProfile championProfile,
             EnemyComposition enemyComposition,
             List<ItemCandidate> topCandidates,
-            WeightProfile weights,
+            boolean explain,
+            long catalogVersion,
+            McdmExecutionService.McdmResult mcdm,
+            Map<String, Double> stageTimings,
             long processingTime) {
 
         // Convertir enemyComposition a DTO
@@ -201,7 +414,10 @@ public class ItemRecommendationService {
         int rank = 1;
 
         for (ItemCandidate candidate : topCandidates) {
-            String explanation = generateExplanation(candidate, championProfile, enemyComposition, weights);
+            // Las explicaciones solo se generan si la petición las pide
+            String explanation = explain
+                    ? generateExplanation(candidate, championProfile, enemyComposition)
+                    : null;
 
             ItemRecommendationResponseDTO.RecommendedItemDTO itemDTO =
                     ItemRecommendationResponseDTO.RecommendedItemDTO.builder()
@@ -213,7 +429,7 @@ public class ItemRecommendationService {
                             .todimScore(candidate.getTodimScore())
                             .goldTotal(candidate.getItem().getGoldTotal().doubleValue())
                             .purchasable(candidate.getPurchasable())
-                            .criteriaScores(candidate.getCriteria())
+                            .criteriaScores(candidate.toCriteriaMap())
                             .explanation(explanation)
                             .build();
 
@@ -227,38 +443,44 @@ public class ItemRecommendationService {
                 .championProfile(championProfile.getScalingType().toString())
                 .enemyAnalysis(enemyAnalysisDTO)
                 .recommendations(recommendations)
+                .catalogVersion(catalogVersion)
+                .cacheHit(false)
+                .executionMode(mcdm.mode().name())
+                .todimCandidates(mcdm.todimCandidates())
+                .stageTimingsMs(stageTimings)
                 .processingTimeMs(processingTime)
                 .build();
     }
 
     /**
      * Genera explicación de por qué se recomienda un item
+     * Usa los textos precompilados (prefijo por tipo de escalado y nombres de criterio) y un
+     * formateo manual con un decimal, sin expresiones regulares ni String.format
      */
     private String generateExplanation(
             ItemCandidate candidate,
             ChampionProfile championProfile,
-            EnemyComposition enemyComposition,
-            WeightProfile weights) {
+            EnemyComposition enemyComposition) {
 
-        StringBuilder explanation = new StringBuilder();
+        StringBuilder explanation = new StringBuilder(160);
 
         // Razón principal basada en el perfil del campeón
-        explanation.append(String.format("Recommended for %s champions. ",
-                championProfile.getScalingType().toString().toLowerCase().replace("_", " ")));
+        explanation.append(EXPLANATION_PREFIXES.get(championProfile.getScalingType()));
 
-        // Top 3 stats del item
-        List<Map.Entry<String, Double>> topStats = candidate.getCriteria().entrySet().stream()
-                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
-                .limit(3)
-                .filter(e -> e.getValue() > 0)
-                .collect(Collectors.toList());
+        // Top 3 stats del item (empates a favor del criterio anterior, como una ordenación estable)
+        double[] criteria = candidate.getCriteria();
+        int[] topStats = topCriteria(criteria, EXPLANATION_TOP_STATS);
 
-        if (!topStats.isEmpty()) {
+        if (topStats.length > 0) {
             explanation.append("Provides: ");
-            List<String> statDescriptions = topStats.stream()
-                    .map(e -> String.format("%s (%.1f)", formatCriterionName(e.getKey()), e.getValue()))
-                    .collect(Collectors.toList());
-            explanation.append(String.join(", ", statDescriptions));
+            for (int i = 0; i < topStats.length; i++) {
+                if (i > 0) {
+                    explanation.append(", ");
+                }
+                explanation.append(DecisionMatrix.CRITERIA[topStats[i]].getDisplayName()).append(" (");
+                appendOneDecimal(explanation, criteria[topStats[i]]);
+                explanation.append(')');
+            }
             explanation.append(". ");
         }
 
@@ -271,23 +493,56 @@ public class ItemRecommendationService {
         }
 
         // Gold efficiency
-        explanation.append(String.format("Gold efficiency: %.1f%%.", candidate.getGoldEfficiency()));
+        explanation.append("Gold efficiency: ");
+        appendOneDecimal(explanation, candidate.getGoldEfficiency());
+        explanation.append("%.");
 
         return explanation.toString();
     }
 
     /**
-     * Formatea nombres de criterios para mostrar
+     * Índices de los criterios con mayor valor positivo, de mayor a menor (como mucho limit)
      */
-    private String formatCriterionName(String key) {
-        return key.replaceAll("([A-Z])", " $1")
-                .toLowerCase()
-                .trim()
-                .substring(0, 1).toUpperCase() +
-                key.replaceAll("([A-Z])", " $1")
-                        .toLowerCase()
-                        .trim()
-                        .substring(1);
+    private static int[] topCriteria(double[] criteria, int limit) {
+        int[] selected = new int[limit];
+        int count = 0;
+
+        for (int c = 0; c < criteria.length; c++) {
+            if (!(criteria[c] > 0)) {
+                continue;
+            }
+
+            // Inserción en la lista ordenada; un valor igual queda detrás del ya seleccionado
+            int position = count;
+            while (position > 0 && criteria[selected[position - 1]] < criteria[c]) {
+                position--;
+            }
+            if (position >= limit) {
+                continue;
+            }
+
+            int last = Math.min(count, limit - 1);
+            for (int i = last; i > position; i--) {
+                selected[i] = selected[i - 1];
+            }
+            selected[position] = c;
+            count = Math.min(count + 1, limit);
+        }
+
+        return Arrays.copyOf(selected, count);
+    }
+
+    /**
+     * Añade el valor con un decimal redondeando a la mitad hacia arriba (equivale a "%.1f")
+     */
+    private static void appendOneDecimal(StringBuilder builder, double value) {
+        if (value < 0) {
+            builder.append('-');
+            value = -value;
+        }
+
+        long tenths = Math.round(value * 10.0);
+        builder.append(tenths / 10).append('.').append(tenths % 10);
     }
 
     /**
@@ -299,6 +554,8 @@ public class ItemRecommendationService {
             Double currentGold,
             ChampionProfile championProfile,
             EnemyComposition enemyComposition,
+            long catalogVersion,
+            Map<String, Double> stageTimings,
             long startTime) {
 
         ItemRecommendationResponseDTO.EnemyAnalysisDTO enemyAnalysisDTO =
@@ -319,6 +576,11 @@ public class ItemRecommendationService {
                 .championProfile(championProfile.getScalingType().toString())
                 .enemyAnalysis(enemyAnalysisDTO)
                 .recommendations(Collections.emptyList())
+                .catalogVersion(catalogVersion)
+                .cacheHit(false)
+                .executionMode(ExecutionMode.FULL.name())
+                .todimCandidates(0)
+                .stageTimingsMs(stageTimings)
                 .processingTimeMs(System.currentTimeMillis() - startTime)
                 .build();
     }
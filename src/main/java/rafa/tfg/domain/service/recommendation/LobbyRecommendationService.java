@@ -0,0 +1,173 @@
+package rafa.tfg.domain.service.recommendation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import rafa.tfg.application.dto.recommendation.GameStateRequestDTO;
+import rafa.tfg.application.dto.recommendation.ItemRecommendationResponseDTO;
+import rafa.tfg.application.dto.recommendation.LobbyRecommendationResponseDTO;
+import rafa.tfg.domain.model.Item;
+import rafa.tfg.domain.model.recommendation.ChampionThreatProfile;
+import rafa.tfg.domain.model.recommendation.ItemCatalog;
+import rafa.tfg.domain.model.recommendation.RecommendationContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Servicio de recomendaciones para todos los jugadores de una partida
+ * Analiza cada equipo una sola vez (como rival del otro) y recomienda items a los diez
+ * jugadores a partir del mismo snapshot
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LobbyRecommendationService {
+
+    public static final String STATUS_OK = "OK";
+    public static final String STATUS_ERROR = "ERROR";
+
+    private final ItemRecommendationService itemRecommendationService;
+    private final ItemCatalogService itemCatalogService;
+    private final ChampionThreatIndexService championThreatIndexService;
+
+    /**
+     * Genera las topK recomendaciones de cada jugador de la partida
+     *
+     * @param explain Si se generan los textos de explicación de cada item
+     */
+    public LobbyRecommendationResponseDTO recommendLobby(GameStateRequestDTO gameState, int topK, boolean explain) {
+        long startTime = System.currentTimeMillis();
+
+        List<GameStateRequestDTO.PlayerDTO> players = gameState.getAllPlayers();
+        String activeSummonerName = gameState.getActivePlayer() != null
+                ? gameState.getActivePlayer().getSummonerName()
+                : null;
+
+        log.info("Starting lobby recommendation for {} players", players.size());
+
+        // Paso 1: Analizar cada equipo una vez; el análisis de un equipo es el "enemigo" del otro
+        RecommendationContext context = RecommendationContext.shared(itemCatalogService.getCatalog());
+
+        Set<String> teams = new LinkedHashSet<>();
+        for (GameStateRequestDTO.PlayerDTO player : players) {
+            teams.add(player.getTeam());
+        }
+        for (String team : teams) {
+            itemRecommendationService.analyzeEnemyTeam(gameState, team, context);
+        }
+
+        long teamAnalysisTime = System.currentTimeMillis() - startTime;
+
+        // Paso 2: Recomendar para cada jugador reutilizando los análisis de equipo
+        List<LobbyRecommendationResponseDTO.PlayerRecommendationDTO> results = new ArrayList<>(players.size());
+
+        for (GameStateRequestDTO.PlayerDTO player : players) {
+            boolean isActivePlayer = player.getSummonerName() != null
+                    && player.getSummonerName().equals(activeSummonerName);
+
+            results.add(recommendForPlayer(gameState, player, isActivePlayer, topK, explain, context));
+        }
+
+        long totalTime = System.currentTimeMillis() - startTime;
+
+        log.info("Lobby recommendation completed in {}ms ({} teams analyzed in {}ms)",
+                totalTime, context.getEnemyCompositions().size(), teamAnalysisTime);
+
+        return LobbyRecommendationResponseDTO.builder()
+                .catalogVersion(context.getCatalog().getVersion())
+                .players(results)
+                .timings(LobbyRecommendationResponseDTO.TimingDTO.builder()
+                        .teamAnalysisMs(teamAnalysisTime)
+                        .playerRecommendationsMs(totalTime - teamAnalysisTime)
+                        .totalMs(totalTime)
+                        .build())
+                .build();
+    }
+
+    /**
+     * Recomienda para un jugador tratándolo como jugador activo de una copia del estado de partida
+     */
+    private LobbyRecommendationResponseDTO.PlayerRecommendationDTO recommendForPlayer(
+            GameStateRequestDTO gameState,
+            GameStateRequestDTO.PlayerDTO player,
+            boolean isActivePlayer,
+            int topK,
+            boolean explain,
+            RecommendationContext context) {
+
+        LobbyRecommendationResponseDTO.PlayerRecommendationDTO.PlayerRecommendationDTOBuilder result =
+                LobbyRecommendationResponseDTO.PlayerRecommendationDTO.builder()
+                        .summonerName(player.getSummonerName())
+                        .championName(player.getChampionName())
+                        .team(player.getTeam())
+                        .activePlayer(isActivePlayer)
+                        .statsEstimated(!isActivePlayer);
+
+        try {
+            GameStateRequestDTO playerState = new GameStateRequestDTO();
+            playerState.setAllPlayers(gameState.getAllPlayers());
+            playerState.setGameData(gameState.getGameData());
+            playerState.setActivePlayer(isActivePlayer
+                    ? gameState.getActivePlayer()
+                    : buildEstimatedActivePlayer(player, context.getCatalog()));
+
+            ItemRecommendationResponseDTO recommendation =
+                    itemRecommendationService.recommendItems(playerState, topK, context, explain);
+
+            return result.status(STATUS_OK).recommendation(recommendation).build();
+
+        } catch (Exception e) {
+            log.warn("Lobby recommendation failed for {}: {}", player.getSummonerName(), e.toString());
+            return result.status(STATUS_ERROR)
+                    .error(e.getClass().getSimpleName() + (e.getMessage() != null ? ": " + e.getMessage() : ""))
+                    .build();
+        }
+    }
+
+    /**
+     * Construye un jugador activo sintético para un jugador del que solo se conoce campeón, nivel e items
+     * Las stats se estiman con las curvas base del campeón más las stats planas de sus items
+     */
+    private GameStateRequestDTO.ActivePlayerDTO buildEstimatedActivePlayer(
+            GameStateRequestDTO.PlayerDTO player, ItemCatalog catalog) {
+
+        int level = player.getLevel() != null ? player.getLevel() : 1;
+        ChampionThreatProfile championProfile = championThreatIndexService.getProfile(player.getChampionName());
+
+        double attackDamage = championProfile.attackDamageAtLevel(level);
+        double abilityPower = 0.0;
+        double bonusAttackSpeed = 0.0;
+
+        if (player.getItems() != null) {
+            for (GameStateRequestDTO.ItemDTO ownedItem : player.getItems()) {
+                Item item = catalog.findByItemId(String.valueOf(ownedItem.getItemID())).orElse(null);
+                if (item == null) {
+                    continue;
+                }
+                attackDamage += valueOrZero(item.getFlatPhysicalDamageMod());
+                abilityPower += valueOrZero(item.getFlatMagicDamageMod());
+                bonusAttackSpeed += valueOrZero(item.getPercentAttackSpeedMod());
+            }
+        }
+
+        GameStateRequestDTO.ChampionStatsDTO stats = new GameStateRequestDTO.ChampionStatsDTO();
+        stats.setAttackDamage(attackDamage);
+        stats.setAbilityPower(abilityPower);
+        stats.setAttackSpeed(championProfile.getBaseAttackSpeed() * (1.0 + bonusAttackSpeed));
+        stats.setCooldownReduction(0.0);
+
+        GameStateRequestDTO.ActivePlayerDTO activePlayer = new GameStateRequestDTO.ActivePlayerDTO();
+        activePlayer.setSummonerName(player.getSummonerName());
+        activePlayer.setLevel(level);
+        activePlayer.setChampionStats(stats);
+
+        return activePlayer;
+    }
+
+    private static double valueOrZero(Double value) {
+        return value != null ? value : 0.0;
+    }
+}
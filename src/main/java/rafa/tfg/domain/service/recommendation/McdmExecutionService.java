@@ -0,0 +1,183 @@
+package rafa.tfg.domain.service.recommendation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import rafa.tfg.domain.model.recommendation.DecisionMatrix;
+import rafa.tfg.domain.model.recommendation.Deadline;
+import rafa.tfg.domain.model.recommendation.ExecutionMode;
+import rafa.tfg.domain.model.recommendation.ItemCandidate;
+import rafa.tfg.domain.model.recommendation.TopKSelection;
+import rafa.tfg.domain.model.recommendation.WeightProfile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Servicio que ejecuta TOPSIS y TODIM sobre la matriz de decisión dentro del plazo de la petición
+ * Decide el modo de ejecución con el modelo de coste de TODIM y combina los scores de ambos
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class McdmExecutionService {
+
+    private final TOPSISService topsisService;
+    private final TODIMService todimService;
+    private final TodimCostModel todimCostModel;
+
+    // Pesos para combinación de algoritmos
+    private static final double TOPSIS_WEIGHT = 0.70;
+    private static final double TODIM_WEIGHT = 0.30;
+
+    // Número mínimo de candidatos para ejecutar TOPSIS y TODIM en paralelo
+    private static final int PARALLEL_MCDM_THRESHOLD = 64;
+
+    // TODIM compara pares de alternativas: con menos de dos no aporta nada
+    private static final int MIN_TODIM_CANDIDATES = 2;
+
+    /**
+     * Ejecuta TOPSIS y TODIM sobre la matriz de solo lectura
+     * Si TODIM completo no cabe en el plazo según el modelo de coste, se ejecuta solo sobre los
+     * mejores candidatos de TOPSIS que quepan (REDUCED_TODIM) o se omite (TOPSIS_ONLY)
+     *
+     * @param stageTimings Mapa donde se registran las etapas "topsis" y "todim"
+     */
+    public McdmResult evaluate(
+            DecisionMatrix matrix,
+            WeightProfile weights,
+            int topK,
+            Deadline deadline,
+            Map<String, Double> stageTimings) {
+
+        int rows = matrix.getRows();
+
+        // Paso 1: Con tiempo suficiente para TODIM completo se ejecuta el pipeline normal
+        if (todimCostModel.estimateNanos(rows) <= deadline.remainingNanos()) {
+            return evaluateFull(matrix, weights, stageTimings);
+        }
+
+        // Paso 2: TOPSIS es lineal y se ejecuta siempre
+        long stageStart = System.nanoTime();
+        double[] topsisScores = topsisService.applyTOPSIS(matrix, weights);
+        StageTimings.record(stageTimings, "topsis", stageStart);
+
+        // Paso 3: Candidatos que TODIM puede evaluar en el tiempo que queda tras TOPSIS
+        int todimRows = Math.min(rows, todimCostModel.maxRowsWithin(deadline.remainingNanos()));
+
+        if (todimRows >= rows) {
+            double[] todimScores = runTodim(matrix, weights, stageTimings);
+            return McdmResult.of(ExecutionMode.FULL, matrix.getCandidates(), topsisScores, todimScores);
+        }
+
+        if (todimRows < Math.max(topK, MIN_TODIM_CANDIDATES)) {
+            log.info("Deadline too tight for TODIM, using TOPSIS only ({} candidates)", rows);
+            return McdmResult.of(ExecutionMode.TOPSIS_ONLY, matrix.getCandidates(), topsisScores, null);
+        }
+
+        // Paso 4: TODIM sobre los mejores candidatos de TOPSIS, manteniendo el orden original
+        TopKSelection shortlist = TopKSelection.of(topsisScores, todimRows);
+        int[] indices = new int[shortlist.size()];
+        for (int rank = 0; rank < indices.length; rank++) {
+            indices[rank] = shortlist.indexAt(rank);
+        }
+        Arrays.sort(indices);
+
+        List<ItemCandidate> reducedCandidates = new ArrayList<>(indices.length);
+        double[] reducedTopsisScores = new double[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            reducedCandidates.add(matrix.getCandidates().get(indices[i]));
+            reducedTopsisScores[i] = topsisScores[indices[i]];
+        }
+
+        log.info("Deadline too tight for full TODIM, evaluating top {} of {} candidates by TOPSIS",
+                todimRows, rows);
+
+        double[] todimScores = runTodim(DecisionMatrix.of(reducedCandidates), weights, stageTimings);
+        return McdmResult.of(ExecutionMode.REDUCED_TODIM, reducedCandidates, reducedTopsisScores, todimScores);
+    }
+
+    /**
+     * TOPSIS y TODIM sobre todos los candidatos
+     * Con suficientes candidatos, TODIM (O(n²)) se lanza en paralelo mientras TOPSIS corre en el hilo actual
+     */
+    private McdmResult evaluateFull(DecisionMatrix matrix, WeightProfile weights, Map<String, Double> stageTimings) {
+        double[] topsisScores;
+        double[] todimScores;
+
+        if (matrix.getRows() < PARALLEL_MCDM_THRESHOLD) {
+            long stageStart = System.nanoTime();
+            topsisScores = topsisService.applyTOPSIS(matrix, weights);
+            StageTimings.record(stageTimings, "topsis", stageStart);
+
+            todimScores = runTodim(matrix, weights, stageTimings);
+
+        } else {
+            // Los tiempos de TOPSIS y TODIM se solapan; el mapa solo se escribe en el hilo actual
+            long todimStart = System.nanoTime();
+            CompletableFuture<double[]> todimFuture =
+                    CompletableFuture.supplyAsync(() -> todimService.applyTODIM(matrix, weights));
+
+            long stageStart = System.nanoTime();
+            topsisScores = topsisService.applyTOPSIS(matrix, weights);
+            StageTimings.record(stageTimings, "topsis", stageStart);
+
+            todimScores = todimFuture.join();
+            todimCostModel.record(matrix.getRows(), System.nanoTime() - todimStart);
+            StageTimings.record(stageTimings, "todim", todimStart);
+        }
+
+        return McdmResult.of(ExecutionMode.FULL, matrix.getCandidates(), topsisScores, todimScores);
+    }
+
+    /**
+     * Ejecuta TODIM en el hilo actual y actualiza el modelo de coste
+     */
+    private double[] runTodim(DecisionMatrix matrix, WeightProfile weights, Map<String, Double> stageTimings) {
+        long stageStart = System.nanoTime();
+        double[] todimScores = todimService.applyTODIM(matrix, weights);
+        todimCostModel.record(matrix.getRows(), System.nanoTime() - stageStart);
+        StageTimings.record(stageTimings, "todim", stageStart);
+        return todimScores;
+    }
+
+    /**
+     * Resultado de los algoritmos MCDM: candidatos evaluados y sus scores (todimScores es null en TOPSIS_ONLY)
+     * El score final combina 70% TOPSIS + 30% TODIM, o solo TOPSIS si no hubo tiempo para TODIM
+     */
+    public record McdmResult(
+            ExecutionMode mode,
+            List<ItemCandidate> candidates,
+            double[] topsisScores,
+            double[] todimScores,
+            double[] finalScores) {
+
+        private static McdmResult of(ExecutionMode mode, List<ItemCandidate> candidates,
+                                     double[] topsisScores, double[] todimScores) {
+            double[] finalScores = todimScores != null
+                    ? combineScores(topsisScores, todimScores)
+                    : topsisScores;
+            return new McdmResult(mode, candidates, topsisScores, todimScores, finalScores);
+        }
+
+        /**
+         * Número de candidatos evaluados por TODIM (0 en TOPSIS_ONLY)
+         */
+        public int todimCandidates() {
+            return todimScores != null ? candidates.size() : 0;
+        }
+
+        private static double[] combineScores(double[] topsisScores, double[] todimScores) {
+            double[] finalScores = new double[topsisScores.length];
+
+            for (int i = 0; i < finalScores.length; i++) {
+                finalScores[i] = (TOPSIS_WEIGHT * topsisScores[i]) + (TODIM_WEIGHT * todimScores[i]);
+            }
+
+            return finalScores;
+        }
+    }
+}
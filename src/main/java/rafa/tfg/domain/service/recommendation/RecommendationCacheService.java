@@ -0,0 +1,202 @@
+package rafa.tfg.domain.service.recommendation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import rafa.tfg.application.dto.recommendation.ItemRecommendationResponseDTO;
+import rafa.tfg.domain.model.recommendation.GameStateFingerprint;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché LRU con caducidad de las recomendaciones, indexada por la huella del estado de partida
+ * Se invalida completa cuando se recarga el catálogo de items, campeones o habilidades
+ * Los DTOs son mutables, así que se guarda una copia inmodificable y cada acierto recibe su propia copia
+ */
+@Service
+@Slf4j
+public class RecommendationCacheService {
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    // LinkedHashMap en orden de acceso: el primer elemento es el menos usado recientemente
+    private final LinkedHashMap<GameStateFingerprint, CacheEntry> entries;
+
+    // Cada invalidación abre una generación nueva; las huellas antiguas dejan de coincidir
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public RecommendationCacheService(
+            @Value("${recommendation.cache.enabled:true}") boolean enabled,
+            @Value("${recommendation.cache.max-entries:1024}") int maxEntries,
+            @Value("${recommendation.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<GameStateFingerprint, CacheEntry> eldest) {
+                if (size() > RecommendationCacheService.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Generación actual, que debe formar parte de la huella
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Busca una recomendación en caché; las entradas caducadas se eliminan al consultarlas
+     */
+    public Optional<ItemRecommendationResponseDTO> get(GameStateFingerprint fingerprint) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        synchronized (entries) {
+            CacheEntry entry = entries.get(fingerprint);
+
+            if (entry != null && System.nanoTime() - entry.createdAt > ttlNanos) {
+                entries.remove(fingerprint);
+                expirations.incrementAndGet();
+                entry = null;
+            }
+
+            if (entry == null) {
+                misses.incrementAndGet();
+                return Optional.empty();
+            }
+
+            hits.incrementAndGet();
+            return Optional.of(copyOf(entry.response));
+        }
+    }
+
+    public void put(GameStateFingerprint fingerprint, ItemRecommendationResponseDTO response) {
+        if (!enabled) {
+            return;
+        }
+
+        synchronized (entries) {
+            entries.put(fingerprint, new CacheEntry(snapshotOf(response), System.nanoTime()));
+        }
+    }
+
+    /**
+     * Copia que se guarda en la caché: lista de recomendaciones inmodificable
+     */
+    private static ItemRecommendationResponseDTO snapshotOf(ItemRecommendationResponseDTO response) {
+        ItemRecommendationResponseDTO snapshot = copyOf(response);
+        snapshot.setRecommendations(List.copyOf(snapshot.getRecommendations()));
+        return snapshot;
+    }
+
+    /**
+     * Copia la respuesta sin compartir listas, mapas ni items con el original
+     */
+    private static ItemRecommendationResponseDTO copyOf(ItemRecommendationResponseDTO response) {
+        List<ItemRecommendationResponseDTO.RecommendedItemDTO> recommendations =
+                new ArrayList<>(response.getRecommendations().size());
+
+        for (ItemRecommendationResponseDTO.RecommendedItemDTO item : response.getRecommendations()) {
+            recommendations.add(item.toBuilder()
+                    .criteriaScores(item.getCriteriaScores() != null
+                            ? new LinkedHashMap<>(item.getCriteriaScores())
+                            : null)
+                    .build());
+        }
+
+        ItemRecommendationResponseDTO.EnemyAnalysisDTO enemyAnalysis = response.getEnemyAnalysis();
+
+        return response.toBuilder()
+                .recommendations(recommendations)
+                .enemyAnalysis(enemyAnalysis != null
+                        ? enemyAnalysis.toBuilder()
+                                .enemyChampions(enemyAnalysis.getEnemyChampions() != null
+                                        ? List.copyOf(enemyAnalysis.getEnemyChampions())
+                                        : null)
+                                .build()
+                        : null)
+                .stageTimingsMs(response.getStageTimingsMs() != null
+                        ? new LinkedHashMap<>(response.getStageTimingsMs())
+                        : null)
+                .build();
+    }
+
+    /**
+     * Vacía la caché tras una recarga de datos
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        invalidations.incrementAndGet();
+
+        int removed;
+        synchronized (entries) {
+            removed = entries.size();
+            entries.clear();
+        }
+
+        log.info("Recommendation cache invalidated: {} entries removed", removed);
+    }
+
+    /**
+     * Métricas de uso de la caché
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long lookups = hitCount + missCount;
+
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("size", size);
+        stats.put("maxEntries", maxEntries);
+        stats.put("ttlSeconds", ttlNanos / 1_000_000_000L);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", lookups > 0 ? (double) hitCount / lookups : 0.0);
+        stats.put("evictions", evictions.get());
+        stats.put("expirations", expirations.get());
+        stats.put("invalidations", invalidations.get());
+        stats.put("generation", generation.get());
+        return stats;
+    }
+
+    private static final class CacheEntry {
+        private final ItemRecommendationResponseDTO response;
+        private final long createdAt;
+
+        private CacheEntry(ItemRecommendationResponseDTO response, long createdAt) {
+            this.response = response;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package rafa.tfg.domain.service.recommendation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import rafa.tfg.application.dto.recommendation.GameStateRequestDTO;
+import rafa.tfg.application.dto.recommendation.ItemRecommendationResponseDTO;
+import rafa.tfg.domain.model.recommendation.GameStateFingerprint;
+import rafa.tfg.domain.model.recommendation.RecommendationSession;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Servicio de sesiones de recomendación en vivo
+ * El cliente envía deltas del estado de partida (JSON Merge Patch, RFC 7386); solo se recalcula
+ * cuando cambia la huella del estado y solo se notifica a los suscriptores cuando cambia el Top K.
+ * Las notificaciones se envían fuera del bloqueo de la sesión, así que un cliente lento no
+ * retrasa los deltas ni las nuevas suscripciones.
+ */
+@Service
+@Slf4j
+public class RecommendationSessionService {
+
+    public enum UpdateOutcome {
+        UNCHANGED_INPUTS,          // la huella no cambió: no se recalcula
+        UNCHANGED_RECOMMENDATION,  // se recalculó pero el Top K es el mismo: no se notifica
+        UPDATED                    // nuevo Top K notificado a los suscriptores
+    }
+
+    private final ItemRecommendationService itemRecommendationService;
+    private final ObjectMapper objectMapper;
+    private final int maxSessions;
+    private final long idleTimeoutMillis;
+
+    private final Map<String, RecommendationSession> sessions = new ConcurrentHashMap<>();
+
+    public RecommendationSessionService(
+            ItemRecommendationService itemRecommendationService,
+            ObjectMapper objectMapper,
+            @Value("${recommendation.session.max-sessions:1000}") int maxSessions,
+            @Value("${recommendation.session.idle-timeout-seconds:900}") long idleTimeoutSeconds) {
+        this.itemRecommendationService = itemRecommendationService;
+        this.objectMapper = objectMapper;
+        this.maxSessions = maxSessions;
+        this.idleTimeoutMillis = idleTimeoutSeconds * 1000L;
+    }
+
+    /**
+     * Crea una sesión con el estado inicial y calcula su primera recomendación
+     *
+     * @throws IllegalStateException si se alcanza el número máximo de sesiones
+     */
+    public RecommendationSession createSession(JsonNode initialState, int topK) throws JsonProcessingException {
+        evictIdleSessions();
+
+        if (sessions.size() >= maxSessions) {
+            throw new IllegalStateException("Maximum number of recommendation sessions reached: " + maxSessions);
+        }
+        if (!initialState.isObject()) {
+            throw new IllegalArgumentException("Initial game state must be a JSON object");
+        }
+
+        RecommendationSession session = new RecommendationSession(
+                UUID.randomUUID().toString(), topK, ((ObjectNode) initialState).deepCopy());
+
+        // La sesión aún no es visible: no tiene suscriptores a los que notificar
+        session.getLock().lock();
+        try {
+            recompute(session, toGameState(session.getState()));
+        } finally {
+            session.getLock().unlock();
+        }
+
+        sessions.put(session.getId(), session);
+
+        log.info("Recommendation session {} created (topK={}, active sessions={})",
+                session.getId(), topK, sessions.size());
+
+        return session;
+    }
+
+    public Optional<RecommendationSession> getSession(String sessionId) {
+        RecommendationSession session = sessions.get(sessionId);
+        if (session != null) {
+            session.touch();
+        }
+        return Optional.ofNullable(session);
+    }
+
+    /**
+     * Aplica un delta al estado de la sesión y notifica si cambia el Top K
+     */
+    public Optional<UpdateOutcome> applyPatch(String sessionId, JsonNode patch) throws JsonProcessingException {
+        RecommendationSession session = sessions.get(sessionId);
+        if (session == null) {
+            return Optional.empty();
+        }
+
+        UpdateOutcome outcome;
+        Publication publication;
+
+        session.getLock().lock();
+        try {
+            session.touch();
+
+            // Paso 1: Aplicar el merge patch sobre una copia (si falla, la sesión no cambia)
+            JsonNode merged = mergePatch(session.getState().deepCopy(), patch);
+            if (!merged.isObject()) {
+                throw new IllegalArgumentException("Patched game state must be a JSON object");
+            }
+            GameStateRequestDTO gameState = toGameState((ObjectNode) merged);
+            session.setState((ObjectNode) merged);
+
+            // Paso 2: Si no cambian las entradas relevantes no se recalcula
+            GameStateFingerprint fingerprint = itemRecommendationService.fingerprint(gameState, session.getTopK());
+            if (fingerprint.equals(session.getLastFingerprint())) {
+                return Optional.of(UpdateOutcome.UNCHANGED_INPUTS);
+            }
+
+            // Paso 3: Recalcular; solo hay que notificar si cambia el Top K
+            publication = recompute(session, gameState);
+            outcome = publication != null ? UpdateOutcome.UPDATED : UpdateOutcome.UNCHANGED_RECOMMENDATION;
+        } finally {
+            session.getLock().unlock();
+        }
+
+        // Paso 4: Notificar a los suscriptores ya sin el bloqueo
+        if (publication != null) {
+            publish(session, publication);
+        }
+
+        return Optional.of(outcome);
+    }
+
+    /**
+     * Registra un suscriptor; recibe inmediatamente la última recomendación
+     */
+    public boolean subscribe(String sessionId, RecommendationSession.Listener listener) {
+        RecommendationSession session = sessions.get(sessionId);
+        if (session == null) {
+            return false;
+        }
+
+        Publication initial = null;
+
+        session.getLock().lock();
+        try {
+            session.touch();
+            session.getListeners().add(listener);
+            if (session.getLastRecommendation() != null) {
+                initial = new Publication(session.getLastRecommendation(),
+                        session.getRecommendationVersion(), List.of(listener));
+            }
+        } finally {
+            session.getLock().unlock();
+        }
+
+        if (initial != null) {
+            publish(session, initial);
+        }
+        return true;
+    }
+
+    /**
+     * Da de baja un suscriptor; el tiempo de inactividad de la sesión empieza a contar desde aquí
+     */
+    public void unsubscribe(String sessionId, RecommendationSession.Listener listener) {
+        RecommendationSession session = sessions.get(sessionId);
+        if (session != null) {
+            session.getListeners().remove(listener);
+            session.touch();
+        }
+    }
+
+    public boolean closeSession(String sessionId) {
+        RecommendationSession session = sessions.remove(sessionId);
+        if (session == null) {
+            return false;
+        }
+
+        closeListeners(session);
+        log.info("Recommendation session {} closed", sessionId);
+        return true;
+    }
+
+    public int getActiveSessions() {
+        return sessions.size();
+    }
+
+    /**
+     * Recalcula la recomendación de la sesión (con el bloqueo de la sesión adquirido)
+     *
+     * @return Notificación pendiente para los suscriptores actuales, o null si el Top K no cambió
+     */
+    private Publication recompute(RecommendationSession session, GameStateRequestDTO gameState) {
+        ItemRecommendationResponseDTO recommendation =
+                itemRecommendationService.recommendItems(gameState, session.getTopK());
+
+        List<String> topItemIds = recommendation.getRecommendations().stream()
+                .map(ItemRecommendationResponseDTO.RecommendedItemDTO::getItemId)
+                .toList();
+
+        session.setLastFingerprint(itemRecommendationService.fingerprint(gameState, session.getTopK()));
+
+        if (topItemIds.equals(session.getLastTopItemIds())) {
+            log.debug("Session {}: recommendation unchanged", session.getId());
+            return null;
+        }
+
+        session.setLastTopItemIds(topItemIds);
+        session.setLastRecommendation(recommendation);
+        session.setRecommendationVersion(session.getRecommendationVersion() + 1);
+
+        log.debug("Session {}: new top {} for {} listeners",
+                session.getId(), topItemIds, session.getListeners().size());
+
+        return new Publication(recommendation, session.getRecommendationVersion(),
+                List.copyOf(session.getListeners()));
+    }
+
+    /**
+     * Envía una recomendación a los suscriptores, sin el bloqueo de estado de la sesión
+     * Los envíos se serializan con el bloqueo de publicación: si entretanto ya se envió una
+     * versión posterior, esta se descarta para no retroceder
+     */
+    private void publish(RecommendationSession session, Publication publication) {
+        session.getPublishLock().lock();
+        try {
+            long published = session.getPublishedVersion();
+            if (published > publication.version()) {
+                log.debug("Session {}: skipping stale recommendation v{} (v{} already sent)",
+                        session.getId(), publication.version(), published);
+                return;
+            }
+            session.setPublishedVersion(publication.version());
+
+            for (RecommendationSession.Listener listener : publication.listeners()) {
+                notifyListener(session, listener, publication.recommendation());
+            }
+        } finally {
+            session.getPublishLock().unlock();
+        }
+    }
+
+    /**
+     * Notifica a un suscriptor; si falla (cliente desconectado) se elimina
+     * Cada envío correcto cuenta como actividad de la sesión
+     */
+    private void notifyListener(RecommendationSession session,
+                                RecommendationSession.Listener listener,
+                                ItemRecommendationResponseDTO recommendation) {
+        try {
+            listener.onRecommendation(recommendation);
+            session.touch();
+        } catch (Exception e) {
+            log.debug("Session {}: removing listener after error: {}", session.getId(), e.toString());
+            session.getListeners().remove(listener);
+        }
+    }
+
+    private void closeListeners(RecommendationSession session) {
+        for (RecommendationSession.Listener listener : session.getListeners()) {
+            try {
+                listener.onClose();
+            } catch (Exception e) {
+                log.debug("Session {}: error closing listener: {}", session.getId(), e.toString());
+            }
+        }
+        session.getListeners().clear();
+    }
+
+    private GameStateRequestDTO toGameState(ObjectNode state) throws JsonProcessingException {
+        return objectMapper.treeToValue(state, GameStateRequestDTO.class);
+    }
+
+    /**
+     * Elimina las sesiones sin actividad durante más del tiempo configurado
+     * Se ejecuta periódicamente y al crear sesiones; una sesión con streams SSE abiertos sigue activa
+     */
+    @Scheduled(fixedDelayString = "${recommendation.session.eviction-interval-ms:60000}")
+    public void evictIdleSessions() {
+        long threshold = System.currentTimeMillis() - idleTimeoutMillis;
+
+        Iterator<RecommendationSession> iterator = sessions.values().iterator();
+        while (iterator.hasNext()) {
+            RecommendationSession session = iterator.next();
+            if (session.getLastAccessMillis() < threshold && session.getListeners().isEmpty()) {
+                iterator.remove();
+                closeListeners(session);
+                log.info("Recommendation session {} expired", session.getId());
+            }
+        }
+    }
+
+    /**
+     * JSON Merge Patch (RFC 7386): los objetos se fusionan recursivamente, null elimina
+     * el campo y cualquier otro valor (incluidos arrays) sustituye al existente
+     */
+    static JsonNode mergePatch(JsonNode target, JsonNode patch) {
+        if (!patch.isObject()) {
+            return patch.deepCopy();
+        }
+
+        ObjectNode result = (target != null && target.isObject())
+                ? (ObjectNode) target
+                : JsonNodeFactory.instance.objectNode();
+
+        Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (field.getValue().isNull()) {
+                result.remove(field.getKey());
+            } else {
+                result.set(field.getKey(), mergePatch(result.get(field.getKey()), field.getValue()));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Recomendación pendiente de enviar, con su versión y los suscriptores a los que va dirigida
+     */
+    private record Publication(
+            ItemRecommendationResponseDTO recommendation,
+            long version,
+            List<RecommendationSession.Listener> listeners) {
+    }
+}
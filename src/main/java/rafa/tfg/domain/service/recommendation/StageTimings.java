@@ -0,0 +1,21 @@
+package rafa.tfg.domain.service.recommendation;
+
+import java.util.Map;
+
+/**
+ * Registro de la duración de las etapas del pipeline de recomendación
+ */
+final class StageTimings {
+
+    private StageTimings() {
+    }
+
+    /**
+     * Registra la duración de una etapa en milisegundos (con decimales) y devuelve el instante actual
+     */
+    static long record(Map<String, Double> stageTimings, String stage, long stageStartNanos) {
+        long now = System.nanoTime();
+        stageTimings.put(stage, Math.round((now - stageStartNanos) / 1_000.0) / 1_000.0);
+        return now;
+    }
+}
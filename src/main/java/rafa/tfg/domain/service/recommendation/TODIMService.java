@@ -2,12 +2,14 @@ package rafa.tfg.domain.service.recommendation;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import rafa.tfg.domain.model.recommendation.DecisionMatrix;
 import rafa.tfg.domain.model.recommendation.ItemCandidate;
 import rafa.tfg.domain.model.recommendation.WeightProfile;
 
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Implementación del algoritmo TODIM (Tomada de Decisão Interativa Multicritério)
@@ -20,176 +22,193 @@ public class TODIMService {
     // Parámetro de aversión a pérdidas (típicamente 2.25 según estudios de Kahneman-Tversky)
     private static final double LOSS_AVERSION_LAMBDA = 2.25;
 
+    // Número de candidatos a partir del cual la dominancia se calcula en paralelo
+    static final int PARALLEL_THRESHOLD = 128;
+
+    // Filas por tarea hoja en el cálculo paralelo
+    private static final int ROWS_PER_TASK = 32;
+
     /**
-     * Aplica el algoritmo TODIM a los candidatos
+     * Aplica el algoritmo TODIM a los candidatos de la matriz de decisión
+     * La matriz no se modifica; los scores se devuelven en un array propio
      *
-     * @param candidates Lista de candidatos con sus criterios (ya normalizados)
-     * @param weights    Perfil de pesos para cada criterio
-     * @return Lista de candidatos con scores TODIM calculados
+     * @param matrix  Matriz de decisión con los criterios de cada candidato
+     * @param weights Perfil de pesos para cada criterio
+     * @return Scores TODIM en el mismo orden que matrix.getCandidates()
+     */
+    public double[] applyTODIM(DecisionMatrix matrix, WeightProfile weights) {
+        return applyTODIM(matrix, weights, matrix.getRows() >= PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * TODIM con el cálculo de dominancia en paralelo (fork-join) o en el hilo actual
+     * Ambos caminos suman en el mismo orden, así que devuelven exactamente los mismos scores
      */
-    public List<ItemCandidate> applyTODIM(List<ItemCandidate> candidates, WeightProfile weights) {
+    double[] applyTODIM(DecisionMatrix matrix, WeightProfile weights, boolean parallel) {
         log.info("Applying TODIM algorithm to {} candidates with loss aversion λ={}",
-                candidates.size(), LOSS_AVERSION_LAMBDA);
+                matrix.getRows(), LOSS_AVERSION_LAMBDA);
 
-        if (candidates.isEmpty()) {
-            return candidates;
+        if (matrix.isEmpty()) {
+            return new double[0];
         }
 
+        int rows = matrix.getRows();
+
         // Paso 1: Normalizar la matriz usando min-max
-        Map<String, double[]> normalizedMatrix = normalizeMatrixMinMax(candidates);
+        double[] normalized = normalizeMatrixMinMax(matrix);
 
-        // Paso 2: Identificar el criterio de referencia (mayor peso)
-        String referenceCriterion = findReferenceCriterion(weights);
-        double referenceWeight = weights.getWeight(referenceCriterion);
+        // Paso 2: Criterio de referencia (mayor peso) y pesos relativos, precalculados en el perfil
+        int referenceCriterion = weights.referenceCriterion();
+        double[] relativeWeights = weights.relativeWeights();
 
-        log.debug("Reference criterion: {} with weight: {}", referenceCriterion, referenceWeight);
+        log.debug("Reference criterion: {} with weight: {}",
+                DecisionMatrix.CRITERIA[referenceCriterion].getKey(), weights.referenceWeight());
 
         // Paso 3: Calcular matriz de dominancia global
-        Map<Integer, Double> dominanceScores = new HashMap<>();
-
-        for (int i = 0; i < candidates.size(); i++) {
-            double totalDominance = 0.0;
-
-            // Comparar alternativa i con todas las demás alternativas j
-            for (int j = 0; j < candidates.size(); j++) {
-                if (i != j) {
-                    double pairwiseDominance = calculatePairwiseDominance(
-                            i, j, normalizedMatrix, weights, referenceWeight);
-                    totalDominance += pairwiseDominance;
-                }
-            }
-
-            dominanceScores.put(i, totalDominance);
+        // Para muchos candidatos se reparten las filas entre núcleos con fork-join
+        double[] dominanceScores = new double[rows];
+
+        if (parallel) {
+            ForkJoinPool.commonPool().invoke(
+                    new DominanceTask(0, rows, rows, normalized, relativeWeights, dominanceScores));
+        } else {
+            computeDominanceRows(0, rows, rows, normalized, relativeWeights, dominanceScores);
         }
 
         // Paso 4: Normalizar scores TODIM (0-1)
-        double minDominance = dominanceScores.values().stream()
-                .mapToDouble(Double::doubleValue)
-                .min()
-                .orElse(0.0);
-
-        double maxDominance = dominanceScores.values().stream()
-                .mapToDouble(Double::doubleValue)
-                .max()
-                .orElse(1.0);
+        double minDominance = Double.POSITIVE_INFINITY;
+        double maxDominance = Double.NEGATIVE_INFINITY;
+        for (double score : dominanceScores) {
+            minDominance = Math.min(minDominance, score);
+            maxDominance = Math.max(maxDominance, score);
+        }
 
         double range = maxDominance - minDominance;
+        List<ItemCandidate> candidates = matrix.getCandidates();
 
-        for (int i = 0; i < candidates.size(); i++) {
-            double rawScore = dominanceScores.get(i);
-            double normalizedScore = (range > 0) ? ((rawScore - minDominance) / range) : 0.5;
-
-            candidates.get(i).setTodimScore(normalizedScore);
+        // Los scores normalizados se escriben sobre el mismo buffer de dominancia
+        for (int i = 0; i < rows; i++) {
+            dominanceScores[i] = (range > 0) ? ((dominanceScores[i] - minDominance) / range) : 0.5;
 
             log.debug("Item {}: TODIM score = {}",
-                    candidates.get(i).getItemName(), normalizedScore);
+                    candidates.get(i).getItemName(), dominanceScores[i]);
         }
 
         log.info("TODIM algorithm completed");
 
-        return candidates;
+        return dominanceScores;
     }
 
     /**
-     * Normalización min-max de la matriz
+     * Normalización min-max de la matriz (mismo layout por columnas que DecisionMatrix)
      * Formula: normalized = (value - min) / (max - min)
      */
-    private Map<String, double[]> normalizeMatrixMinMax(List<ItemCandidate> candidates) {
-        Map<String, double[]> normalizedMatrix = new HashMap<>();
+    private double[] normalizeMatrixMinMax(DecisionMatrix matrix) {
+        int rows = matrix.getRows();
+        double[] values = matrix.getValues();
+        double[] normalized = new double[values.length];
 
-        for (ItemCandidate.Criterion criterion : ItemCandidate.Criterion.values()) {
-            String key = criterion.getKey();
-            double[] values = new double[candidates.size()];
+        for (int c = 0; c < DecisionMatrix.CRITERIA_COUNT; c++) {
+            int offset = matrix.columnOffset(c);
 
             // Encontrar min y max para este criterio
             double min = Double.MAX_VALUE;
             double max = Double.MIN_VALUE;
 
-            for (int i = 0; i < candidates.size(); i++) {
-                double value = candidates.get(i).getCriteria().getOrDefault(key, 0.0);
-                values[i] = value;
+            for (int i = 0; i < rows; i++) {
+                double value = values[offset + i];
                 min = Math.min(min, value);
                 max = Math.max(max, value);
             }
 
             // Normalizar valores
             double range = max - min;
-            double[] normalizedValues = new double[candidates.size()];
 
-            for (int i = 0; i < values.length; i++) {
-                normalizedValues[i] = (range > 0) ? ((values[i] - min) / range) : 0.5;
+            for (int i = 0; i < rows; i++) {
+                normalized[offset + i] = (range > 0) ? ((values[offset + i] - min) / range) : 0.5;
             }
-
-            normalizedMatrix.put(key, normalizedValues);
         }
 
-        return normalizedMatrix;
+        return normalized;
     }
 
     /**
-     * Encuentra el criterio de referencia (el de mayor peso)
+     * Calcula la dominancia global de las alternativas [from, to) frente a todas las demás
+     * Formula TODIM con aversión a pérdidas
+     *
+     * Para cada criterio recorre la columna completa (memoria contigua, sin llamadas ni mapas) y
+     * acumula la dominancia de cada par (i, j) en pairDominance[j]. Así el bucle interno puede
+     * vectorizarse y el orden de las sumas es el mismo que calculando par a par.
      */
-    private String findReferenceCriterion(WeightProfile weights) {
-        String referenceCriterion = ItemCandidate.Criterion.values()[0].getKey();
-        double maxWeight = 0.0;
+    private static void computeDominanceRows(
+            int from, int to, int rows,
+            double[] normalized,
+            double[] relativeWeights,
+            double[] dominanceScores) {
+
+        double[] pairDominance = new double[rows];
 
-        for (ItemCandidate.Criterion criterion : ItemCandidate.Criterion.values()) {
-            String key = criterion.getKey();
-            double weight = weights.getWeight(key);
+        for (int i = from; i < to; i++) {
+            Arrays.fill(pairDominance, 0.0);
 
-            if (weight > maxWeight) {
-                maxWeight = weight;
-                referenceCriterion = key;
+            for (int c = 0; c < relativeWeights.length; c++) {
+                int offset = c * rows;
+                double value = normalized[offset + i];
+                double relativeWeight = relativeWeights[c];
+
+                for (int j = 0; j < rows; j++) {
+                    // Diferencia entre las alternativas (i == j aporta 0)
+                    double difference = value - normalized[offset + j];
+                    double phi = Math.sqrt(relativeWeight * Math.abs(difference));
+
+                    // Ganancia: +phi, pérdida: -lambda * phi
+                    pairDominance[j] += (difference > 0) ? phi : -LOSS_AVERSION_LAMBDA * phi;
+                }
             }
-        }
 
-        return referenceCriterion;
+            double totalDominance = 0.0;
+            for (int j = 0; j < rows; j++) {
+                totalDominance += pairDominance[j];
+            }
+
+            dominanceScores[i] = totalDominance;
+        }
     }
 
     /**
-     * Calcula la dominancia entre dos alternativas (i vs j)
-     * Formula TODIM con aversión a pérdidas
+     * Tarea fork-join que divide el rango de filas hasta llegar a bloques de ROWS_PER_TASK
+     * Cada bloque escribe en su propia porción de dominanceScores
      */
-    private double calculatePairwiseDominance(
-            int i, int j,
-            Map<String, double[]> normalizedMatrix,
-            WeightProfile weights,
-            double referenceWeight) {
-
-        double dominance = 0.0;
-
-        // Sumar dominancia para cada criterio
-        for (ItemCandidate.Criterion criterion : ItemCandidate.Criterion.values()) {
-            String key = criterion.getKey();
-            double[] values = normalizedMatrix.get(key);
-
-            double valueI = values[i];
-            double valueJ = values[j];
-            double weight = weights.getWeight(key);
-
-            // Peso relativo del criterio
-            double relativeWeight = weight / referenceWeight;
-
-            // Diferencia entre las alternativas
-            double difference = valueI - valueJ;
-
-            // Aplicar función de dominancia con aversión a pérdidas
-            double phi;
-
-            if (difference > 0) {
-                // Ganancia: phi = sqrt(relativeWeight * difference)
-                phi = Math.sqrt(relativeWeight * difference);
-            } else if (difference < 0) {
-                // Pérdida: phi = -lambda * sqrt(relativeWeight * |difference|)
-                phi = -LOSS_AVERSION_LAMBDA * Math.sqrt(relativeWeight * Math.abs(difference));
-            } else {
-                // Sin diferencia
-                phi = 0.0;
+    private static final class DominanceTask extends RecursiveAction {
+
+        private final int from;
+        private final int to;
+        private final int rows;
+        private final double[] normalized;
+        private final double[] relativeWeights;
+        private final double[] dominanceScores;
+
+        private DominanceTask(int from, int to, int rows,
+                              double[] normalized, double[] relativeWeights, double[] dominanceScores) {
+            this.from = from;
+            this.to = to;
+            this.rows = rows;
+            this.normalized = normalized;
+            this.relativeWeights = relativeWeights;
+            this.dominanceScores = dominanceScores;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= ROWS_PER_TASK) {
+                computeDominanceRows(from, to, rows, normalized, relativeWeights, dominanceScores);
+                return;
             }
 
-            dominance += phi;
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                    new DominanceTask(from, middle, rows, normalized, relativeWeights, dominanceScores),
+                    new DominanceTask(middle, to, rows, normalized, relativeWeights, dominanceScores));
         }
-
-        return dominance;
     }
 }
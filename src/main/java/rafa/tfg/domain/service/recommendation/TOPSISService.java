@@ -2,12 +2,11 @@ package rafa.tfg.domain.service.recommendation;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import rafa.tfg.domain.model.recommendation.DecisionMatrix;
 import rafa.tfg.domain.model.recommendation.ItemCandidate;
 import rafa.tfg.domain.model.recommendation.WeightProfile;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Implementación del algoritmo TOPSIS (Technique for Order Preference by Similarity to Ideal Solution)
@@ -17,166 +16,84 @@ import java.util.Map;
 public class TOPSISService {
 
     /**
-     * Aplica el algoritmo TOPSIS a los candidatos
+     * Aplica el algoritmo TOPSIS a los candidatos de la matriz de decisión
+     * La matriz no se modifica; los scores se devuelven en un array propio
      *
-     * @param candidates Lista de candidatos con sus criterios
-     * @param weights    Perfil de pesos para cada criterio
-     * @return Lista de candidatos con scores TOPSIS calculados
+     * @param matrix  Matriz de decisión con los criterios de cada candidato
+     * @param weights Perfil de pesos para cada criterio
+     * @return Scores TOPSIS en el mismo orden que matrix.getCandidates()
      */
-    public List<ItemCandidate> applyTOPSIS(List<ItemCandidate> candidates, WeightProfile weights) {
-        log.info("Applying TOPSIS algorithm to {} candidates", candidates.size());
+    public double[] applyTOPSIS(DecisionMatrix matrix, WeightProfile weights) {
+        log.info("Applying TOPSIS algorithm to {} candidates", matrix.getRows());
 
-        if (candidates.isEmpty()) {
-            return candidates;
+        if (matrix.isEmpty()) {
+            return new double[0];
         }
 
-        // Paso 1: Normalizar la matriz (normalización vectorial)
-        normalizeMatrix(candidates);
+        int rows = matrix.getRows();
+        double[] values = matrix.getValues();
 
-        // Paso 2: Aplicar pesos a la matriz normalizada
-        applyWeights(candidates, weights);
+        // Distancias acumuladas (al cuadrado) de cada alternativa a PIS y NIS
+        double[] distanceToPositive = new double[rows];
+        double[] distanceToNegative = new double[rows];
 
-        // Paso 3: Determinar soluciones ideales (PIS y NIS)
-        Map<String, Double> idealPositive = calculateIdealPositiveSolution(candidates);
-        Map<String, Double> idealNegative = calculateIdealNegativeSolution(candidates);
+        for (int c = 0; c < DecisionMatrix.CRITERIA_COUNT; c++) {
+            int offset = matrix.columnOffset(c);
 
-        // Paso 4 y 5: Calcular distancias y scores de proximidad
-        for (ItemCandidate candidate : candidates) {
-            double distanceToPositive = calculateEuclideanDistance(candidate, idealPositive);
-            double distanceToNegative = calculateEuclideanDistance(candidate, idealNegative);
-
-            // Score de proximidad relativa
-            double topsisScore = distanceToNegative / (distanceToPositive + distanceToNegative);
-
-            candidate.setTopsisScore(topsisScore);
-
-            log.debug("Item {}: TOPSIS score = {}", candidate.getItemName(), topsisScore);
-        }
-
-        log.info("TOPSIS algorithm completed");
-
-        return candidates;
-    }
-
-    /**
-     * Paso 1: Normalización vectorial de la matriz
-     * Formula: r_ij = x_ij / sqrt(sum(x_ij^2))
-     */
-    private void normalizeMatrix(List<ItemCandidate> candidates) {
-        // Calcular la raíz de la suma de cuadrados para cada criterio
-        Map<String, Double> sumOfSquares = new HashMap<>();
-
-        for (ItemCandidate.Criterion criterion : ItemCandidate.Criterion.values()) {
-            String key = criterion.getKey();
+            // Paso 1: Normalización vectorial, r_ij = x_ij / sqrt(sum(x_ij^2))
             double sum = 0.0;
-
-            for (ItemCandidate candidate : candidates) {
-                double value = candidate.getCriteria().getOrDefault(key, 0.0);
+            for (int i = 0; i < rows; i++) {
+                double value = values[offset + i];
                 sum += value * value;
             }
+            double denominator = Math.sqrt(sum);
 
-            sumOfSquares.put(key, Math.sqrt(sum));
-        }
-
-        // Normalizar cada valor
-        for (ItemCandidate candidate : candidates) {
-            Map<String, Double> normalizedCriteria = new HashMap<>();
-
-            for (ItemCandidate.Criterion criterion : ItemCandidate.Criterion.values()) {
-                String key = criterion.getKey();
-                double value = candidate.getCriteria().getOrDefault(key, 0.0);
-                double denominator = sumOfSquares.get(key);
+            // Paso 2: Factor de ponderación, v_ij = w_j * r_ij
+            double weight = weights.weight(c);
 
-                double normalized = (denominator > 0) ? (value / denominator) : 0.0;
-                normalizedCriteria.put(key, normalized);
+            // Paso 3: Soluciones ideales positiva (máximo) y negativa (mínimo)
+            // Todos los criterios son de beneficio (mayor es mejor)
+            double idealPositive = Double.NEGATIVE_INFINITY;
+            double idealNegative = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < rows; i++) {
+                double weighted = weightedValue(values[offset + i], denominator, weight);
+                idealPositive = Math.max(idealPositive, weighted);
+                idealNegative = Math.min(idealNegative, weighted);
             }
 
-            // Guardar valores normalizados (los usaremos en el cálculo ponderado)
-            candidate.getCriteria().putAll(normalizedCriteria);
-        }
-    }
-
-    /**
-     * Paso 2: Aplicar pesos a la matriz normalizada
-     * Formula: v_ij = w_j * r_ij
-     */
-    private void applyWeights(List<ItemCandidate> candidates, WeightProfile weights) {
-        for (ItemCandidate candidate : candidates) {
-            Map<String, Double> weightedCriteria = new HashMap<>();
-
-            for (ItemCandidate.Criterion criterion : ItemCandidate.Criterion.values()) {
-                String key = criterion.getKey();
-                double normalized = candidate.getCriteria().getOrDefault(key, 0.0);
-                double weight = weights.getWeight(key);
-
-                double weighted = normalized * weight;
-                weightedCriteria.put(key, weighted);
+            // Paso 4: Acumular distancias euclidianas, d = sqrt(sum((v_ij - v_j*)^2))
+            for (int i = 0; i < rows; i++) {
+                double weighted = weightedValue(values[offset + i], denominator, weight);
+                double differencePositive = weighted - idealPositive;
+                double differenceNegative = weighted - idealNegative;
+                distanceToPositive[i] += differencePositive * differencePositive;
+                distanceToNegative[i] += differenceNegative * differenceNegative;
             }
-
-            candidate.getCriteria().putAll(weightedCriteria);
         }
-    }
 
-    /**
-     * Paso 3a: Calcular solución ideal positiva (PIS)
-     * PIS: Máximo valor para criterios de beneficio
-     */
-    private Map<String, Double> calculateIdealPositiveSolution(List<ItemCandidate> candidates) {
-        Map<String, Double> idealPositive = new HashMap<>();
+        // Paso 5: Score de proximidad relativa (se reutiliza el buffer de distancias positivas)
+        double[] topsisScores = distanceToPositive;
+        List<ItemCandidate> candidates = matrix.getCandidates();
 
-        for (ItemCandidate.Criterion criterion : ItemCandidate.Criterion.values()) {
-            String key = criterion.getKey();
+        for (int i = 0; i < rows; i++) {
+            double dPositive = Math.sqrt(distanceToPositive[i]);
+            double dNegative = Math.sqrt(distanceToNegative[i]);
 
-            // Todos los criterios son de beneficio (mayor es mejor)
-            double maxValue = candidates.stream()
-                    .mapToDouble(c -> c.getCriteria().getOrDefault(key, 0.0))
-                    .max()
-                    .orElse(0.0);
+            topsisScores[i] = dNegative / (dPositive + dNegative);
 
-            idealPositive.put(key, maxValue);
+            log.debug("Item {}: TOPSIS score = {}", candidates.get(i).getItemName(), topsisScores[i]);
         }
 
-        return idealPositive;
-    }
-
-    /**
-     * Paso 3b: Calcular solución ideal negativa (NIS)
-     * NIS: Mínimo valor para criterios de beneficio
-     */
-    private Map<String, Double> calculateIdealNegativeSolution(List<ItemCandidate> candidates) {
-        Map<String, Double> idealNegative = new HashMap<>();
-
-        for (ItemCandidate.Criterion criterion : ItemCandidate.Criterion.values()) {
-            String key = criterion.getKey();
-
-            // Todos los criterios son de beneficio (menor es peor)
-            double minValue = candidates.stream()
-                    .mapToDouble(c -> c.getCriteria().getOrDefault(key, 0.0))
-                    .min()
-                    .orElse(0.0);
-
-            idealNegative.put(key, minValue);
-        }
+        log.info("TOPSIS algorithm completed");
 
-        return idealNegative;
+        return topsisScores;
     }
 
     /**
-     * Paso 4: Calcular distancia euclidiana a una solución ideal
-     * Formula: d = sqrt(sum((v_ij - v_j*)^2))
+     * Valor normalizado y ponderado de una celda
      */
-    private double calculateEuclideanDistance(ItemCandidate candidate, Map<String, Double> idealSolution) {
-        double sumOfSquares = 0.0;
-
-        for (ItemCandidate.Criterion criterion : ItemCandidate.Criterion.values()) {
-            String key = criterion.getKey();
-            double candidateValue = candidate.getCriteria().getOrDefault(key, 0.0);
-            double idealValue = idealSolution.getOrDefault(key, 0.0);
-
-            double difference = candidateValue - idealValue;
-            sumOfSquares += difference * difference;
-        }
-
-        return Math.sqrt(sumOfSquares);
+    private static double weightedValue(double value, double denominator, double weight) {
+        double normalized = (denominator > 0) ? (value / denominator) : 0.0;
+        return normalized * weight;
     }
 }
@@ -0,0 +1,65 @@
+package rafa.tfg.domain.service.recommendation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Modelo de coste de TODIM para decidir si cabe en el plazo de una petición
+ * TODIM es O(n²): se estima el tiempo por par de alternativas con una media móvil
+ * exponencial (EWMA) de las ejecuciones observadas
+ */
+@Service
+@Slf4j
+public class TodimCostModel {
+
+    private final double smoothing;
+
+    // Nanosegundos estimados por par de alternativas (n²)
+    private volatile double nanosPerPair;
+
+    public TodimCostModel(
+            @Value("${recommendation.deadline.todim-initial-nanos-per-pair:100}") double initialNanosPerPair,
+            @Value("${recommendation.deadline.ewma-alpha:0.2}") double smoothing) {
+        if (smoothing <= 0.0 || smoothing > 1.0) {
+            throw new IllegalArgumentException("EWMA alpha must be in (0, 1]: " + smoothing);
+        }
+        this.nanosPerPair = initialNanosPerPair;
+        this.smoothing = smoothing;
+    }
+
+    /**
+     * Registra una ejecución de TODIM sobre rows alternativas
+     */
+    public void record(int rows, long elapsedNanos) {
+        if (rows < 2) {
+            return;
+        }
+
+        double observed = (double) elapsedNanos / ((double) rows * rows);
+
+        // Las carreras entre hilos solo pierden alguna muestra, no corrompen la media
+        nanosPerPair = nanosPerPair + smoothing * (observed - nanosPerPair);
+    }
+
+    /**
+     * Tiempo estimado de TODIM para rows alternativas
+     */
+    public long estimateNanos(int rows) {
+        return (long) (nanosPerPair * rows * rows);
+    }
+
+    /**
+     * Máximo número de alternativas que TODIM puede evaluar dentro del presupuesto
+     */
+    public int maxRowsWithin(long budgetNanos) {
+        if (budgetNanos <= 0) {
+            return 0;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, (long) Math.sqrt(budgetNanos / nanosPerPair));
+    }
+
+    public double getNanosPerPair() {
+        return nanosPerPair;
+    }
+}
@@ -3,27 +3,33 @@ package rafa.tfg.infrastructure.batch.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
 import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.item.ItemProcessor;
-import org.springframework.batch.item.ItemReader;
-import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.database.JdbcBatchItemWriter;
+import org.springframework.batch.item.database.builder.JdbcBatchItemWriterBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.namedparam.BeanPropertySqlParameterSource;
 import org.springframework.transaction.PlatformTransactionManager;
 import rafa.tfg.domain.model.Champion;
-import rafa.tfg.domain.service.ChampionService;
-import rafa.tfg.infrastructure.batch.dto.ChampionDataWrapper;
+import rafa.tfg.domain.service.recommendation.ChampionThreatIndexService;
+import rafa.tfg.domain.service.recommendation.RecommendationCacheService;
 import rafa.tfg.infrastructure.batch.dto.ChampionJsonDTO;
+import rafa.tfg.infrastructure.batch.listener.InsertRateListener;
+import rafa.tfg.infrastructure.batch.reader.ChampionJsonItemReader;
+import rafa.tfg.infrastructure.persistence.mapper.ChampionMapper;
 
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import javax.sql.DataSource;
 
 /**
  * Configuración de Spring Batch para cargar Champions desde JSON
@@ -33,35 +39,37 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class ChampionBatchConfig {
 
-    private final ChampionService championService;
+    private static final String MERGE_CHAMPION = """
+            MERGE INTO champions (
+                    champion_id, champion_key, name, title, blurb, tags, partype, attack, defense, magic,
+                    difficulty, hp, hp_per_level, mp, mp_per_level, move_speed, armor, armor_per_level,
+                    spell_block, spell_block_per_level, attack_range, hp_regen, hp_regen_per_level, mp_regen,
+                    mp_regen_per_level, crit, crit_per_level, attack_damage, attack_damage_per_level,
+                    attack_speed, attack_speed_per_level)
+            KEY (champion_id)
+            VALUES (
+                    :championId, :key, :name, :title, :blurb, :tags, :partype, :attack, :defense, :magic,
+                    :difficulty, :hp, :hpPerLevel, :mp, :mpPerLevel, :moveSpeed, :armor, :armorPerLevel,
+                    :spellBlock, :spellBlockPerLevel, :attackRange, :hpRegen, :hpRegenPerLevel, :mpRegen,
+                    :mpRegenPerLevel, :crit, :critPerLevel, :attackDamage, :attackDamagePerLevel,
+                    :attackSpeed, :attackSpeedPerLevel)
+            """;
+
+    private final ChampionThreatIndexService championThreatIndexService;
+    private final RecommendationCacheService recommendationCacheService;
     private final ObjectMapper objectMapper;
+    private final ChampionMapper championMapper;
+    private final DataSource dataSource;
+    private final InsertRateListener insertRateListener;
 
+    /**
+     * Lector en streaming de champion.json; con ámbito de step para que cada ejecución
+     * del job empiece desde el principio (o desde la posición guardada si se reinicia)
+     */
     @Bean
-    public ItemReader<ChampionJsonDTO> championReader() {
-        return new ItemReader<>() {
-            private List<ChampionJsonDTO> champions;
-            private int currentIndex = 0;
-
-            @Override
-            public ChampionJsonDTO read() throws IOException {
-                if (champions == null) {
-                    loadChampions();
-                }
-
-                if (currentIndex < champions.size()) {
-                    return champions.get(currentIndex++);
-                }
-
-                return null; // End of data
-            }
-
-            private void loadChampions() throws IOException {
-                ClassPathResource resource = new ClassPathResource("data/champion.json");
-                ChampionDataWrapper wrapper = objectMapper.readValue(resource.getInputStream(), ChampionDataWrapper.class);
-                champions = new ArrayList<>(wrapper.getData().values());
-                log.info("Loaded {} champions from JSON", champions.size());
-            }
-        };
+    @StepScope
+    public ChampionJsonItemReader championReader() {
+        return new ChampionJsonItemReader(new ClassPathResource("data/champion.json"), objectMapper);
     }
 
     @Bean
@@ -107,29 +115,53 @@ public class ChampionBatchConfig {
         };
     }
 
+    /**
+     * Inserta o actualiza cada chunk en un único batch JDBC (MERGE por clave natural, de modo que
+     * volver a ejecutar la importación no duplica filas); las columnas se obtienen de la entidad
+     * JPA (mismas conversiones que el mapper de persistencia)
+     */
+    @Bean
+    public JdbcBatchItemWriter<Champion> championWriter() {
+        return new JdbcBatchItemWriterBuilder<Champion>()
+                .dataSource(dataSource)
+                .sql(MERGE_CHAMPION)
+                .itemSqlParameterSourceProvider(champion -> new BeanPropertySqlParameterSource(championMapper.toEntity(champion)))
+                .build();
+    }
+
+    /**
+     * Reconstruye el índice de amenazas de campeones y vacía la caché de recomendaciones
+     * cuando el job termina correctamente
+     */
     @Bean
-    public ItemWriter<Champion> championWriter() {
-        return champions -> {
-            for (Champion champion : champions) {
-                championService.create(champion);
-                log.debug("Saved champion: {}", champion.getName());
+    public JobExecutionListener championCatalogRefreshListener() {
+        return new JobExecutionListener() {
+            @Override
+            public void afterJob(JobExecution jobExecution) {
+                if (jobExecution.getStatus() == BatchStatus.COMPLETED) {
+                    championThreatIndexService.rebuild();
+                    recommendationCacheService.invalidateAll();
+                }
             }
         };
     }
 
     @Bean
-    public Step championStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) {
+    public Step championStep(JobRepository jobRepository, PlatformTransactionManager transactionManager,
+                             @Value("${batch.import.champions.chunk-size:100}") int chunkSize) {
         return new StepBuilder("championStep", jobRepository)
-                .<ChampionJsonDTO, Champion>chunk(10, transactionManager)
+                .<ChampionJsonDTO, Champion>chunk(chunkSize, transactionManager)
                 .reader(championReader())
                 .processor(championProcessor())
                 .writer(championWriter())
+                .listener(insertRateListener)
                 .build();
     }
 
     @Bean
     public Job importChampionJob(JobRepository jobRepository, Step championStep) {
         return new JobBuilder("importChampionJob", jobRepository)
+                .listener(championCatalogRefreshListener())
                 .start(championStep)
                 .build();
     }
@@ -0,0 +1,71 @@
+package rafa.tfg.infrastructure.batch.config;
+
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.job.builder.FlowBuilder;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.job.flow.Flow;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+/**
+ * Configuración de Spring Batch para cargar todos los datos en un único job
+ * Campeones y hechizos, items y runas no dependen entre sí, así que se ejecutan como flujos
+ * paralelos (split); los hechizos van después de los campeones porque el refresco posterior
+ * recalcula los perfiles de escalado a partir de ambos.
+ */
+@Configuration
+public class ImportAllBatchConfig {
+
+    // Un hilo por flujo del split
+    private static final int SPLIT_CONCURRENCY = 3;
+
+    /**
+     * Job compuesto que reutiliza los steps de cada importación
+     * Los listeners de refresco de items y hechizos se ejecutan una sola vez al terminar el job
+     * (el de hechizos ya reconstruye el índice de amenazas que refresca el de campeones)
+     */
+    @Bean
+    public Job importAllJob(JobRepository jobRepository,
+                            Step championStep, Step spellStep, Step itemStep, Step runeStep,
+                            JobExecutionListener itemCatalogRefreshListener,
+                            JobExecutionListener spellCatalogRefreshListener) {
+        // Paso 1: Un flujo por cadena de dependencias
+        Flow championSpellFlow = new FlowBuilder<Flow>("championSpellFlow")
+                .start(championStep)
+                .next(spellStep)
+                .build();
+        Flow itemFlow = new FlowBuilder<Flow>("itemFlow")
+                .start(itemStep)
+                .build();
+        Flow runeFlow = new FlowBuilder<Flow>("runeFlow")
+                .start(runeStep)
+                .build();
+
+        // Paso 2: Ejecutar los flujos en paralelo
+        Flow importAllFlow = new FlowBuilder<Flow>("importAllFlow")
+                .split(importAllTaskExecutor())
+                .add(championSpellFlow, itemFlow, runeFlow)
+                .build();
+
+        return new JobBuilder("importAllJob", jobRepository)
+                .listener(itemCatalogRefreshListener)
+                .listener(spellCatalogRefreshListener)
+                .start(importAllFlow)
+                .end()
+                .build();
+    }
+
+    /**
+     * Executor propio del split; no se expone como bean para no sustituir
+     * el executor de la aplicación que configura Spring Boot
+     */
+    private SimpleAsyncTaskExecutor importAllTaskExecutor() {
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("import-all-");
+        taskExecutor.setConcurrencyLimit(SPLIT_CONCURRENCY);
+        return taskExecutor;
+    }
+}
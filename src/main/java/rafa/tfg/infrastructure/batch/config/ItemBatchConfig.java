@@ -3,28 +3,34 @@ package rafa.tfg.infrastructure.batch.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
 import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
-import org.springframework.batch.item.ItemProcessor;
-import org.springframework.batch.item.ItemReader;
-import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.database.JdbcBatchItemWriter;
+import org.springframework.batch.item.database.builder.JdbcBatchItemWriterBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.namedparam.BeanPropertySqlParameterSource;
 import org.springframework.transaction.PlatformTransactionManager;
 import rafa.tfg.domain.model.Item;
-import rafa.tfg.domain.service.ItemService;
-import rafa.tfg.infrastructure.batch.dto.ItemDataWrapper;
+import rafa.tfg.domain.service.recommendation.ItemCatalogService;
+import rafa.tfg.domain.service.recommendation.RecommendationCacheService;
 import rafa.tfg.infrastructure.batch.dto.ItemJsonDTO;
+import rafa.tfg.infrastructure.batch.listener.InsertRateListener;
+import rafa.tfg.infrastructure.batch.processor.ItemJsonProcessor;
+import rafa.tfg.infrastructure.batch.reader.ItemJsonItemReader;
+import rafa.tfg.infrastructure.persistence.mapper.ItemMapper;
 
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import javax.sql.DataSource;
 import java.util.Map;
-import java.util.Optional;
 
 /**
  * Configuración de Spring Batch para cargar Items desde JSON
@@ -34,120 +40,96 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class ItemBatchConfig {
 
-    private final ItemService itemService;
+    private static final String MERGE_ITEM = """
+            MERGE INTO items (
+                    item_id, name, description, colloq, plaintext, group_name, gold_base, gold_total,
+                    gold_sell, purchasable, consumed, stacks, depth, in_store, hide_from_all,
+                    required_champion, required_ally, from_items, into_items, flat_hp_pool_mod,
+                    flat_mp_pool_mod, percent_hp_pool_mod, percent_mp_pool_mod, flat_hp_regen_mod,
+                    percent_hp_regen_mod, flat_mp_regen_mod, percent_mp_regen_mod, flat_armor_mod,
+                    percent_armor_mod, flat_attack_speed_mod, percent_attack_speed_mod, flat_crit_chance_mod,
+                    flat_physical_damage_mod, flat_magic_damage_mod, percent_life_steal_mod,
+                    percent_spell_vamp_mod, flat_movement_speed_mod, flat_spell_block_mod)
+            KEY (item_id)
+            VALUES (
+                    :itemId, :name, :description, :colloq, :plaintext, :group, :goldBase, :goldTotal,
+                    :goldSell, :purchasable, :consumed, :stacks, :depth, :inStore, :hideFromAll,
+                    :requiredChampion, :requiredAlly, :from, :into, :flatHPPoolMod, :flatMPPoolMod,
+                    :percentHPPoolMod, :percentMPPoolMod, :flatHPRegenMod, :percentHPRegenMod,
+                    :flatMPRegenMod, :percentMPRegenMod, :flatArmorMod, :percentArmorMod,
+                    :flatAttackSpeedMod, :percentAttackSpeedMod, :flatCritChanceMod, :flatPhysicalDamageMod,
+                    :flatMagicDamageMod, :percentLifeStealMod, :percentSpellVampMod, :flatMovementSpeedMod,
+                    :flatSpellBlockMod)
+            """;
+
+    private final ItemCatalogService itemCatalogService;
+    private final RecommendationCacheService recommendationCacheService;
     private final ObjectMapper objectMapper;
+    private final ItemMapper itemMapper;
+    private final DataSource dataSource;
+    private final InsertRateListener insertRateListener;
 
+    /**
+     * Lector en streaming de item.json; con ámbito de step para que cada ejecución
+     * del job empiece desde el principio (o desde la posición guardada si se reinicia)
+     */
     @Bean
-    public ItemReader<Map.Entry<String, ItemJsonDTO>> itemReader() {
-        return new ItemReader<>() {
-            private List<Map.Entry<String, ItemJsonDTO>> items;
-            private int currentIndex = 0;
-
-            @Override
-            public Map.Entry<String, ItemJsonDTO> read() throws IOException {
-                if (items == null) {
-                    loadItems();
-                }
-
-                if (currentIndex < items.size()) {
-                    return items.get(currentIndex++);
-                }
-
-                return null; // End of data
-            }
-
-            private void loadItems() throws IOException {
-                ClassPathResource resource = new ClassPathResource("data/item.json");
-                ItemDataWrapper wrapper = objectMapper.readValue(resource.getInputStream(), ItemDataWrapper.class);
-                items = new ArrayList<>(wrapper.getData().entrySet());
-                log.info("Loaded {} items from JSON", items.size());
-            }
-        };
+    @StepScope
+    public ItemJsonItemReader itemReader() {
+        return new ItemJsonItemReader(new ClassPathResource("data/item.json"), objectMapper);
     }
 
     @Bean
-    public ItemProcessor<Map.Entry<String, ItemJsonDTO>, Item> itemProcessor() {
-        return entry -> {
-            String itemId = entry.getKey();
-            ItemJsonDTO itemDTO = entry.getValue();
-            log.debug("Processing item: {}", itemDTO.getName());
-
-            if (itemDTO.getMaps() == null || !Boolean.TRUE.equals(itemDTO.getMaps().get("11"))) {
-                // Si maps es null o el mapa 11 no es true, saltamos este item
-                return null;
-            }
+    public ItemJsonProcessor itemProcessor() {
+        return new ItemJsonProcessor();
+    }
 
-            return Item.builder()
-                    .itemId(itemId)
-                    .name(itemDTO.getName())
-                    .description(itemDTO.getDescription())
-                    .colloq(itemDTO.getColloq())
-                    .plaintext(itemDTO.getPlaintext())
-                    .group(itemDTO.getGroup())
-                    // Gold info
-                    .goldBase(itemDTO.getGold() != null ? itemDTO.getGold().getBase() : null)
-                    .goldTotal(itemDTO.getGold() != null ? itemDTO.getGold().getTotal() : null)
-                    .goldSell(itemDTO.getGold() != null ? itemDTO.getGold().getSell() : null)
-                    .purchasable(itemDTO.getGold() != null ? itemDTO.getGold().getPurchasable() : null)
-                    // Item properties
-                    .consumed(itemDTO.getConsumed())
-                    .stacks(itemDTO.getStacks())
-                    .depth(itemDTO.getDepth())
-                    .inStore(Optional.ofNullable(itemDTO.getInStore())
-                            .orElse(true))
-                    .hideFromAll(itemDTO.getHideFromAll())
-                    .requiredChampion(itemDTO.getRequiredChampion())
-                    .requiredAlly(itemDTO.getRequiredAlly())
-                    // Build path
-                    .from(itemDTO.getFrom())
-                    .into(itemDTO.getInto())
-                    // Stats - Si es null, guardar 0.0
-                    .flatHPPoolMod(itemDTO.getStats() != null && itemDTO.getStats().getFlatHPPoolMod() != null ? itemDTO.getStats().getFlatHPPoolMod() : 0.0)
-                    .flatMPPoolMod(itemDTO.getStats() != null && itemDTO.getStats().getFlatMPPoolMod() != null ? itemDTO.getStats().getFlatMPPoolMod() : 0.0)
-                    .percentHPPoolMod(itemDTO.getStats() != null && itemDTO.getStats().getPercentHPPoolMod() != null ? itemDTO.getStats().getPercentHPPoolMod() : 0.0)
-                    .percentMPPoolMod(itemDTO.getStats() != null && itemDTO.getStats().getPercentMPPoolMod() != null ? itemDTO.getStats().getPercentMPPoolMod() : 0.0)
-                    .flatHPRegenMod(itemDTO.getStats() != null && itemDTO.getStats().getFlatHPRegenMod() != null ? itemDTO.getStats().getFlatHPRegenMod() : 0.0)
-                    .percentHPRegenMod(itemDTO.getStats() != null && itemDTO.getStats().getPercentHPRegenMod() != null ? itemDTO.getStats().getPercentHPRegenMod() : 0.0)
-                    .flatMPRegenMod(itemDTO.getStats() != null && itemDTO.getStats().getFlatMPRegenMod() != null ? itemDTO.getStats().getFlatMPRegenMod() : 0.0)
-                    .percentMPRegenMod(itemDTO.getStats() != null && itemDTO.getStats().getPercentMPRegenMod() != null ? itemDTO.getStats().getPercentMPRegenMod() : 0.0)
-                    .flatArmorMod(itemDTO.getStats() != null && itemDTO.getStats().getFlatArmorMod() != null ? itemDTO.getStats().getFlatArmorMod() : 0.0)
-                    .percentArmorMod(itemDTO.getStats() != null && itemDTO.getStats().getPercentArmorMod() != null ? itemDTO.getStats().getPercentArmorMod() : 0.0)
-                    .flatAttackSpeedMod(itemDTO.getStats() != null && itemDTO.getStats().getFlatAttackSpeedMod() != null ? itemDTO.getStats().getFlatAttackSpeedMod() : 0.0)
-                    .percentAttackSpeedMod(itemDTO.getStats() != null && itemDTO.getStats().getPercentAttackSpeedMod() != null ? itemDTO.getStats().getPercentAttackSpeedMod() : 0.0)
-                    .flatCritChanceMod(itemDTO.getStats() != null && itemDTO.getStats().getFlatCritChanceMod() != null ? itemDTO.getStats().getFlatCritChanceMod() : 0.0)
-                    .flatPhysicalDamageMod(itemDTO.getStats() != null && itemDTO.getStats().getFlatPhysicalDamageMod() != null ? itemDTO.getStats().getFlatPhysicalDamageMod() : 0.0)
-                    .flatMagicDamageMod(itemDTO.getStats() != null && itemDTO.getStats().getFlatMagicDamageMod() != null ? itemDTO.getStats().getFlatMagicDamageMod() : 0.0)
-                    .percentLifeStealMod(itemDTO.getStats() != null && itemDTO.getStats().getPercentLifeStealMod() != null ? itemDTO.getStats().getPercentLifeStealMod() : 0.0)
-                    .percentSpellVampMod(itemDTO.getStats() != null && itemDTO.getStats().getPercentSpellVampMod() != null ? itemDTO.getStats().getPercentSpellVampMod() : 0.0)
-                    .flatMovementSpeedMod(itemDTO.getStats() != null && itemDTO.getStats().getFlatMovementSpeedMod() != null ? itemDTO.getStats().getFlatMovementSpeedMod() : 0.0)
-                    .flatSpellBlockMod(itemDTO.getStats() != null && itemDTO.getStats().getFlatSpellBlockMod() != null ? itemDTO.getStats().getFlatSpellBlockMod() : 0.0)
-                    .build();
-        };
+    /**
+     * Escribe cada chunk en un único batch JDBC con MERGE por item_id; reimportar actualiza
+     * los items existentes en lugar de duplicarlos
+     */
+    @Bean
+    public JdbcBatchItemWriter<Item> itemWriter() {
+        return new JdbcBatchItemWriterBuilder<Item>()
+                .dataSource(dataSource)
+                .sql(MERGE_ITEM)
+                .itemSqlParameterSourceProvider(item -> new BeanPropertySqlParameterSource(itemMapper.toEntity(item)))
+                .build();
     }
 
+    /**
+     * Reconstruye el snapshot del catálogo de items y vacía la caché de recomendaciones
+     * cuando el job termina correctamente
+     */
     @Bean
-    public ItemWriter<Item> itemWriter() {
-        return items -> {
-            for (Item item : items) {
-                itemService.create(item);
-                log.debug("Saved item: {}", item.getName());
+    public JobExecutionListener itemCatalogRefreshListener() {
+        return new JobExecutionListener() {
+            @Override
+            public void afterJob(JobExecution jobExecution) {
+                if (jobExecution.getStatus() == BatchStatus.COMPLETED) {
+                    itemCatalogService.reload();
+                    recommendationCacheService.invalidateAll();
+                }
             }
         };
     }
 
     @Bean
-    public Step itemStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) {
+    public Step itemStep(JobRepository jobRepository, PlatformTransactionManager transactionManager,
+                         @Value("${batch.import.items.chunk-size:100}") int chunkSize) {
         return new StepBuilder("itemStep", jobRepository)
-                .<Map.Entry<String, ItemJsonDTO>, Item>chunk(10, transactionManager)
+                .<Map.Entry<String, ItemJsonDTO>, Item>chunk(chunkSize, transactionManager)
                 .reader(itemReader())
                 .processor(itemProcessor())
                 .writer(itemWriter())
+                .listener(insertRateListener)
                 .build();
     }
 
     @Bean
     public Job importItemJob(JobRepository jobRepository, Step itemStep) {
         return new JobBuilder("importItemJob", jobRepository)
+                .listener(itemCatalogRefreshListener())
                 .start(itemStep)
                 .build();
     }
@@ -1,28 +1,28 @@
 package rafa.tfg.infrastructure.batch.config;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.item.ItemProcessor;
-import org.springframework.batch.item.ItemReader;
-import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.transaction.PlatformTransactionManager;
 import rafa.tfg.domain.model.Rune;
 import rafa.tfg.domain.model.RunePath;
-import rafa.tfg.domain.service.RunePathService;
-import rafa.tfg.domain.service.RuneService;
 import rafa.tfg.infrastructure.batch.dto.RunePathJsonDTO;
+import rafa.tfg.infrastructure.batch.listener.InsertRateListener;
+import rafa.tfg.infrastructure.batch.reader.RunePathJsonItemReader;
+import rafa.tfg.infrastructure.batch.writer.RunePathJdbcItemWriter;
 
-import java.io.IOException;
+import javax.sql.DataSource;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -34,35 +34,18 @@ import java.util.List;
 @RequiredArgsConstructor
 public class RuneBatchConfig {
 
-    private final RunePathService runePathService;
-    private final RuneService runeService;
     private final ObjectMapper objectMapper;
+    private final DataSource dataSource;
+    private final InsertRateListener insertRateListener;
 
+    /**
+     * Lector en streaming de runesReforged.json; con ámbito de step para que cada ejecución
+     * del job empiece desde el principio (o desde la posición guardada si se reinicia)
+     */
     @Bean
-    public ItemReader<RunePathJsonDTO> runePathReader() {
-        return new ItemReader<>() {
-            private List<RunePathJsonDTO> runePaths;
-            private int currentIndex = 0;
-
-            @Override
-            public RunePathJsonDTO read() throws IOException {
-                if (runePaths == null) {
-                    loadRunePaths();
-                }
-
-                if (currentIndex < runePaths.size()) {
-                    return runePaths.get(currentIndex++);
-                }
-
-                return null; // End of data
-            }
-
-            private void loadRunePaths() throws IOException {
-                ClassPathResource resource = new ClassPathResource("data/runesReforged.json");
-                runePaths = objectMapper.readValue(resource.getInputStream(), new TypeReference<List<RunePathJsonDTO>>() {});
-                log.info("Loaded {} rune paths from JSON", runePaths.size());
-            }
-        };
+    @StepScope
+    public RunePathJsonItemReader runePathReader() {
+        return new RunePathJsonItemReader(new ClassPathResource("data/runesReforged.json"), objectMapper);
     }
 
     @Bean
@@ -70,61 +53,52 @@ public class RuneBatchConfig {
         return runePathDTO -> {
             log.debug("Processing rune path: {}", runePathDTO.getName());
 
-            // Create RunePath first
-            RunePath runePath = RunePath.builder()
-                    .pathId(runePathDTO.getId())
-                    .key(runePathDTO.getKey())
-                    .icon(runePathDTO.getIcon())
-                    .name(runePathDTO.getName())
-                    .build();
-
-            // Save RunePath to get ID
-            RunePath savedRunePath = runePathService.create(runePath);
-
-            // Create and save Runes for this path
+            // Las runas se insertan junto a su camino en el writer (necesitan su id generado)
+            List<Rune> runes = new ArrayList<>();
             if (runePathDTO.getSlots() != null) {
                 int slotPosition = 0;
                 for (RunePathJsonDTO.SlotDTO slot : runePathDTO.getSlots()) {
                     if (slot.getRunes() != null) {
                         for (RunePathJsonDTO.RuneJsonDTO runeDTO : slot.getRunes()) {
-                            Rune rune = Rune.builder()
+                            runes.add(Rune.builder()
                                     .runeId(runeDTO.getId())
                                     .key(runeDTO.getKey())
                                     .icon(runeDTO.getIcon())
                                     .name(runeDTO.getName())
                                     .shortDesc(runeDTO.getShortDesc())
                                     .longDesc(runeDTO.getLongDesc())
-                                    .runePathId(savedRunePath.getId())
                                     .slotPosition(slotPosition)
-                                    .build();
-
-                            runeService.create(rune);
-                            log.debug("Saved rune: {}", rune.getName());
+                                    .build());
                         }
                     }
                     slotPosition++;
                 }
             }
 
-            return savedRunePath;
+            return RunePath.builder()
+                    .pathId(runePathDTO.getId())
+                    .key(runePathDTO.getKey())
+                    .icon(runePathDTO.getIcon())
+                    .name(runePathDTO.getName())
+                    .runes(runes)
+                    .build();
         };
     }
 
     @Bean
-    public ItemWriter<RunePath> runePathWriter() {
-        return runePaths -> {
-            // RunePaths and Runes already saved in processor
-            log.info("Completed processing {} rune paths", runePaths.size());
-        };
+    public RunePathJdbcItemWriter runePathWriter() {
+        return new RunePathJdbcItemWriter(dataSource);
     }
 
     @Bean
-    public Step runeStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) {
+    public Step runeStep(JobRepository jobRepository, PlatformTransactionManager transactionManager,
+                         @Value("${batch.import.runes.chunk-size:5}") int chunkSize) {
         return new StepBuilder("runeStep", jobRepository)
-                .<RunePathJsonDTO, RunePath>chunk(5, transactionManager)
+                .<RunePathJsonDTO, RunePath>chunk(chunkSize, transactionManager)
                 .reader(runePathReader())
                 .processor(runePathProcessor())
                 .writer(runePathWriter())
+                .listener(insertRateListener)
                 .build();
     }
 
@@ -1,30 +1,42 @@
 package rafa.tfg.infrastructure.batch.config;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
 import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ExecutionContext;
 import org.springframework.batch.item.ItemProcessor;
-import org.springframework.batch.item.ItemReader;
-import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.database.JdbcBatchItemWriter;
+import org.springframework.batch.item.database.builder.JdbcBatchItemWriterBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.namedparam.BeanPropertySqlParameterSource;
 import org.springframework.transaction.PlatformTransactionManager;
 import rafa.tfg.domain.model.Spell;
-import rafa.tfg.domain.service.SpellService;
-import rafa.tfg.infrastructure.batch.dto.ChampionDataWrapper;
-import rafa.tfg.infrastructure.batch.dto.ChampionJsonDTO;
+import rafa.tfg.domain.service.recommendation.ChampionAnalysisService;
+import rafa.tfg.domain.service.recommendation.ChampionThreatIndexService;
+import rafa.tfg.domain.service.recommendation.RecommendationCacheService;
 import rafa.tfg.infrastructure.batch.dto.SpellJsonDTO;
+import rafa.tfg.infrastructure.batch.dto.SpellWithChampion;
+import rafa.tfg.infrastructure.batch.listener.InsertRateListener;
+import rafa.tfg.infrastructure.batch.partition.ChampionKeyPartitioner;
+import rafa.tfg.infrastructure.batch.reader.ChampionSpellJsonItemReader;
+import rafa.tfg.infrastructure.persistence.mapper.SpellMapper;
 
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import javax.sql.DataSource;
 
 /**
  * Configuración de Spring Batch para cargar Spells (habilidades) desde championFull.json
@@ -34,62 +46,56 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class SpellBatchConfig {
 
-    private final SpellService spellService;
+    private static final String CHAMPION_FULL_JSON = "data/championFull.json";
+
+    private static final String MERGE_SPELL = """
+            MERGE INTO spells (
+                    spell_id, name, champion_id, description, tooltip, level_tip_labels, level_tip_effects,
+                    max_rank, cooldown, cooldown_burn, cost, cost_burn, cost_type, effect, effect_burn, vars,
+                    range_values, range_burn, max_ammo, image_full, image_sprite, image_group, resource,
+                    data_values)
+            KEY (spell_id)
+            VALUES (
+                    :spellId, :name, :championId, :description, :tooltip, :levelTipLabels, :levelTipEffects,
+                    :maxRank, :cooldown, :cooldownBurn, :cost, :costBurn, :costType, :effect, :effectBurn,
+                    :vars, :range, :rangeBurn, :maxAmmo, :imageFull, :imageSprite, :imageGroup, :resource,
+                    :dataValues)
+            """;
+
+    private final ChampionThreatIndexService championThreatIndexService;
+    private final RecommendationCacheService recommendationCacheService;
+    private final ChampionAnalysisService championAnalysisService;
     private final ObjectMapper objectMapper;
+    private final SpellMapper spellMapper;
+    private final DataSource dataSource;
+    private final InsertRateListener insertRateListener;
 
     /**
-     * Clase auxiliar para asociar un spell con su championId
+     * Reparte los campeones de championFull.json entre las particiones del step de hechizos
      */
-    public static class SpellWithChampion {
-        public SpellJsonDTO spell;
-        public String championId;
-
-        public SpellWithChampion(SpellJsonDTO spell, String championId) {
-            this.spell = spell;
-            this.championId = championId;
-        }
+    @Bean
+    public ChampionKeyPartitioner spellPartitioner() {
+        return new ChampionKeyPartitioner(new ClassPathResource(CHAMPION_FULL_JSON), objectMapper);
     }
 
+    /**
+     * Lector en streaming de las habilidades de los campeones de una partición; empieza en el
+     * offset de su primer campeón y, con ámbito de step, cada partición guarda su posición para
+     * continuar desde ella al reiniciar
+     */
     @Bean
-    public ItemReader<SpellWithChampion> spellReader() {
-        return new ItemReader<>() {
-            private List<SpellWithChampion> spells;
-            private int currentIndex = 0;
-
-            @Override
-            public SpellWithChampion read() throws IOException {
-                if (spells == null) {
-                    loadSpells();
-                }
-
-                if (currentIndex < spells.size()) {
-                    return spells.get(currentIndex++);
-                }
-
-                return null; // End of data
-            }
-
-            private void loadSpells() throws IOException {
-                ClassPathResource resource = new ClassPathResource("data/championFull.json");
-                ChampionDataWrapper wrapper = objectMapper.readValue(resource.getInputStream(), ChampionDataWrapper.class);
-
-                spells = new ArrayList<>();
-
-                // Iterar sobre todos los campeones y extraer sus habilidades
-                for (Map.Entry<String, ChampionJsonDTO> entry : wrapper.getData().entrySet()) {
-                    String championId = entry.getKey();
-                    ChampionJsonDTO champion = entry.getValue();
-
-                    if (champion.getSpells() != null) {
-                        for (SpellJsonDTO spell : champion.getSpells()) {
-                            spells.add(new SpellWithChampion(spell, championId));
-                        }
-                    }
-                }
-
-                log.info("Loaded {} spells from {} champions", spells.size(), wrapper.getData().size());
-            }
-        };
+    @StepScope
+    public ChampionSpellJsonItemReader spellReader(@Value("#{stepExecution}") StepExecution stepExecution) {
+        ChampionSpellJsonItemReader reader =
+                new ChampionSpellJsonItemReader(new ClassPathResource(CHAMPION_FULL_JSON), objectMapper);
+
+        ExecutionContext partition = stepExecution.getExecutionContext();
+        if (partition.containsKey(ChampionKeyPartitioner.START_OFFSET_KEY)) {
+            reader.setStartOffset(partition.getLong(ChampionKeyPartitioner.START_OFFSET_KEY));
+            reader.setFirstChampion(partition.getString(ChampionKeyPartitioner.FIRST_CHAMPION_KEY));
+            reader.setChampionCount(partition.getInt(ChampionKeyPartitioner.CHAMPION_COUNT_KEY));
+        }
+        return reader;
     }
 
     @Bean
@@ -120,7 +126,7 @@ public class SpellBatchConfig {
                         // Efectos y variables
                         .effect(spellDTO.getEffect())
                         .effectBurn(spellDTO.getEffectBurn())
-                        .vars(spellDTO.getVars() != null ? objectMapper.writeValueAsString(spellDTO.getVars()) : null)
+                        .vars(toJson(spellDTO.getVars()))
                         // Rango y ammo
                         .range(spellDTO.getRange())
                         .rangeBurn(spellDTO.getRangeBurn())
@@ -132,7 +138,7 @@ public class SpellBatchConfig {
                         // Recurso
                         .resource(spellDTO.getResource())
                         // Datos adicionales
-                        .dataValues(spellDTO.getDataValues() != null ? objectMapper.writeValueAsString(spellDTO.getDataValues()) : null)
+                        .dataValues(toJson(spellDTO.getDataValues()))
                         .build();
             } catch (Exception e) {
                 log.error("Error processing spell: {} for champion: {}", spellDTO.getName(), championId, e);
@@ -141,29 +147,84 @@ public class SpellBatchConfig {
         };
     }
 
+    /**
+     * vars y datavalues se leen como árbol JSON y se guardan tal cual, sin volver a serializarlos
+     */
+    private static String toJson(JsonNode node) {
+        return node != null && !node.isNull() ? node.toString() : null;
+    }
+
+    /**
+     * Escribe cada chunk en un único batch JDBC con MERGE por spell_id, igual que el writer
+     * de campeones
+     */
+    @Bean
+    public JdbcBatchItemWriter<Spell> spellWriter() {
+        return new JdbcBatchItemWriterBuilder<Spell>()
+                .dataSource(dataSource)
+                .sql(MERGE_SPELL)
+                .itemSqlParameterSourceProvider(spell -> new BeanPropertySqlParameterSource(spellMapper.toEntity(spell)))
+                .build();
+    }
+
+    /**
+     * Recalcula los perfiles de escalado (incluidos los contadores de etiquetas usados por los
+     * pesos), reconstruye el índice de amenazas y vacía la caché de recomendaciones
+     * cuando el job termina correctamente
+     */
     @Bean
-    public ItemWriter<Spell> spellWriter() {
-        return spells -> {
-            for (Spell spell : spells) {
-                spellService.create(spell);
-                log.debug("Saved spell: {}", spell.getName());
+    public JobExecutionListener spellCatalogRefreshListener() {
+        return new JobExecutionListener() {
+            @Override
+            public void afterJob(JobExecution jobExecution) {
+                if (jobExecution.getStatus() == BatchStatus.COMPLETED) {
+                    championAnalysisService.warmScalingProfiles();
+                    championThreatIndexService.rebuild();
+                    recommendationCacheService.invalidateAll();
+                }
             }
         };
     }
 
+    /**
+     * Step de trabajo: importa las habilidades de los campeones de una partición
+     */
     @Bean
-    public Step spellStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) {
-        return new StepBuilder("spellStep", jobRepository)
-                .<SpellWithChampion, Spell>chunk(10, transactionManager)
-                .reader(spellReader())
+    public Step spellWorkerStep(JobRepository jobRepository, PlatformTransactionManager transactionManager,
+                                @Value("${batch.import.spells.chunk-size:200}") int chunkSize) {
+        return new StepBuilder("spellWorkerStep", jobRepository)
+                .<SpellWithChampion, Spell>chunk(chunkSize, transactionManager)
+                .reader(spellReader(null))
                 .processor(spellProcessor())
                 .writer(spellWriter())
+                .listener(insertRateListener)
+                .build();
+    }
+
+    /**
+     * Step de hechizos particionado por campeón; las particiones se ejecutan en paralelo y el
+     * listener del step principal calcula el ritmo agregado de todas ellas
+     */
+    @Bean
+    public Step spellStep(JobRepository jobRepository, Step spellWorkerStep,
+                          @Value("${batch.import.spells.partitions:4}") int partitions,
+                          @Value("${batch.import.spells.threads:4}") int threads) {
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("spell-partition-");
+        taskExecutor.setConcurrencyLimit(threads);
+
+        return new StepBuilder("spellStep", jobRepository)
+                .partitioner(spellWorkerStep.getName(), spellPartitioner())
+                .step(spellWorkerStep)
+                .gridSize(partitions)
+                .taskExecutor(taskExecutor)
+                .listener(insertRateListener)
                 .build();
     }
 
     @Bean
     public Job importSpellJob(JobRepository jobRepository, Step spellStep) {
         return new JobBuilder("importSpellJob", jobRepository)
+                .listener(spellCatalogRefreshListener())
                 .start(spellStep)
                 .build();
     }
@@ -2,10 +2,10 @@ package rafa.tfg.infrastructure.batch.dto;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.Data;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  * DTO para leer datos de Spell (habilidades) desde championFull.json
@@ -36,14 +36,14 @@ public class SpellJsonDTO {
     private String costBurn;
 
     @JsonProperty("datavalues")
-    private Map<String, Object> dataValues;
+    private JsonNode dataValues;        // Se guarda tal cual como JSON
 
     private List<List<Double>> effect;  // Matriz de efectos
 
     @JsonProperty("effectBurn")
     private List<String> effectBurn;
 
-    private List<Object> vars;          // Variables (puede contener objetos complejos)
+    private JsonNode vars;              // Variables (puede contener objetos complejos)
 
     @JsonProperty("costType")
     private String costType;
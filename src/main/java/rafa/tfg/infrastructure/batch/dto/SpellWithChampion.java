@@ -0,0 +1,14 @@
+package rafa.tfg.infrastructure.batch.dto;
+
+/**
+ * Clase auxiliar para asociar un spell con su championId
+ */
+public class SpellWithChampion {
+    public SpellJsonDTO spell;
+    public String championId;
+
+    public SpellWithChampion(SpellJsonDTO spell, String championId) {
+        this.spell = spell;
+        this.championId = championId;
+    }
+}
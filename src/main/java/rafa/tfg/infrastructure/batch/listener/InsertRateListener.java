@@ -0,0 +1,51 @@
+package rafa.tfg.infrastructure.batch.listener;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Calcula el ritmo de inserción de un step de importación y lo guarda en su ExecutionContext
+ * Las filas insertadas son el writeCount del step salvo que el writer registre otro valor
+ * en ROWS_WRITTEN_KEY (p. ej. las runas insertadas junto a cada camino)
+ * Las métricas son de cada ejecución: al reiniciar un step fallido, Spring Batch copia su
+ * ExecutionContext, así que se borran antes de empezar
+ */
+@Slf4j
+@Component
+public class InsertRateListener implements StepExecutionListener {
+
+    public static final String ROWS_WRITTEN_KEY = "insertRate.rowsWritten";
+    public static final String ROWS_PER_SECOND_KEY = "insertRate.rowsPerSecond";
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        ExecutionContext context = stepExecution.getExecutionContext();
+        context.remove(ROWS_WRITTEN_KEY);
+        context.remove(ROWS_PER_SECOND_KEY);
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        ExecutionContext context = stepExecution.getExecutionContext();
+
+        long rows = context.getLong(ROWS_WRITTEN_KEY, stepExecution.getWriteCount());
+        long durationMs = Duration.between(stepExecution.getStartTime(), LocalDateTime.now()).toMillis();
+        double rowsPerSecond = durationMs > 0 ? rows * 1000.0 / durationMs : rows;
+
+        context.putLong(ROWS_WRITTEN_KEY, rows);
+        context.putDouble(ROWS_PER_SECOND_KEY, Math.round(rowsPerSecond * 10.0) / 10.0);
+
+        log.info("Step {}: {} rows inserted in {} ms ({} rows/s, {} commits)",
+                stepExecution.getStepName(), rows, durationMs,
+                context.getDouble(ROWS_PER_SECOND_KEY), stepExecution.getCommitCount());
+
+        return stepExecution.getExitStatus();
+    }
+}
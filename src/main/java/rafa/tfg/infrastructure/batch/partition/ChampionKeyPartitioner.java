@@ -0,0 +1,94 @@
+package rafa.tfg.infrastructure.batch.partition;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.core.io.Resource;
+import rafa.tfg.infrastructure.batch.reader.DataDragonKeyItemReader;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reparte los campeones de championFull.json en grupos consecutivos de tamaño similar
+ * Cada partición recibe en su ExecutionContext el offset en bytes de su primer campeón, la clave
+ * de ese campeón y cuántos campeones contiene, de modo que su lector empieza directamente ahí
+ * en lugar de volver a tokenizar el fichero completo.
+ */
+@Slf4j
+public class ChampionKeyPartitioner implements Partitioner {
+
+    public static final String START_OFFSET_KEY = "startOffset";
+    public static final String FIRST_CHAMPION_KEY = "firstChampion";
+    public static final String CHAMPION_COUNT_KEY = "championCount";
+
+    private static final String PARTITION_PREFIX = "partition";
+
+    private final Resource resource;
+    private final ObjectMapper objectMapper;
+
+    public ChampionKeyPartitioner(Resource resource, ObjectMapper objectMapper) {
+        this.resource = resource;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        // Paso 1: Leer las claves de campeón y su offset (sin deserializar los campeones)
+        List<ChampionEntry> champions = readChampionEntries();
+
+        Map<String, ExecutionContext> contexts = new LinkedHashMap<>();
+        if (champions.isEmpty()) {
+            contexts.put(PARTITION_PREFIX + 0, new ExecutionContext());
+            return contexts;
+        }
+
+        // Paso 2: Repartir los campeones en grupos consecutivos; los primeros reciben uno más
+        int partitions = Math.max(1, Math.min(gridSize, champions.size()));
+        int baseSize = champions.size() / partitions;
+        int remainder = champions.size() % partitions;
+
+        int from = 0;
+        for (int i = 0; i < partitions; i++) {
+            int count = baseSize + (i < remainder ? 1 : 0);
+            ChampionEntry first = champions.get(from);
+
+            ExecutionContext context = new ExecutionContext();
+            context.putLong(START_OFFSET_KEY, first.offset());
+            context.putString(FIRST_CHAMPION_KEY, first.key());
+            context.putInt(CHAMPION_COUNT_KEY, count);
+            contexts.put(PARTITION_PREFIX + i, context);
+
+            from += count;
+        }
+
+        log.info("Split {} champions into {} partitions", champions.size(), contexts.size());
+        return contexts;
+    }
+
+    private List<ChampionEntry> readChampionEntries() {
+        DataDragonKeyItemReader reader = new DataDragonKeyItemReader(resource, objectMapper);
+        reader.setSaveState(false);
+
+        List<ChampionEntry> champions = new ArrayList<>();
+        reader.open(new ExecutionContext());
+        try {
+            String key;
+            while ((key = reader.read()) != null) {
+                champions.add(new ChampionEntry(key, reader.getEntryOffset()));
+            }
+        } catch (Exception e) {
+            throw new ItemStreamException("Error reading champion keys from " + resource.getDescription(), e);
+        } finally {
+            reader.close();
+        }
+        return champions;
+    }
+
+    private record ChampionEntry(String key, long offset) {
+    }
+}
@@ -0,0 +1,75 @@
+package rafa.tfg.infrastructure.batch.processor;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ItemProcessor;
+import rafa.tfg.domain.model.Item;
+import rafa.tfg.infrastructure.batch.dto.ItemJsonDTO;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Convierte una entrada de item.json (id → DTO) en un Item de dominio
+ * Los items que no están disponibles en la Grieta del Invocador (mapa 11) se descartan
+ */
+@Slf4j
+public class ItemJsonProcessor implements ItemProcessor<Map.Entry<String, ItemJsonDTO>, Item> {
+
+    @Override
+    public Item process(Map.Entry<String, ItemJsonDTO> entry) {
+        String itemId = entry.getKey();
+        ItemJsonDTO itemDTO = entry.getValue();
+        log.debug("Processing item: {}", itemDTO.getName());
+
+        if (itemDTO.getMaps() == null || !Boolean.TRUE.equals(itemDTO.getMaps().get("11"))) {
+            // Si maps es null o el mapa 11 no es true, saltamos este item
+            return null;
+        }
+
+        return Item.builder()
+                .itemId(itemId)
+                .name(itemDTO.getName())
+                .description(itemDTO.getDescription())
+                .colloq(itemDTO.getColloq())
+                .plaintext(itemDTO.getPlaintext())
+                .group(itemDTO.getGroup())
+                // Gold info
+                .goldBase(itemDTO.getGold() != null ? itemDTO.getGold().getBase() : null)
+                .goldTotal(itemDTO.getGold() != null ? itemDTO.getGold().getTotal() : null)
+                .goldSell(itemDTO.getGold() != null ? itemDTO.getGold().getSell() : null)
+                .purchasable(itemDTO.getGold() != null ? itemDTO.getGold().getPurchasable() : null)
+                // Item properties
+                .consumed(itemDTO.getConsumed())
+                .stacks(itemDTO.getStacks())
+                .depth(itemDTO.getDepth())
+                .inStore(Optional.ofNullable(itemDTO.getInStore())
+                        .orElse(true))
+                .hideFromAll(itemDTO.getHideFromAll())
+                .requiredChampion(itemDTO.getRequiredChampion())
+                .requiredAlly(itemDTO.getRequiredAlly())
+                // Build path
+                .from(itemDTO.getFrom())
+                .into(itemDTO.getInto())
+                // Stats - Si es null, guardar 0.0
+                .flatHPPoolMod(itemDTO.getStats() != null && itemDTO.getStats().getFlatHPPoolMod() != null ? itemDTO.getStats().getFlatHPPoolMod() : 0.0)
+                .flatMPPoolMod(itemDTO.getStats() != null && itemDTO.getStats().getFlatMPPoolMod() != null ? itemDTO.getStats().getFlatMPPoolMod() : 0.0)
+                .percentHPPoolMod(itemDTO.getStats() != null && itemDTO.getStats().getPercentHPPoolMod() != null ? itemDTO.getStats().getPercentHPPoolMod() : 0.0)
+                .percentMPPoolMod(itemDTO.getStats() != null && itemDTO.getStats().getPercentMPPoolMod() != null ? itemDTO.getStats().getPercentMPPoolMod() : 0.0)
+                .flatHPRegenMod(itemDTO.getStats() != null && itemDTO.getStats().getFlatHPRegenMod() != null ? itemDTO.getStats().getFlatHPRegenMod() : 0.0)
+                .percentHPRegenMod(itemDTO.getStats() != null && itemDTO.getStats().getPercentHPRegenMod() != null ? itemDTO.getStats().getPercentHPRegenMod() : 0.0)
+                .flatMPRegenMod(itemDTO.getStats() != null && itemDTO.getStats().getFlatMPRegenMod() != null ? itemDTO.getStats().getFlatMPRegenMod() : 0.0)
+                .percentMPRegenMod(itemDTO.getStats() != null && itemDTO.getStats().getPercentMPRegenMod() != null ? itemDTO.getStats().getPercentMPRegenMod() : 0.0)
+                .flatArmorMod(itemDTO.getStats() != null && itemDTO.getStats().getFlatArmorMod() != null ? itemDTO.getStats().getFlatArmorMod() : 0.0)
+                .percentArmorMod(itemDTO.getStats() != null && itemDTO.getStats().getPercentArmorMod() != null ? itemDTO.getStats().getPercentArmorMod() : 0.0)
+                .flatAttackSpeedMod(itemDTO.getStats() != null && itemDTO.getStats().getFlatAttackSpeedMod() != null ? itemDTO.getStats().getFlatAttackSpeedMod() : 0.0)
+                .percentAttackSpeedMod(itemDTO.getStats() != null && itemDTO.getStats().getPercentAttackSpeedMod() != null ? itemDTO.getStats().getPercentAttackSpeedMod() : 0.0)
+                .flatCritChanceMod(itemDTO.getStats() != null && itemDTO.getStats().getFlatCritChanceMod() != null ? itemDTO.getStats().getFlatCritChanceMod() : 0.0)
+                .flatPhysicalDamageMod(itemDTO.getStats() != null && itemDTO.getStats().getFlatPhysicalDamageMod() != null ? itemDTO.getStats().getFlatPhysicalDamageMod() : 0.0)
+                .flatMagicDamageMod(itemDTO.getStats() != null && itemDTO.getStats().getFlatMagicDamageMod() != null ? itemDTO.getStats().getFlatMagicDamageMod() : 0.0)
+                .percentLifeStealMod(itemDTO.getStats() != null && itemDTO.getStats().getPercentLifeStealMod() != null ? itemDTO.getStats().getPercentLifeStealMod() : 0.0)
+                .percentSpellVampMod(itemDTO.getStats() != null && itemDTO.getStats().getPercentSpellVampMod() != null ? itemDTO.getStats().getPercentSpellVampMod() : 0.0)
+                .flatMovementSpeedMod(itemDTO.getStats() != null && itemDTO.getStats().getFlatMovementSpeedMod() != null ? itemDTO.getStats().getFlatMovementSpeedMod() : 0.0)
+                .flatSpellBlockMod(itemDTO.getStats() != null && itemDTO.getStats().getFlatSpellBlockMod() != null ? itemDTO.getStats().getFlatSpellBlockMod() : 0.0)
+                .build();
+    }
+}
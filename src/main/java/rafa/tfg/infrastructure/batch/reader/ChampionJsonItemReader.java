@@ -0,0 +1,36 @@
+package rafa.tfg.infrastructure.batch.reader;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import rafa.tfg.infrastructure.batch.dto.ChampionJsonDTO;
+
+/**
+ * Lee los campeones de champion.json de uno en uno
+ */
+@Slf4j
+public class ChampionJsonItemReader extends DataDragonJsonItemReader<ChampionJsonDTO> {
+
+    public ChampionJsonItemReader(Resource resource, ObjectMapper objectMapper) {
+        super(resource, objectMapper);
+    }
+
+    @Override
+    protected ChampionJsonDTO doRead() throws Exception {
+        if (nextDataEntry() == null) {
+            log.info("Read {} champions from JSON", getCurrentItemCount() - 1);
+            return null;
+        }
+        return objectMapper.readValue(parser, ChampionJsonDTO.class);
+    }
+
+    /**
+     * Salta los campeones ya procesados sin deserializarlos
+     */
+    @Override
+    protected void jumpToItem(int itemIndex) throws Exception {
+        for (int i = 0; i < itemIndex && nextDataEntry() != null; i++) {
+            parser.skipChildren();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package rafa.tfg.infrastructure.batch.reader;
+
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.core.io.Resource;
+import rafa.tfg.infrastructure.batch.dto.SpellJsonDTO;
+import rafa.tfg.infrastructure.batch.dto.SpellWithChampion;
+
+/**
+ * Lee las habilidades de championFull.json (data.&lt;campeón&gt;.spells[]) de una en una
+ * El resto de campos de cada campeón se saltan sin deserializarlos. Para una partición se indica
+ * el offset del primer campeón (setStartOffset), su clave y cuántos campeones leer a partir de él.
+ */
+@Slf4j
+public class ChampionSpellJsonItemReader extends DataDragonJsonItemReader<SpellWithChampion> {
+
+    private static final String SPELLS_FIELD = "spells";
+
+    // Partición: primer campeón esperado y número de campeones a leer (0 = hasta el final)
+    private String firstChampion;
+    private int championCount;
+
+    // Campeón cuyo objeto se está recorriendo (null entre campeones)
+    private String championId;
+    private boolean inSpells;
+    private int champions;
+
+    public ChampionSpellJsonItemReader(Resource resource, ObjectMapper objectMapper) {
+        super(resource, objectMapper);
+    }
+
+    public void setFirstChampion(String firstChampion) {
+        this.firstChampion = firstChampion;
+    }
+
+    public void setChampionCount(int championCount) {
+        this.championCount = championCount;
+    }
+
+    @Override
+    protected void doOpen() throws Exception {
+        championId = null;
+        inSpells = false;
+        champions = 0;
+        super.doOpen();
+    }
+
+    @Override
+    protected SpellWithChampion doRead() throws Exception {
+        if (!nextSpell()) {
+            log.info("Read {} spells from {} champions", getCurrentItemCount() - 1, champions);
+            return null;
+        }
+        return new SpellWithChampion(objectMapper.readValue(parser, SpellJsonDTO.class), championId);
+    }
+
+    /**
+     * Salta las habilidades ya procesadas sin deserializarlas
+     */
+    @Override
+    protected void jumpToItem(int itemIndex) throws Exception {
+        for (int i = 0; i < itemIndex && nextSpell(); i++) {
+            parser.skipChildren();
+        }
+    }
+
+    /**
+     * Avanza hasta el START_OBJECT de la siguiente habilidad
+     *
+     * @return false si no quedan más habilidades
+     */
+    private boolean nextSpell() throws Exception {
+        while (true) {
+            // Paso 1: Siguiente elemento del array spells del campeón actual
+            if (inSpells) {
+                if (parser.nextToken() == JsonToken.START_OBJECT) {
+                    return true;
+                }
+                inSpells = false;
+                continue;
+            }
+
+            // Paso 2: Siguiente campo del campeón actual (solo interesa spells)
+            if (championId != null) {
+                if (parser.nextToken() != JsonToken.FIELD_NAME) {
+                    championId = null;
+                    continue;
+                }
+                String field = parser.currentName();
+                if (parser.nextToken() == JsonToken.START_ARRAY && SPELLS_FIELD.equals(field)) {
+                    inSpells = true;
+                } else {
+                    parser.skipChildren();
+                }
+                continue;
+            }
+
+            // Paso 3: Siguiente campeón de data (sin pasar del último de la partición)
+            if (championCount > 0 && champions >= championCount) {
+                return false;
+            }
+            championId = nextDataEntry();
+            if (championId == null) {
+                return false;
+            }
+            if (champions == 0 && firstChampion != null && !firstChampion.equals(championId)) {
+                throw new ItemStreamException("Expected champion " + firstChampion + " at offset "
+                        + getEntryOffset() + " but found " + championId);
+            }
+            champions++;
+        }
+    }
+}
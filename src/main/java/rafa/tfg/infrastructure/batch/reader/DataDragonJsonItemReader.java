@@ -0,0 +1,124 @@
+package rafa.tfg.infrastructure.batch.reader;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.core.io.Resource;
+import org.springframework.util.ClassUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lector base para ficheros de Data Dragon ({"type": ..., "data": {"<id>": {...}, ...}})
+ * Recorre el objeto "data" con el JsonParser de Jackson en streaming, de modo que solo se mantiene
+ * en memoria la entrada actual. La posición (número de items leídos) se guarda en el
+ * ExecutionContext y, al reiniciar, las entradas ya procesadas se saltan sin deserializarlas.
+ * Con un offset inicial (ver getEntryOffset) la lectura empieza directamente en esa entrada
+ * de "data" sin tokenizar las anteriores.
+ */
+public abstract class DataDragonJsonItemReader<T> extends AbstractItemCountingItemStreamItemReader<T> {
+
+    private static final String DATA_FIELD = "data";
+
+    // Cabecera sintética que se antepone al fichero cuando se empieza en mitad de "data"
+    private static final byte[] DATA_PREFIX = ("{\"" + DATA_FIELD + "\":{").getBytes(StandardCharsets.UTF_8);
+
+    protected final ObjectMapper objectMapper;
+    private final Resource resource;
+
+    protected JsonParser parser;
+
+    // Offset en bytes de la primera entrada a leer (0 = desde el principio del fichero)
+    private long startOffset;
+    // Offset en bytes (en el fichero) de la clave de la entrada actual
+    private long entryOffset = -1;
+
+    protected DataDragonJsonItemReader(Resource resource, ObjectMapper objectMapper) {
+        this.resource = resource;
+        this.objectMapper = objectMapper;
+        setName(ClassUtils.getShortName(getClass()));
+    }
+
+    /**
+     * Empieza la lectura en la entrada cuya clave está en este offset del fichero
+     * (un valor devuelto por getEntryOffset sobre el mismo fichero)
+     */
+    public void setStartOffset(long startOffset) {
+        this.startOffset = startOffset;
+    }
+
+    /**
+     * Offset en bytes, dentro del fichero, de la clave de la última entrada devuelta por nextDataEntry
+     */
+    public long getEntryOffset() {
+        return entryOffset;
+    }
+
+    /**
+     * Abre el parser y lo deja sobre el START_OBJECT de "data"
+     */
+    @Override
+    protected void doOpen() throws Exception {
+        entryOffset = -1;
+        parser = objectMapper.createParser(openInputStream());
+
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new ItemStreamException("Expected a JSON object in " + resource.getDescription());
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (DATA_FIELD.equals(field) && value == JsonToken.START_OBJECT) {
+                return;
+            }
+            parser.skipChildren();
+        }
+
+        throw new ItemStreamException("No \"data\" object found in " + resource.getDescription());
+    }
+
+    /**
+     * Con offset inicial, el parser ve {"data":{ seguido del fichero a partir de esa entrada;
+     * la lectura termina antes de llegar al cierre real de "data" o en él
+     */
+    private InputStream openInputStream() throws IOException {
+        InputStream input = resource.getInputStream();
+        if (startOffset <= 0) {
+            return input;
+        }
+        input.skipNBytes(startOffset);
+        return new SequenceInputStream(new ByteArrayInputStream(DATA_PREFIX), input);
+    }
+
+    @Override
+    protected void doClose() throws Exception {
+        if (parser != null) {
+            parser.close();
+            parser = null;
+        }
+    }
+
+    /**
+     * Avanza a la siguiente entrada de "data" y deja el parser sobre su START_OBJECT
+     *
+     * @return Clave de la entrada o null si no quedan más
+     */
+    protected String nextDataEntry() throws Exception {
+        if (parser.nextToken() != JsonToken.FIELD_NAME) {
+            return null;
+        }
+        long tokenOffset = parser.currentTokenLocation().getByteOffset();
+        entryOffset = startOffset > 0 ? startOffset + tokenOffset - DATA_PREFIX.length : tokenOffset;
+
+        String key = parser.currentName();
+        parser.nextToken();
+        return key;
+    }
+}
@@ -0,0 +1,24 @@
+package rafa.tfg.infrastructure.batch.reader;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.Resource;
+
+/**
+ * Lee solo las claves del objeto "data" de un fichero de Data Dragon (p. ej. "Aatrox")
+ * El contenido de cada entrada se salta sin deserializarlo
+ */
+public class DataDragonKeyItemReader extends DataDragonJsonItemReader<String> {
+
+    public DataDragonKeyItemReader(Resource resource, ObjectMapper objectMapper) {
+        super(resource, objectMapper);
+    }
+
+    @Override
+    protected String doRead() throws Exception {
+        String key = nextDataEntry();
+        if (key != null) {
+            parser.skipChildren();
+        }
+        return key;
+    }
+}
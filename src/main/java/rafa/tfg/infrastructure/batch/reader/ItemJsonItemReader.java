@@ -0,0 +1,39 @@
+package rafa.tfg.infrastructure.batch.reader;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import rafa.tfg.infrastructure.batch.dto.ItemJsonDTO;
+
+import java.util.Map;
+
+/**
+ * Lee los items de item.json de uno en uno junto a su id (clave de data)
+ */
+@Slf4j
+public class ItemJsonItemReader extends DataDragonJsonItemReader<Map.Entry<String, ItemJsonDTO>> {
+
+    public ItemJsonItemReader(Resource resource, ObjectMapper objectMapper) {
+        super(resource, objectMapper);
+    }
+
+    @Override
+    protected Map.Entry<String, ItemJsonDTO> doRead() throws Exception {
+        String itemId = nextDataEntry();
+        if (itemId == null) {
+            log.info("Read {} items from JSON", getCurrentItemCount() - 1);
+            return null;
+        }
+        return Map.entry(itemId, objectMapper.readValue(parser, ItemJsonDTO.class));
+    }
+
+    /**
+     * Salta los items ya procesados sin deserializarlos
+     */
+    @Override
+    protected void jumpToItem(int itemIndex) throws Exception {
+        for (int i = 0; i < itemIndex && nextDataEntry() != null; i++) {
+            parser.skipChildren();
+        }
+    }
+}
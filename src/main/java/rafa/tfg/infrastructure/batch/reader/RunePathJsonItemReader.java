@@ -0,0 +1,67 @@
+package rafa.tfg.infrastructure.batch.reader;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.core.io.Resource;
+import org.springframework.util.ClassUtils;
+import rafa.tfg.infrastructure.batch.dto.RunePathJsonDTO;
+
+/**
+ * Lee los caminos de runas de runesReforged.json (array en la raíz) de uno en uno
+ * Como el resto de lectores de Data Dragon, guarda la posición en el ExecutionContext y al
+ * reiniciar salta los caminos ya procesados sin deserializarlos
+ */
+@Slf4j
+public class RunePathJsonItemReader extends AbstractItemCountingItemStreamItemReader<RunePathJsonDTO> {
+
+    private final Resource resource;
+    private final ObjectMapper objectMapper;
+
+    private JsonParser parser;
+
+    public RunePathJsonItemReader(Resource resource, ObjectMapper objectMapper) {
+        this.resource = resource;
+        this.objectMapper = objectMapper;
+        setName(ClassUtils.getShortName(getClass()));
+    }
+
+    @Override
+    protected void doOpen() throws Exception {
+        parser = objectMapper.createParser(resource.getInputStream());
+
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new ItemStreamException("Expected a JSON array in " + resource.getDescription());
+        }
+    }
+
+    @Override
+    protected RunePathJsonDTO doRead() throws Exception {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            log.info("Read {} rune paths from JSON", getCurrentItemCount() - 1);
+            return null;
+        }
+        return objectMapper.readValue(parser, RunePathJsonDTO.class);
+    }
+
+    /**
+     * Salta los caminos ya procesados sin deserializarlos
+     */
+    @Override
+    protected void jumpToItem(int itemIndex) throws Exception {
+        for (int i = 0; i < itemIndex && parser.nextToken() == JsonToken.START_OBJECT; i++) {
+            parser.skipChildren();
+        }
+    }
+
+    @Override
+    protected void doClose() throws Exception {
+        if (parser != null) {
+            parser.close();
+            parser = null;
+        }
+    }
+}
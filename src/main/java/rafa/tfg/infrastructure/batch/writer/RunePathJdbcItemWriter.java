@@ -0,0 +1,115 @@
+package rafa.tfg.infrastructure.batch.writer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import rafa.tfg.domain.model.Rune;
+import rafa.tfg.domain.model.RunePath;
+import rafa.tfg.infrastructure.batch.listener.InsertRateListener;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writer JDBC para caminos de runas y sus runas
+ * Cada camino se inserta o actualiza (MERGE por path_id) y se consulta su id; después todas las
+ * runas del chunk se escriben en un único batch (MERGE por rune_id) con su rune_path_id
+ */
+@Slf4j
+public class RunePathJdbcItemWriter implements ItemWriter<RunePath> {
+
+    private static final String MERGE_RUNE_PATH = """
+            MERGE INTO rune_paths (path_id, rune_paths_key, icon, name)
+            KEY (path_id)
+            VALUES (:pathId, :key, :icon, :name)
+            """;
+
+    private static final String SELECT_RUNE_PATH_ID = "SELECT id FROM rune_paths WHERE path_id = :pathId";
+
+    private static final String MERGE_RUNE = """
+            MERGE INTO runes (rune_id, rune_key, icon, name, short_desc, long_desc, slot_position, rune_path_id)
+            KEY (rune_id)
+            VALUES (:runeId, :key, :icon, :name, :shortDesc, :longDesc, :slotPosition, :runePathId)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public RunePathJdbcItemWriter(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void write(Chunk<? extends RunePath> runePaths) {
+        List<SqlParameterSource> runes = new ArrayList<>();
+
+        // Paso 1: Escribir cada camino y asignar su id a sus runas (nuevo o ya existente)
+        for (RunePath runePath : runePaths) {
+            MapSqlParameterSource pathParams = new MapSqlParameterSource()
+                    .addValue("pathId", runePath.getPathId())
+                    .addValue("key", runePath.getKey())
+                    .addValue("icon", runePath.getIcon())
+                    .addValue("name", runePath.getName());
+            jdbcTemplate.update(MERGE_RUNE_PATH, pathParams);
+            runePath.setId(jdbcTemplate.queryForObject(SELECT_RUNE_PATH_ID, pathParams, Long.class));
+
+            if (runePath.getRunes() != null) {
+                for (Rune rune : runePath.getRunes()) {
+                    rune.setRunePathId(runePath.getId());
+                    runes.add(new MapSqlParameterSource()
+                            .addValue("runeId", rune.getRuneId())
+                            .addValue("key", rune.getKey())
+                            .addValue("icon", rune.getIcon())
+                            .addValue("name", rune.getName())
+                            .addValue("shortDesc", rune.getShortDesc())
+                            .addValue("longDesc", rune.getLongDesc())
+                            .addValue("slotPosition", rune.getSlotPosition())
+                            .addValue("runePathId", rune.getRunePathId()));
+                }
+            }
+        }
+
+        // Paso 2: Escribir las runas del chunk en un único batch
+        jdbcTemplate.batchUpdate(MERGE_RUNE, runes.toArray(SqlParameterSource[]::new));
+
+        recordRowsWritten(runePaths.size() + runes.size());
+        log.debug("Inserted {} rune paths and {} runes", runePaths.size(), runes.size());
+    }
+
+    /**
+     * Acumula las filas escritas (caminos + runas) para InsertRateListener
+     * El contador se actualiza tras el commit del chunk, así un chunk revertido y reintentado
+     * no se cuenta dos veces
+     */
+    private static void recordRowsWritten(long rows) {
+        StepContext stepContext = StepSynchronizationManager.getContext();
+        if (stepContext == null) {
+            return;
+        }
+        ExecutionContext context = stepContext.getStepExecution().getExecutionContext();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addRowsWritten(context, rows);
+                }
+            });
+        } else {
+            addRowsWritten(context, rows);
+        }
+    }
+
+    private static void addRowsWritten(ExecutionContext context, long rows) {
+        context.putLong(InsertRateListener.ROWS_WRITTEN_KEY,
+                context.getLong(InsertRateListener.ROWS_WRITTEN_KEY, 0L) + rows);
+    }
+}
@@ -0,0 +1,105 @@
+package rafa.tfg.domain.model.recommendation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GameStateFingerprintTest {
+
+    @Test
+    void ignoresTheOrderOfItemsAndEnemies() {
+        GameStateFingerprint first = baseBuilder()
+                .ownedItemIds(List.of("3031", "1055", "3006"))
+                .enemy("Ahri", 9)
+                .enemy("Garen", 8)
+                .enemy("Thresh", 7)
+                .build();
+        GameStateFingerprint second = baseBuilder()
+                .ownedItemIds(List.of("3006", "3031", "1055"))
+                .enemy("Thresh", 7)
+                .enemy("Ahri", 9)
+                .enemy("Garen", 8)
+                .build();
+
+        assertThat(first).isEqualTo(second).hasSameHashCodeAs(second);
+        assertThat(first.getCanonicalForm()).isEqualTo(second.getCanonicalForm());
+    }
+
+    @Test
+    void distinguishesEnemyLevelsAndOwnedItems() {
+        GameStateFingerprint base = baseBuilder().ownedItemIds(List.of("1055")).enemy("Ahri", 9).build();
+
+        assertThat(baseBuilder().ownedItemIds(List.of("1055")).enemy("Ahri", 10).build()).isNotEqualTo(base);
+        assertThat(baseBuilder().ownedItemIds(List.of("1055", "1055")).enemy("Ahri", 9).build()).isNotEqualTo(base);
+        assertThat(baseBuilder().ownedItemIds(List.of("1054")).enemy("Ahri", 9).build()).isNotEqualTo(base);
+    }
+
+    @Test
+    void statesOnOppositeSidesOfAScalingThresholdGetDifferentKeys() {
+        // AD 59.6 / AP 40 no llega al 60% de AD (MIXED); AD 60.4 / AP 40 sí (AD_FOCUSED)
+        GameStateFingerprint mixed = withScalingType(scalingType(59.6, 40.0));
+        GameStateFingerprint adFocused = withScalingType(scalingType(60.4, 40.0));
+
+        assertThat(scalingType(59.6, 40.0)).isEqualTo(ChampionProfile.ChampionScalingType.MIXED);
+        assertThat(scalingType(60.4, 40.0)).isEqualTo(ChampionProfile.ChampionScalingType.AD_FOCUSED);
+        assertThat(mixed).isNotEqualTo(adFocused);
+    }
+
+    @Test
+    void statesWithTheSameScalingTypeShareTheKey() {
+        assertThat(withScalingType(scalingType(120.0, 10.0)))
+                .isEqualTo(withScalingType(scalingType(250.0, 35.0)));
+        assertThat(withScalingType(ChampionProfile.ChampionScalingType.TANK))
+                .isNotEqualTo(withScalingType(ChampionProfile.ChampionScalingType.UTILITY));
+    }
+
+    @Test
+    void missingScalingTypeDiffersFromAnyScalingType() {
+        for (ChampionProfile.ChampionScalingType scalingType : ChampionProfile.ChampionScalingType.values()) {
+            assertThat(baseBuilder().build()).isNotEqualTo(withScalingType(scalingType));
+        }
+    }
+
+    @Test
+    void changesWhenTheCatalogOrCacheGenerationChanges() {
+        GameStateFingerprint base = baseBuilder().build();
+
+        assertThat(baseBuilder().build()).isEqualTo(base);
+        assertThat(baseBuilder().catalogVersion(2).build()).isNotEqualTo(base);
+        assertThat(baseBuilder().cacheGeneration(1).build()).isNotEqualTo(base);
+    }
+
+    @Test
+    void changesWithTopKAndExplanations() {
+        GameStateFingerprint base = baseBuilder().build();
+
+        assertThat(baseBuilder().topK(3).build()).isNotEqualTo(base);
+        assertThat(baseBuilder().explain(false).build()).isNotEqualTo(base);
+    }
+
+    private static GameStateFingerprint withScalingType(ChampionProfile.ChampionScalingType scalingType) {
+        return baseBuilder().scalingType(scalingType).build();
+    }
+
+    private static ChampionProfile.ChampionScalingType scalingType(double attackDamage, double abilityPower) {
+        return ChampionProfile.builder()
+                .currentAd(attackDamage)
+                .currentAp(abilityPower)
+                .totalHealthRatio(0.0)
+                .totalArmorRatio(0.0)
+                .totalMrRatio(0.0)
+                .build()
+                .determineScalingType();
+    }
+
+    private static GameStateFingerprint.Builder baseBuilder() {
+        return GameStateFingerprint.builder()
+                .championName("Jinx")
+                .level(11)
+                .topK(5)
+                .catalogVersion(1)
+                .cacheGeneration(0);
+    }
+}
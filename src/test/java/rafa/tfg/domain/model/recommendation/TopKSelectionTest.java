@@ -0,0 +1,98 @@
+package rafa.tfg.domain.model.recommendation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopKSelectionTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "1, 1", "1, 5", "10, 1", "10, 5", "10, 10", "10, 25",
+            "79, 5", "200, 5", "200, 64", "1000, 999", "1000, 1000", "1000, 1500"
+    })
+    void matchesAStableFullSortOnRandomScores(int n, int k) {
+        Random random = new Random(31L * n + k);
+        double[] scores = new double[n];
+        for (int i = 0; i < n; i++) {
+            scores[i] = random.nextDouble();
+        }
+
+        assertMatchesFullSort(scores, k);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"10, 3", "50, 5", "50, 50", "300, 7", "300, 400"})
+    void matchesAStableFullSortWithManyTies(int n, int k) {
+        // Pocos valores distintos: casi todas las posiciones del Top K se deciden por empate
+        Random random = new Random(17L * n + k);
+        double[] scores = new double[n];
+        for (int i = 0; i < n; i++) {
+            scores[i] = random.nextInt(4) * 0.25;
+        }
+
+        assertMatchesFullSort(scores, k);
+    }
+
+    @Test
+    void allEqualScoresKeepTheFirstIndices() {
+        double[] scores = new double[20];
+        Arrays.fill(scores, 0.5);
+
+        TopKSelection selection = TopKSelection.of(scores, 5);
+
+        assertThat(indices(selection)).containsExactly(0, 1, 2, 3, 4);
+        assertThat(selection.getKthScore()).isEqualTo(0.5);
+    }
+
+    @Test
+    void kLargerThanTheInputReturnsEveryElementSorted() {
+        double[] scores = {0.2, 0.9, 0.2, -1.0, 0.9};
+
+        TopKSelection selection = TopKSelection.of(scores, 10);
+
+        assertThat(selection.size()).isEqualTo(scores.length);
+        assertThat(indices(selection)).containsExactly(1, 4, 0, 2, 3);
+        assertThat(selection.getKthScore()).isEqualTo(-1.0);
+    }
+
+    @Test
+    void emptyInputOrNonPositiveKSelectsNothing() {
+        assertThat(TopKSelection.of(new double[0], 5).isEmpty()).isTrue();
+        assertThat(TopKSelection.of(new double[]{0.3, 0.7}, 0).isEmpty()).isTrue();
+        assertThat(TopKSelection.of(new double[]{0.3, 0.7}, -1).isEmpty()).isTrue();
+        assertThat(TopKSelection.of(new double[0], 5).getKthScore()).isEqualTo(Double.NEGATIVE_INFINITY);
+    }
+
+    private static void assertMatchesFullSort(double[] scores, int k) {
+        int[] expected = IntStream.range(0, scores.length)
+                .boxed()
+                .sorted(Comparator.comparingDouble((Integer i) -> scores[i]).reversed())
+                .limit(k)
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        TopKSelection selection = TopKSelection.of(scores, k);
+
+        assertThat(indices(selection)).containsExactly(expected);
+        for (int rank = 0; rank < selection.size(); rank++) {
+            assertThat(selection.scoreAt(rank)).isEqualTo(scores[expected[rank]]);
+        }
+        assertThat(selection.getKthScore()).isEqualTo(scores[expected[expected.length - 1]]);
+    }
+
+    private static int[] indices(TopKSelection selection) {
+        int[] indices = new int[selection.size()];
+        for (int rank = 0; rank < indices.length; rank++) {
+            indices[rank] = selection.indexAt(rank);
+        }
+        return indices;
+    }
+}
@@ -0,0 +1,65 @@
+package rafa.tfg.domain.model.recommendation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class WeightProfileTest {
+
+    @Test
+    void buildNormalizesWeightsToOne() {
+        WeightProfile profile = WeightProfile.builder(1.0)
+                .increase(ItemCandidate.Criterion.ATTACK_DAMAGE, 5.0)
+                .increaseWeight("armor", 2.0)
+                .build();
+
+        assertThat(Arrays.stream(profile.toArray()).sum()).isCloseTo(1.0, within(1e-12));
+        assertThat(profile.getTotalWeight()).isEqualTo(1.0);
+        assertThat(profile.weight(ItemCandidate.Criterion.ATTACK_DAMAGE)).isCloseTo(6.0 / 19.0, within(1e-12));
+        assertThat(profile.getWeight("armor")).isCloseTo(3.0 / 19.0, within(1e-12));
+    }
+
+    @Test
+    void referenceCriterionIsTheHeaviestAndRelativeWeightsAreScaledToIt() {
+        WeightProfile profile = WeightProfile.builder(1.0)
+                .set(ItemCandidate.Criterion.HEALTH, 4.0)
+                .build();
+
+        assertThat(profile.referenceCriterion()).isEqualTo(ItemCandidate.Criterion.HEALTH.ordinal());
+        assertThat(profile.relativeWeights()[ItemCandidate.Criterion.HEALTH.ordinal()]).isEqualTo(1.0);
+        assertThat(profile.relativeWeights()[ItemCandidate.Criterion.ARMOR.ordinal()]).isCloseTo(0.25, within(1e-12));
+    }
+
+    @Test
+    void builtProfileDoesNotChangeWhenTheBuilderDoes() {
+        WeightProfile.Builder builder = WeightProfile.builder(1.0);
+        WeightProfile profile = builder.build();
+        double[] before = profile.toArray();
+
+        builder.increase(ItemCandidate.Criterion.ABILITY_POWER, 10.0).build();
+
+        assertThat(profile.toArray()).containsExactly(before);
+        assertThat(profile.referenceCriterion()).isZero();
+    }
+
+    @Test
+    void exposedArraysAreCopies() {
+        WeightProfile profile = WeightProfile.builder(1.0).build();
+
+        profile.toArray()[0] = 100.0;
+        profile.relativeWeights()[0] = 100.0;
+
+        assertThat(profile.weight(0)).isCloseTo(1.0 / DecisionMatrix.CRITERIA_COUNT, within(1e-12));
+        assertThat(profile.relativeWeights()[0]).isEqualTo(1.0);
+    }
+
+    @Test
+    void rejectsUnknownCriterionKeys() {
+        assertThatThrownBy(() -> WeightProfile.builder(1.0).setWeight("mana", 1.0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,172 @@
+package rafa.tfg.domain.service.recommendation;
+
+import org.junit.jupiter.api.Test;
+import rafa.tfg.domain.model.Spell;
+import rafa.tfg.domain.model.recommendation.ChampionScalingProfile;
+import rafa.tfg.domain.port.SpellRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChampionAnalysisServiceTest {
+
+    private final FakeSpellRepository spellRepository = new FakeSpellRepository();
+    private final ChampionAnalysisService service = new ChampionAnalysisService(spellRepository);
+
+    @Test
+    void buildsEachProfileOnceUntilInvalidated() {
+        spellRepository.setSpells("Ahri", apSpell("AhriQ", 0.6));
+
+        ChampionScalingProfile first = service.getScalingProfile("Ahri");
+        ChampionScalingProfile second = service.getScalingProfile("Ahri");
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getTotalApRatio()).isEqualTo(0.6);
+        assertThat(spellRepository.lookups.get()).isOne();
+
+        spellRepository.setSpells("Ahri", apSpell("AhriQ", 0.8));
+        service.invalidateScalingProfiles();
+
+        assertThat(service.getScalingProfile("Ahri").getTotalApRatio()).isEqualTo(0.8);
+        assertThat(spellRepository.lookups.get()).isEqualTo(2);
+    }
+
+    @Test
+    void profileLoadedBeforeAnInvalidationIsNotReused() {
+        spellRepository.setSpells("Ahri", apSpell("AhriQ", 0.6));
+
+        // Las habilidades se recargan mientras se consulta la BD para el perfil antiguo
+        spellRepository.duringNextLookup = () -> {
+            spellRepository.setSpells("Ahri", apSpell("AhriQ", 0.8));
+            service.invalidateScalingProfiles();
+        };
+
+        assertThat(service.getScalingProfile("Ahri").getTotalApRatio()).isEqualTo(0.6);
+        assertThat(service.getScalingProfile("Ahri").getTotalApRatio()).isEqualTo(0.8);
+        assertThat(service.getScalingProfile("Ahri").getTotalApRatio()).isEqualTo(0.8);
+        assertThat(spellRepository.lookups.get()).isEqualTo(2);
+    }
+
+    @Test
+    void profileLoadedBeforeAWarmUpDoesNotReplaceTheWarmedOne() {
+        spellRepository.setSpells("Ahri", apSpell("AhriQ", 0.6));
+
+        spellRepository.duringNextLookup = () -> {
+            spellRepository.setSpells("Ahri", apSpell("AhriQ", 0.8));
+            service.warmScalingProfiles();
+        };
+
+        service.getScalingProfile("Ahri");
+
+        assertThat(service.getScalingProfile("Ahri").getTotalApRatio()).isEqualTo(0.8);
+        assertThat(spellRepository.lookups.get()).isOne();
+    }
+
+    @Test
+    void warmUpBuildsEveryChampionWithoutPerChampionLookups() {
+        spellRepository.setSpells("Ahri", apSpell("AhriQ", 0.6));
+        spellRepository.setSpells("Lux", apSpell("LuxE", 0.7));
+
+        service.warmScalingProfiles();
+
+        assertThat(service.getScalingProfile("Ahri").getTotalApRatio()).isEqualTo(0.6);
+        assertThat(service.getScalingProfile("Lux").getTotalApRatio()).isEqualTo(0.7);
+        assertThat(spellRepository.lookups.get()).isZero();
+    }
+
+    @Test
+    void unknownChampionNamesAreNotCached() {
+        spellRepository.setSpells("Ahri", apSpell("AhriQ", 0.6));
+        service.warmScalingProfiles();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(service.getScalingProfile("NotAChampion" + i).hasAbilities()).isFalse();
+            assertThat(service.getScalingProfile("NotAChampion" + i).hasAbilities()).isFalse();
+        }
+
+        // Cada consulta de un nombre sin habilidades va a la BD; el campeón conocido sigue cacheado
+        assertThat(spellRepository.lookups.get()).isEqualTo(6);
+        assertThat(service.cachedScalingProfiles()).isOne();
+        assertThat(service.getScalingProfile("Ahri").getTotalApRatio()).isEqualTo(0.6);
+        assertThat(spellRepository.lookups.get()).isEqualTo(6);
+    }
+
+    private static Spell apSpell(String spellId, double apRatio) {
+        return Spell.builder()
+                .spellId(spellId)
+                .vars("[{\"link\":\"spelldamage\",\"coeff\":" + apRatio + "}]")
+                .build();
+    }
+
+    private static final class FakeSpellRepository implements SpellRepository {
+
+        private final Map<String, List<Spell>> spellsByChampion = new ConcurrentHashMap<>();
+        private final AtomicInteger lookups = new AtomicInteger();
+        private Runnable duringNextLookup;
+
+        void setSpells(String championId, Spell... spells) {
+            List<Spell> championSpells = new ArrayList<>();
+            for (Spell spell : spells) {
+                spell.setChampionId(championId);
+                championSpells.add(spell);
+            }
+            spellsByChampion.put(championId, championSpells);
+        }
+
+        @Override
+        public List<Spell> findByChampionId(String championId) {
+            lookups.incrementAndGet();
+            List<Spell> spells = spellsByChampion.getOrDefault(championId, List.of());
+
+            Runnable hook = duringNextLookup;
+            duringNextLookup = null;
+            if (hook != null) {
+                hook.run();
+            }
+            return spells;
+        }
+
+        @Override
+        public List<Spell> findAll() {
+            List<Spell> spells = new ArrayList<>();
+            spellsByChampion.values().forEach(spells::addAll);
+            return spells;
+        }
+
+        @Override
+        public Spell save(Spell spell) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<Spell> findById(Long id) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Spell> findBySpellId(String spellId) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void deleteById(Long id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean existsById(Long id) {
+            return false;
+        }
+
+        @Override
+        public long count() {
+            return findAll().size();
+        }
+    }
+}
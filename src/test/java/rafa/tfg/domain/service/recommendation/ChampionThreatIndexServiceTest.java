@@ -0,0 +1,63 @@
+package rafa.tfg.domain.service.recommendation;
+
+import org.junit.jupiter.api.Test;
+import rafa.tfg.domain.model.Champion;
+import rafa.tfg.domain.model.recommendation.ChampionThreatProfile;
+import rafa.tfg.domain.port.ChampionRepository;
+import rafa.tfg.domain.port.SpellRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChampionThreatIndexServiceTest {
+
+    private final ChampionRepository championRepository = mock(ChampionRepository.class);
+    private final SpellRepository spellRepository = mock(SpellRepository.class);
+    private final ChampionThreatIndexService service =
+            new ChampionThreatIndexService(championRepository, spellRepository);
+
+    @Test
+    void championWithNullStatsDoesNotBreakTheRebuild() {
+        Champion complete = Champion.builder()
+                .championId("Garen")
+                .hp(690.0).hpPerLevel(98.0)
+                .armor(38.0).armorPerLevel(4.2)
+                .spellBlock(32.0).spellBlockPerLevel(1.55)
+                .attackDamage(69.0).attackDamagePerLevel(4.5)
+                .attackSpeed(0.625)
+                .build();
+        Champion incomplete = Champion.builder()
+                .championId("Ahri")
+                .hp(590.0)
+                .build();
+        when(championRepository.findAll()).thenReturn(List.of(complete, incomplete));
+        when(spellRepository.findAll()).thenReturn(List.of());
+
+        assertThat(service.rebuild()).containsOnlyKeys("Garen", "Ahri");
+
+        ChampionThreatProfile garen = service.getProfile("Garen");
+        assertThat(garen.getArmorByLevel()[0]).isEqualTo(38.0);
+        assertThat(garen.getBaseAttackSpeed()).isEqualTo(0.625);
+
+        // Las stats nulas cuentan como 0, como en el resto del sistema
+        ChampionThreatProfile ahri = service.getProfile("Ahri");
+        assertThat(ahri.getHealthByLevel()[0]).isEqualTo(590.0);
+        assertThat(ahri.getHealthByLevel()[ChampionThreatProfile.MAX_LEVEL - 1]).isEqualTo(590.0);
+        assertThat(ahri.getArmorByLevel()).containsOnly(0.0);
+        assertThat(ahri.getBaseAttackSpeed()).isZero();
+    }
+
+    @Test
+    void unknownChampionGetsDefaultStats() {
+        when(championRepository.findAll()).thenReturn(List.of());
+        when(spellRepository.findAll()).thenReturn(List.of());
+
+        ChampionThreatProfile profile = service.getProfile("NotAChampion");
+
+        assertThat(profile.getArmorByLevel()[0]).isEqualTo(30.0);
+        assertThat(profile.getDamageProfile()).isEqualTo(ChampionThreatProfile.DamageProfile.PHYSICAL);
+    }
+}
@@ -0,0 +1,188 @@
+package rafa.tfg.domain.service.recommendation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.core.io.ClassPathResource;
+import rafa.tfg.application.dto.recommendation.GameStateRequestDTO;
+import rafa.tfg.domain.model.Item;
+import rafa.tfg.domain.model.recommendation.ChampionProfile;
+import rafa.tfg.domain.model.recommendation.DecisionMatrix;
+import rafa.tfg.domain.model.recommendation.ItemCatalog;
+import rafa.tfg.infrastructure.batch.dto.ItemDataWrapper;
+import rafa.tfg.infrastructure.batch.processor.ItemJsonProcessor;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemFilterServiceTest {
+
+    private static ItemCatalog catalog;
+    private static List<GameStateRequestDTO.ItemDTO> ownedItems;
+
+    private final ItemFilterService itemFilterService = new ItemFilterService();
+
+    @BeforeAll
+    static void loadCatalog() throws Exception {
+        ItemDataWrapper wrapper = new ObjectMapper().readValue(
+                new ClassPathResource("data/item.json").getInputStream(), ItemDataWrapper.class);
+        ItemJsonProcessor processor = new ItemJsonProcessor();
+
+        List<Item> items = new ArrayList<>();
+        wrapper.getData().entrySet().stream()
+                .map(processor::process)
+                .filter(item -> item != null)
+                .forEach(items::add);
+        items.addAll(edgeCaseItems());
+
+        int size = items.size();
+        catalog = ItemCatalog.of(1L, items, new double[size][DecisionMatrix.CRITERIA_COUNT], new double[size]);
+
+        // Uno de cada cinco items del catálogo, uno repetido y uno que no está en el catálogo
+        ownedItems = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += 5) {
+            String itemId = items.get(i).getItemId();
+            if (itemId.chars().allMatch(Character::isDigit)) {
+                ownedItems.add(ownedItem(Integer.parseInt(itemId)));
+            }
+        }
+        ownedItems.add(ownedItems.get(0));
+        ownedItems.add(ownedItem(999_999));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChampionProfile.ChampionScalingType.class)
+    void maskMatchesTheOriginalPerItemRules(ChampionProfile.ChampionScalingType scalingType) {
+        ChampionProfile profile = ChampionProfile.builder().scalingType(scalingType).build();
+
+        List<Item> expected = originalFilter(catalog.getItems(), scalingType, ownedItems);
+
+        assertThat(itemFilterService.filterCandidateItems(catalog, profile, ownedItems, 0.0))
+                .containsExactlyElementsOf(expected);
+        assertThat(expected).isNotEmpty();
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChampionProfile.ChampionScalingType.class)
+    void ownedItemsAreRemovedWithoutTouchingTheCatalogMask(ChampionProfile.ChampionScalingType scalingType) {
+        ChampionProfile profile = ChampionProfile.builder().scalingType(scalingType).build();
+
+        BitSet withoutOwned = itemFilterService.filterCandidates(catalog, profile, List.of(), 0.0);
+        BitSet withOwned = itemFilterService.filterCandidates(catalog, profile, ownedItems, 0.0);
+
+        assertThat(catalog.itemsOf(withoutOwned))
+                .containsExactlyElementsOf(originalFilter(catalog.getItems(), scalingType, List.of()));
+        assertThat(catalog.candidateMask(scalingType)).isEqualTo(withoutOwned);
+
+        BitSet removed = (BitSet) withoutOwned.clone();
+        removed.andNot(withOwned);
+        assertThat(catalog.itemsOf(removed))
+                .allMatch(item -> ownedIds(ownedItems).contains(item.getItemId()));
+    }
+
+    /**
+     * Cadena de predicados por item anterior al índice de bitsets del catálogo
+     */
+    private static List<Item> originalFilter(List<Item> items,
+                                             ChampionProfile.ChampionScalingType scalingType,
+                                             List<GameStateRequestDTO.ItemDTO> currentItems) {
+        Set<String> ownedIds = ownedIds(currentItems);
+        return items.stream()
+                .filter(item -> Boolean.TRUE.equals(item.getInStore()) && Boolean.TRUE.equals(item.getPurchasable()))
+                .filter(item -> isRelevantForScalingType(item, scalingType))
+                .filter(item -> !ownedIds.contains(item.getItemId()))
+                .toList();
+    }
+
+    private static boolean isRelevantForScalingType(Item item, ChampionProfile.ChampionScalingType scalingType) {
+        return switch (scalingType) {
+            case AD_FOCUSED -> hasAd(item) || hasPhysicalDamage(item);
+            case AP_FOCUSED -> hasAp(item) || hasMagicDamage(item);
+            case TANK -> hasTank(item);
+            case MIXED -> hasAd(item) || hasAp(item) || hasHybrid(item);
+            case UTILITY -> hasUtility(item);
+        };
+    }
+
+    private static boolean hasAd(Item item) {
+        return positive(item.getFlatPhysicalDamageMod())
+                || positive(item.getPercentAttackSpeedMod())
+                || positive(item.getFlatCritChanceMod());
+    }
+
+    private static boolean hasAp(Item item) {
+        return positive(item.getFlatMagicDamageMod());
+    }
+
+    private static boolean hasPhysicalDamage(Item item) {
+        return hasAd(item) || positive(item.getPercentArmorMod()) || positive(item.getPercentLifeStealMod());
+    }
+
+    private static boolean hasMagicDamage(Item item) {
+        return hasAp(item) || positive(item.getPercentMPPoolMod());
+    }
+
+    private static boolean hasTank(Item item) {
+        return positive(item.getFlatHPPoolMod())
+                || positive(item.getFlatArmorMod())
+                || positive(item.getFlatSpellBlockMod());
+    }
+
+    private static boolean hasHybrid(Item item) {
+        int stats = (hasAd(item) ? 1 : 0) + (hasAp(item) ? 1 : 0) + (hasTank(item) ? 1 : 0);
+        return stats >= 2;
+    }
+
+    private static boolean hasUtility(Item item) {
+        return positive(item.getFlatMovementSpeedMod());
+    }
+
+    private static boolean positive(Double value) {
+        return value != null && value > 0;
+    }
+
+    private static Set<String> ownedIds(List<GameStateRequestDTO.ItemDTO> currentItems) {
+        return currentItems.stream()
+                .map(item -> String.valueOf(item.getItemID()))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Items sintéticos para los casos que item.json no cubre: flags nulos o a false,
+     * estadísticas nulas, negativas o a cero y cada estadística por separado
+     */
+    private static List<Item> edgeCaseItems() {
+        List<Item> items = new ArrayList<>();
+        items.add(Item.builder().itemId("900001").inStore(null).purchasable(true).flatPhysicalDamageMod(10.0).build());
+        items.add(Item.builder().itemId("900002").inStore(true).purchasable(null).flatMagicDamageMod(10.0).build());
+        items.add(Item.builder().itemId("900003").inStore(false).purchasable(true).flatHPPoolMod(10.0).build());
+        items.add(Item.builder().itemId("900004").inStore(true).purchasable(false).flatArmorMod(10.0).build());
+        items.add(Item.builder().itemId("900005").inStore(true).purchasable(true).build());
+        items.add(Item.builder().itemId("900006").inStore(true).purchasable(true)
+                .flatPhysicalDamageMod(-5.0).flatMagicDamageMod(0.0).build());
+        items.add(Item.builder().itemId("900007").inStore(true).purchasable(true).percentAttackSpeedMod(0.1).build());
+        items.add(Item.builder().itemId("900008").inStore(true).purchasable(true).flatCritChanceMod(0.2).build());
+        items.add(Item.builder().itemId("900009").inStore(true).purchasable(true).percentArmorMod(0.1).build());
+        items.add(Item.builder().itemId("900010").inStore(true).purchasable(true).percentLifeStealMod(0.1).build());
+        items.add(Item.builder().itemId("900011").inStore(true).purchasable(true).percentMPPoolMod(0.1).build());
+        items.add(Item.builder().itemId("900012").inStore(true).purchasable(true).flatSpellBlockMod(20.0).build());
+        items.add(Item.builder().itemId("900013").inStore(true).purchasable(true).flatMovementSpeedMod(25.0).build());
+        items.add(Item.builder().itemId("900014").inStore(true).purchasable(true)
+                .flatHPPoolMod(200.0).flatMagicDamageMod(40.0).build());
+        items.add(Item.builder().itemId("900015").inStore(true).purchasable(true)
+                .flatArmorMod(30.0).flatPhysicalDamageMod(20.0).build());
+        return items;
+    }
+
+    private static GameStateRequestDTO.ItemDTO ownedItem(int itemId) {
+        GameStateRequestDTO.ItemDTO item = new GameStateRequestDTO.ItemDTO();
+        item.setItemID(itemId);
+        return item;
+    }
+}
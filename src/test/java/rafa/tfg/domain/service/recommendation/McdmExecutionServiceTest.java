@@ -0,0 +1,112 @@
+package rafa.tfg.domain.service.recommendation;
+
+import org.junit.jupiter.api.Test;
+import rafa.tfg.domain.model.recommendation.DecisionMatrix;
+import rafa.tfg.domain.model.recommendation.Deadline;
+import rafa.tfg.domain.model.recommendation.ExecutionMode;
+import rafa.tfg.domain.model.recommendation.ItemCandidate;
+import rafa.tfg.domain.model.recommendation.TopKSelection;
+import rafa.tfg.domain.model.recommendation.WeightProfile;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class McdmExecutionServiceTest {
+
+    private static final int ROWS = 40;
+    private static final int TOP_K = 5;
+
+    private final TOPSISService topsisService = new TOPSISService();
+    private final TODIMService todimService = new TODIMService();
+    private final DecisionMatrix matrix = randomMatrix(ROWS, 7L);
+    private final WeightProfile weights = WeightProfile.builder(1.0).build();
+
+    @Test
+    void runsFullMcdmWithoutDeadline() {
+        McdmExecutionService service = serviceWithNanosPerPair(1e9);
+        Map<String, Double> stageTimings = new LinkedHashMap<>();
+
+        McdmExecutionService.McdmResult result = service.evaluate(matrix, weights, TOP_K, Deadline.NONE, stageTimings);
+
+        assertThat(result.mode()).isEqualTo(ExecutionMode.FULL);
+        assertThat(result.todimCandidates()).isEqualTo(ROWS);
+        assertThat(stageTimings).containsKeys("topsis", "todim");
+
+        double[] topsisScores = topsisService.applyTOPSIS(matrix, weights);
+        double[] todimScores = todimService.applyTODIM(matrix, weights);
+        for (int i = 0; i < ROWS; i++) {
+            assertThat(result.finalScores()[i]).isCloseTo(0.70 * topsisScores[i] + 0.30 * todimScores[i], within(1e-12));
+        }
+    }
+
+    @Test
+    void skipsTodimWhenNotEvenTopKCandidatesFit() {
+        McdmExecutionService service = serviceWithNanosPerPair(1e9);
+        Map<String, Double> stageTimings = new LinkedHashMap<>();
+
+        McdmExecutionService.McdmResult result =
+                service.evaluate(matrix, weights, TOP_K, Deadline.after(System.nanoTime(), 1), stageTimings);
+
+        assertThat(result.mode()).isEqualTo(ExecutionMode.TOPSIS_ONLY);
+        assertThat(result.todimScores()).isNull();
+        assertThat(result.todimCandidates()).isZero();
+        assertThat(result.finalScores()).isEqualTo(result.topsisScores());
+        assertThat(result.candidates()).hasSize(ROWS);
+        assertThat(stageTimings).containsKey("topsis").doesNotContainKey("todim");
+    }
+
+    @Test
+    void runsTodimOnTheTopsisShortlistWhenOnlyPartOfItFits() {
+        // Con 1 s de plazo caben unas 10 alternativas: más que TOP_K y menos que ROWS
+        McdmExecutionService service = serviceWithNanosPerPair(1e7);
+
+        McdmExecutionService.McdmResult result = service.evaluate(
+                matrix, weights, TOP_K, Deadline.after(System.nanoTime(), 1_000), new LinkedHashMap<>());
+
+        assertThat(result.mode()).isEqualTo(ExecutionMode.REDUCED_TODIM);
+        int shortlistSize = result.candidates().size();
+        assertThat(shortlistSize).isBetween(TOP_K, ROWS - 1);
+        assertThat(result.todimCandidates()).isEqualTo(shortlistSize);
+
+        // La lista corta son los mejores candidatos por TOPSIS, en el orden original de la matriz
+        double[] topsisScores = topsisService.applyTOPSIS(matrix, weights);
+        TopKSelection best = TopKSelection.of(topsisScores, shortlistSize);
+        List<ItemCandidate> expected = new ArrayList<>();
+        for (int row = 0; row < ROWS; row++) {
+            for (int rank = 0; rank < best.size(); rank++) {
+                if (best.indexAt(rank) == row) {
+                    expected.add(matrix.getCandidates().get(row));
+                }
+            }
+        }
+        assertThat(result.candidates()).containsExactlyElementsOf(expected);
+    }
+
+    private McdmExecutionService serviceWithNanosPerPair(double nanosPerPair) {
+        return new McdmExecutionService(topsisService, todimService, new TodimCostModel(nanosPerPair, 0.2));
+    }
+
+    private static DecisionMatrix randomMatrix(int rows, long seed) {
+        Random random = new Random(seed);
+        List<ItemCandidate> candidates = new ArrayList<>(rows);
+
+        for (int i = 0; i < rows; i++) {
+            double[] criteria = new double[DecisionMatrix.CRITERIA_COUNT];
+            for (int c = 0; c < criteria.length; c++) {
+                criteria[c] = random.nextInt(4) == 0 ? 0.0 : random.nextDouble() * 100.0;
+            }
+            candidates.add(ItemCandidate.builder()
+                    .itemId(String.valueOf(1000 + i))
+                    .criteria(criteria)
+                    .build());
+        }
+
+        return DecisionMatrix.of(candidates);
+    }
+}
@@ -0,0 +1,128 @@
+package rafa.tfg.domain.service.recommendation;
+
+import org.junit.jupiter.api.Test;
+import rafa.tfg.application.dto.recommendation.ItemRecommendationResponseDTO;
+import rafa.tfg.domain.model.recommendation.GameStateFingerprint;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecommendationCacheServiceTest {
+
+    private final RecommendationCacheService cache = new RecommendationCacheService(true, 16, 60);
+
+    @Test
+    void returnsTheStoredResponseForTheSameFingerprint() {
+        cache.put(fingerprint("Jinx"), response("3031", "3006"));
+
+        assertThat(cache.get(fingerprint("Jinx")))
+                .hasValueSatisfying(hit -> assertThat(itemIds(hit)).containsExactly("3031", "3006"));
+        assertThat(cache.get(fingerprint("Ahri"))).isEmpty();
+    }
+
+    @Test
+    void changesToTheCachedResponseDoNotReachLaterHits() {
+        cache.put(fingerprint("Jinx"), response("3031", "3006"));
+
+        ItemRecommendationResponseDTO hit = cache.get(fingerprint("Jinx")).orElseThrow();
+        hit.getRecommendations().remove(0);
+        hit.getRecommendations().add(item("1055"));
+        hit.getRecommendations().get(0).setFinalScore(-1.0);
+        hit.getRecommendations().get(0).getCriteriaScores().put("attackDamage", -1.0);
+        hit.getStageTimingsMs().put("cacheLookup", 1.0);
+
+        ItemRecommendationResponseDTO nextHit = cache.get(fingerprint("Jinx")).orElseThrow();
+        assertThat(itemIds(nextHit)).containsExactly("3031", "3006");
+        assertThat(nextHit.getRecommendations().get(1).getFinalScore()).isEqualTo(0.5);
+        assertThat(nextHit.getRecommendations().get(1).getCriteriaScores()).containsEntry("attackDamage", 0.5);
+        assertThat(nextHit.getStageTimingsMs()).doesNotContainKey("cacheLookup");
+    }
+
+    @Test
+    void changesToTheOriginalResponseAfterPutDoNotReachTheCache() {
+        ItemRecommendationResponseDTO original = response("3031", "3006");
+        cache.put(fingerprint("Jinx"), original);
+
+        original.getRecommendations().clear();
+        original.setChampionName("Ahri");
+
+        ItemRecommendationResponseDTO hit = cache.get(fingerprint("Jinx")).orElseThrow();
+        assertThat(itemIds(hit)).containsExactly("3031", "3006");
+        assertThat(hit.getChampionName()).isEqualTo("Jinx");
+    }
+
+    @Test
+    void invalidationClearsEntriesAndStartsANewGeneration() {
+        cache.put(fingerprint("Jinx"), response("3031"));
+        long generation = cache.getGeneration();
+
+        cache.invalidateAll();
+
+        assertThat(cache.getGeneration()).isEqualTo(generation + 1);
+        assertThat(cache.get(fingerprint("Jinx"))).isEmpty();
+        assertThat(cache.getStats()).containsEntry("size", 0).containsEntry("invalidations", 1L);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntry() {
+        RecommendationCacheService smallCache = new RecommendationCacheService(true, 2, 60);
+        smallCache.put(fingerprint("Jinx"), response("3031"));
+        smallCache.put(fingerprint("Ahri"), response("3089"));
+        smallCache.get(fingerprint("Jinx"));
+
+        smallCache.put(fingerprint("Garen"), response("3071"));
+
+        assertThat(smallCache.get(fingerprint("Ahri"))).isEmpty();
+        assertThat(smallCache.get(fingerprint("Jinx"))).isPresent();
+        assertThat(smallCache.getStats()).containsEntry("evictions", 1L);
+    }
+
+    @Test
+    void disabledCacheStoresNothing() {
+        RecommendationCacheService disabled = new RecommendationCacheService(false, 16, 60);
+        disabled.put(fingerprint("Jinx"), response("3031"));
+
+        assertThat(disabled.get(fingerprint("Jinx"))).isEmpty();
+    }
+
+    private GameStateFingerprint fingerprint(String championName) {
+        return GameStateFingerprint.builder()
+                .championName(championName)
+                .level(11)
+                .topK(5)
+                .catalogVersion(1)
+                .cacheGeneration(cache.getGeneration())
+                .build();
+    }
+
+    private static ItemRecommendationResponseDTO response(String... itemIds) {
+        List<ItemRecommendationResponseDTO.RecommendedItemDTO> recommendations = new ArrayList<>();
+        for (String itemId : itemIds) {
+            recommendations.add(item(itemId));
+        }
+
+        return ItemRecommendationResponseDTO.builder()
+                .championName("Jinx")
+                .recommendations(recommendations)
+                .stageTimingsMs(new LinkedHashMap<>(Map.of("analysis", 0.2)))
+                .build();
+    }
+
+    private static ItemRecommendationResponseDTO.RecommendedItemDTO item(String itemId) {
+        return ItemRecommendationResponseDTO.RecommendedItemDTO.builder()
+                .itemId(itemId)
+                .finalScore(0.5)
+                .criteriaScores(new LinkedHashMap<>(Map.of("attackDamage", 0.5)))
+                .build();
+    }
+
+    private static List<String> itemIds(ItemRecommendationResponseDTO response) {
+        return response.getRecommendations().stream()
+                .map(ItemRecommendationResponseDTO.RecommendedItemDTO::getItemId)
+                .toList();
+    }
+}
@@ -0,0 +1,222 @@
+package rafa.tfg.domain.service.recommendation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import rafa.tfg.application.dto.recommendation.GameStateRequestDTO;
+import rafa.tfg.application.dto.recommendation.ItemRecommendationResponseDTO;
+import rafa.tfg.domain.model.recommendation.GameStateFingerprint;
+import rafa.tfg.domain.model.recommendation.RecommendationSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RecommendationSessionServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ItemRecommendationService itemRecommendationService = mock(ItemRecommendationService.class);
+
+    @BeforeEach
+    void stubRecommendations() {
+        // El Top K depende solo del nivel del jugador activo: un item por nivel
+        when(itemRecommendationService.fingerprint(any(GameStateRequestDTO.class), anyInt()))
+                .thenAnswer(invocation -> GameStateFingerprint.builder()
+                        .level(invocation.<GameStateRequestDTO>getArgument(0).getActivePlayer().getLevel())
+                        .build());
+        when(itemRecommendationService.recommendItems(any(GameStateRequestDTO.class), anyInt()))
+                .thenAnswer(invocation -> recommendation(
+                        "item" + invocation.<GameStateRequestDTO>getArgument(0).getActivePlayer().getLevel()));
+    }
+
+    /**
+     * Ejemplos del apéndice A de RFC 7386
+     */
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "{\"a\":\"b\"}                | {\"a\":\"c\"}                       | {\"a\":\"c\"}",
+            "{\"a\":\"b\"}                | {\"b\":\"c\"}                       | {\"a\":\"b\",\"b\":\"c\"}",
+            "{\"a\":\"b\"}                | {\"a\":null}                        | {}",
+            "{\"a\":\"b\",\"b\":\"c\"}    | {\"a\":null}                        | {\"b\":\"c\"}",
+            "{\"a\":[\"b\"]}              | {\"a\":\"c\"}                       | {\"a\":\"c\"}",
+            "{\"a\":\"c\"}                | {\"a\":[\"b\"]}                     | {\"a\":[\"b\"]}",
+            "{\"a\":{\"b\":\"c\"}}        | {\"a\":{\"b\":\"d\",\"c\":null}}    | {\"a\":{\"b\":\"d\"}}",
+            "{\"a\":[{\"b\":\"c\"}]}      | {\"a\":[1]}                         | {\"a\":[1]}",
+            "[\"a\",\"b\"]                | [\"c\",\"d\"]                       | [\"c\",\"d\"]",
+            "{\"a\":\"b\"}                | [\"c\"]                             | [\"c\"]",
+            "{\"a\":\"foo\"}              | null                                | null",
+            "{\"a\":\"foo\"}              | \"bar\"                             | \"bar\"",
+            "{\"e\":null}                 | {\"a\":1}                           | {\"e\":null,\"a\":1}",
+            "[1,2]                        | {\"a\":\"b\",\"c\":null}            | {\"a\":\"b\"}",
+            "{}                           | {\"a\":{\"bb\":{\"ccc\":null}}}     | {\"a\":{\"bb\":{}}}"
+    })
+    void mergePatchFollowsRfc7386Examples(String target, String patch, String expected) throws Exception {
+        JsonNode result = RecommendationSessionService.mergePatch(objectMapper.readTree(target), objectMapper.readTree(patch));
+
+        assertThat(result).isEqualTo(objectMapper.readTree(expected));
+    }
+
+    @Test
+    void mergePatchDoesNotShareNodesWithThePatch() throws Exception {
+        JsonNode patch = objectMapper.readTree("{\"a\":{\"b\":[1,2]}}");
+
+        JsonNode result = RecommendationSessionService.mergePatch(objectMapper.readTree("{}"), patch);
+        ((ArrayNode) result.get("a").get("b")).add(3);
+
+        assertThat(patch).isEqualTo(objectMapper.readTree("{\"a\":{\"b\":[1,2]}}"));
+    }
+
+    @Test
+    void notifiesSubscribersWithoutHoldingTheSessionLock() throws Exception {
+        RecommendationSessionService service = sessionService(900);
+        RecommendationSession session = service.createSession(gameState(1), 5);
+
+        List<String> received = new ArrayList<>();
+        List<Boolean> lockedWhileSending = new ArrayList<>();
+        service.subscribe(session.getId(), listener(received, () -> lockedWhileSending.add(session.getLock().isLocked())));
+
+        assertThat(service.applyPatch(session.getId(), objectMapper.readTree("{\"activePlayer\":{\"level\":1}}")))
+                .contains(RecommendationSessionService.UpdateOutcome.UNCHANGED_INPUTS);
+        assertThat(service.applyPatch(session.getId(), objectMapper.readTree("{\"activePlayer\":{\"level\":2}}")))
+                .contains(RecommendationSessionService.UpdateOutcome.UPDATED);
+
+        assertThat(received).containsExactly("item1", "item2");
+        assertThat(lockedWhileSending).containsOnly(false);
+    }
+
+    @Test
+    void newerRecommendationIsNotOvertakenByAnOlderOneStillBeingSent() throws Exception {
+        RecommendationSessionService service = sessionService(900);
+        RecommendationSession session = service.createSession(gameState(1), 5);
+
+        // El envío de item2 se queda parado hasta que la versión siguiente intente enviarse
+        CountDownLatch sendingItem2 = new CountDownLatch(1);
+        CountDownLatch releaseItem2 = new CountDownLatch(1);
+        List<String> received = new CopyOnWriteArrayList<>();
+        service.subscribe(session.getId(), new RecommendationSession.Listener() {
+            @Override
+            public void onRecommendation(ItemRecommendationResponseDTO recommendation) {
+                String itemId = recommendation.getRecommendations().get(0).getItemId();
+                if (itemId.equals("item2")) {
+                    sendingItem2.countDown();
+                    await(releaseItem2);
+                }
+                received.add(itemId);
+            }
+
+            @Override
+            public void onClose() {
+            }
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> older = executor.submit(() ->
+                    service.applyPatch(session.getId(), objectMapper.readTree("{\"activePlayer\":{\"level\":2}}")));
+            await(sendingItem2);
+
+            Future<?> newer = executor.submit(() ->
+                    service.applyPatch(session.getId(), objectMapper.readTree("{\"activePlayer\":{\"level\":3}}")));
+            long waitUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!session.getPublishLock().hasQueuedThreads() && !newer.isDone() && System.nanoTime() < waitUntil) {
+                Thread.sleep(1);
+            }
+            releaseItem2.countDown();
+
+            older.get(5, TimeUnit.SECONDS);
+            newer.get(5, TimeUnit.SECONDS);
+        } finally {
+            releaseItem2.countDown();
+            executor.shutdownNow();
+        }
+
+        assertThat(received).containsExactly("item1", "item2", "item3");
+    }
+
+    @Test
+    void evictsIdleSessionsWithoutSubscribers() throws Exception {
+        RecommendationSessionService service = sessionService(0);
+        RecommendationSession idle = service.createSession(gameState(1), 5);
+        RecommendationSession streaming = service.createSession(gameState(1), 5);
+        service.subscribe(streaming.getId(), listener(new ArrayList<>(), () -> { }));
+
+        Thread.sleep(5);
+        service.evictIdleSessions();
+
+        assertThat(service.getSession(idle.getId())).isEmpty();
+        assertThat(service.getSession(streaming.getId())).isPresent();
+    }
+
+    @Test
+    void streamActivityKeepsTheSessionAlive() throws Exception {
+        RecommendationSessionService service = sessionService(900);
+        RecommendationSession session = service.createSession(gameState(1), 5);
+        long created = session.getLastAccessMillis();
+
+        Thread.sleep(5);
+        RecommendationSession.Listener listener = listener(new ArrayList<>(), () -> { });
+        service.subscribe(session.getId(), listener);
+        long subscribed = session.getLastAccessMillis();
+
+        Thread.sleep(5);
+        service.unsubscribe(session.getId(), listener);
+
+        assertThat(subscribed).isGreaterThan(created);
+        assertThat(session.getLastAccessMillis()).isGreaterThan(subscribed);
+    }
+
+    private RecommendationSessionService sessionService(long idleTimeoutSeconds) {
+        return new RecommendationSessionService(itemRecommendationService, objectMapper, 10, idleTimeoutSeconds);
+    }
+
+    private JsonNode gameState(int level) throws Exception {
+        return objectMapper.readTree(
+                "{\"activePlayer\":{\"summonerName\":\"player\",\"level\":" + level + "},\"allPlayers\":[]}");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static RecommendationSession.Listener listener(List<String> received, Runnable onSend) {
+        return new RecommendationSession.Listener() {
+            @Override
+            public void onRecommendation(ItemRecommendationResponseDTO recommendation) {
+                onSend.run();
+                received.add(recommendation.getRecommendations().get(0).getItemId());
+            }
+
+            @Override
+            public void onClose() {
+            }
+        };
+    }
+
+    private static ItemRecommendationResponseDTO recommendation(String itemId) {
+        return ItemRecommendationResponseDTO.builder()
+                .recommendations(List.of(ItemRecommendationResponseDTO.RecommendedItemDTO.builder()
+                        .itemId(itemId)
+                        .build()))
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package rafa.tfg.domain.service.recommendation;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import rafa.tfg.domain.model.recommendation.DecisionMatrix;
+import rafa.tfg.domain.model.recommendation.ItemCandidate;
+import rafa.tfg.domain.model.recommendation.WeightProfile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TODIMServiceTest {
+
+    private static final double LOSS_AVERSION_LAMBDA = 2.25;
+
+    private final TODIMService todimService = new TODIMService();
+
+    private final WeightProfile weights = WeightProfile.builder(1.0)
+            .increase(ItemCandidate.Criterion.ATTACK_DAMAGE, 5.0)
+            .increase(ItemCandidate.Criterion.ARMOR, 2.5)
+            .set(ItemCandidate.Criterion.MOVEMENT_SPEED, 0.0)
+            .build();
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 31, 33, TODIMService.PARALLEL_THRESHOLD - 1, TODIMService.PARALLEL_THRESHOLD,
+            TODIMService.PARALLEL_THRESHOLD + 1, 517})
+    void parallelKernelMatchesSequentialKernel(int rows) {
+        DecisionMatrix matrix = randomMatrix(rows, rows);
+
+        double[] sequential = todimService.applyTODIM(matrix, weights, false);
+        double[] parallel = todimService.applyTODIM(matrix, weights, true);
+
+        // Cada fila suma en el mismo orden en ambos caminos: los scores son idénticos
+        assertThat(parallel).containsExactly(sequential);
+        assertThat(todimService.applyTODIM(matrix, weights)).containsExactly(sequential);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 31, TODIMService.PARALLEL_THRESHOLD - 1, TODIMService.PARALLEL_THRESHOLD + 1})
+    void scoresMatchPairwiseDefinition(int rows) {
+        DecisionMatrix matrix = randomMatrix(rows, 31L * rows);
+
+        double[] expected = pairwiseTodim(matrix, weights);
+
+        assertThat(todimService.applyTODIM(matrix, weights)).containsExactly(expected, within(1e-9));
+    }
+
+    /**
+     * TODIM calculado par a par (como la implementación original), sin el kernel por columnas
+     */
+    private static double[] pairwiseTodim(DecisionMatrix matrix, WeightProfile weights) {
+        int rows = matrix.getRows();
+        int criteria = DecisionMatrix.CRITERIA_COUNT;
+
+        double[][] normalized = new double[rows][criteria];
+        for (int c = 0; c < criteria; c++) {
+            double min = Double.MAX_VALUE;
+            double max = Double.MIN_VALUE;
+            for (int i = 0; i < rows; i++) {
+                min = Math.min(min, matrix.get(i, c));
+                max = Math.max(max, matrix.get(i, c));
+            }
+            for (int i = 0; i < rows; i++) {
+                normalized[i][c] = max - min > 0 ? (matrix.get(i, c) - min) / (max - min) : 0.5;
+            }
+        }
+
+        double referenceWeight = weights.referenceWeight();
+        double[] dominance = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < rows; j++) {
+                if (i == j) {
+                    continue;
+                }
+                for (int c = 0; c < criteria; c++) {
+                    double relativeWeight = weights.weight(c) / referenceWeight;
+                    double difference = normalized[i][c] - normalized[j][c];
+                    if (difference > 0) {
+                        dominance[i] += Math.sqrt(relativeWeight * difference);
+                    } else if (difference < 0) {
+                        dominance[i] -= LOSS_AVERSION_LAMBDA * Math.sqrt(relativeWeight * -difference);
+                    }
+                }
+            }
+        }
+
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (double value : dominance) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        double[] scores = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            scores[i] = max - min > 0 ? (dominance[i] - min) / (max - min) : 0.5;
+        }
+        return scores;
+    }
+
+    /**
+     * Matriz aleatoria con empates: filas repetidas, valores a cero y una columna constante
+     */
+    private static DecisionMatrix randomMatrix(int rows, long seed) {
+        Random random = new Random(seed);
+        List<ItemCandidate> candidates = new ArrayList<>(rows);
+
+        for (int i = 0; i < rows; i++) {
+            double[] criteria;
+            if (i > 0 && random.nextInt(5) == 0) {
+                criteria = candidates.get(random.nextInt(i)).getCriteria().clone();
+            } else {
+                criteria = new double[DecisionMatrix.CRITERIA_COUNT];
+                for (int c = 0; c < criteria.length; c++) {
+                    criteria[c] = random.nextInt(3) == 0 ? 0.0 : random.nextInt(100);
+                }
+                criteria[ItemCandidate.Criterion.LIFE_STEAL.ordinal()] = 10.0;
+            }
+            candidates.add(ItemCandidate.builder()
+                    .itemId(String.valueOf(1000 + i))
+                    .criteria(criteria)
+                    .build());
+        }
+
+        return DecisionMatrix.of(candidates);
+    }
+}
@@ -0,0 +1,124 @@
+package rafa.tfg.infrastructure.batch.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import rafa.tfg.infrastructure.batch.listener.InsertRateListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Las importaciones deben poder repetirse: la segunda ejecución vuelve a leer los ficheros
+ * y actualiza las filas existentes en lugar de fallar por claves duplicadas
+ */
+@SpringBootTest
+class ImportJobRerunTest {
+
+    private static final List<String> TABLES = List.of("champions", "spells", "items", "rune_paths", "runes");
+
+    @Autowired
+    private JobLauncher jobLauncher;
+
+    @Autowired
+    @Qualifier("importAllJob")
+    private Job importAllJob;
+
+    @Autowired
+    @Qualifier("importChampionJob")
+    private Job importChampionJob;
+
+    @Autowired
+    @Qualifier("importItemJob")
+    private Job importItemJob;
+
+    @Autowired
+    @Qualifier("importRuneJob")
+    private Job importRuneJob;
+
+    @Autowired
+    @Qualifier("importSpellJob")
+    private Job importSpellJob;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void importAllJobCanRunTwice() throws Exception {
+        JobExecution first = run(importAllJob);
+        Map<String, Long> afterFirst = tableCounts();
+
+        JobExecution second = run(importAllJob);
+
+        assertCompletedWithReads(first);
+        assertCompletedWithReads(second);
+        assertThat(tableCounts()).isEqualTo(afterFirst);
+        assertThat(afterFirst)
+                .containsEntry("champions", 171L)
+                .containsEntry("spells", 684L)
+                .containsEntry("items", 292L)
+                .containsEntry("rune_paths", 5L);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM runes WHERE rune_path_id IS NULL", Long.class))
+                .isZero();
+        assertThat(rowsWritten(second, "runeStep"))
+                .isEqualTo(afterFirst.get("rune_paths") + afterFirst.get("runes"));
+    }
+
+    @Test
+    void singleJobsCanRunAfterImportAll() throws Exception {
+        run(importAllJob);
+        Map<String, Long> afterImportAll = tableCounts();
+
+        for (Job job : List.of(importChampionJob, importItemJob, importRuneJob, importSpellJob)) {
+            assertCompletedWithReads(run(job));
+            assertCompletedWithReads(run(job));
+        }
+
+        assertThat(tableCounts()).isEqualTo(afterImportAll);
+    }
+
+    private JobExecution run(Job job) throws Exception {
+        return jobLauncher.run(job, new JobParametersBuilder()
+                .addString("run.id", UUID.randomUUID().toString())
+                .toJobParameters());
+    }
+
+    private static void assertCompletedWithReads(JobExecution execution) {
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(execution.getStepExecutions())
+                .allSatisfy(step -> assertThat(step.getReadCount())
+                        .as("readCount of %s", step.getStepName())
+                        .isPositive());
+        assertThat(execution.getStepExecutions().stream().mapToLong(StepExecution::getWriteCount).sum())
+                .isPositive();
+    }
+
+    private static long rowsWritten(JobExecution execution, String stepName) {
+        return execution.getStepExecutions().stream()
+                .filter(step -> step.getStepName().equals(stepName))
+                .findFirst()
+                .orElseThrow()
+                .getExecutionContext()
+                .getLong(InsertRateListener.ROWS_WRITTEN_KEY);
+    }
+
+    private Map<String, Long> tableCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (String table : TABLES) {
+            counts.put(table, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class));
+        }
+        return counts;
+    }
+}
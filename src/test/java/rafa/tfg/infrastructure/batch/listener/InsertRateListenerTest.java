@@ -0,0 +1,54 @@
+package rafa.tfg.infrastructure.batch.listener;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InsertRateListenerTest {
+
+    private final InsertRateListener listener = new InsertRateListener();
+
+    @Test
+    void restartedStepReportsOnlyItsOwnWriteCount() {
+        // Contexto copiado de la ejecución fallida anterior
+        ExecutionContext previousContext = new ExecutionContext();
+        previousContext.putLong(InsertRateListener.ROWS_WRITTEN_KEY, 120L);
+        previousContext.putDouble(InsertRateListener.ROWS_PER_SECOND_KEY, 60.0);
+        StepExecution restarted = stepExecution(previousContext);
+
+        listener.beforeStep(restarted);
+        restarted.setWriteCount(7);
+        listener.afterStep(restarted);
+
+        assertThat(restarted.getExecutionContext().getLong(InsertRateListener.ROWS_WRITTEN_KEY)).isEqualTo(7L);
+    }
+
+    @Test
+    void restartedStepReportsOnlyTheRowsItsWriterRegistered() {
+        ExecutionContext previousContext = new ExecutionContext();
+        previousContext.putLong(InsertRateListener.ROWS_WRITTEN_KEY, 120L);
+        StepExecution restarted = stepExecution(previousContext);
+
+        listener.beforeStep(restarted);
+        // El writer suma sus filas a lo que haya en el contexto (como RunePathJdbcItemWriter)
+        ExecutionContext context = restarted.getExecutionContext();
+        context.putLong(InsertRateListener.ROWS_WRITTEN_KEY,
+                context.getLong(InsertRateListener.ROWS_WRITTEN_KEY, 0L) + 30L);
+        restarted.setWriteCount(5);
+        listener.afterStep(restarted);
+
+        assertThat(context.getLong(InsertRateListener.ROWS_WRITTEN_KEY)).isEqualTo(30L);
+    }
+
+    private static StepExecution stepExecution(ExecutionContext context) {
+        StepExecution stepExecution = new StepExecution("runeStep", new JobExecution(1L));
+        stepExecution.setStartTime(LocalDateTime.now());
+        stepExecution.setExecutionContext(context);
+        return stepExecution;
+    }
+}
@@ -0,0 +1,135 @@
+package rafa.tfg.infrastructure.batch.partition;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import rafa.tfg.infrastructure.batch.dto.SpellWithChampion;
+import rafa.tfg.infrastructure.batch.reader.ChampionSpellJsonItemReader;
+import rafa.tfg.infrastructure.batch.reader.DataDragonKeyItemReader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChampionKeyPartitionerTest {
+
+    private static final Resource CHAMPION_FULL = new ClassPathResource("data/championFull.json");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ChampionKeyPartitioner partitioner = new ChampionKeyPartitioner(CHAMPION_FULL, objectMapper);
+
+    @Test
+    void splitsChampionsIntoContiguousBalancedPartitions() throws Exception {
+        List<String> championKeys = readChampionKeys();
+
+        Map<String, ExecutionContext> partitions = partitioner.partition(4);
+
+        assertThat(partitions).hasSize(4);
+        int next = 0;
+        for (ExecutionContext partition : partitions.values()) {
+            int count = partition.getInt(ChampionKeyPartitioner.CHAMPION_COUNT_KEY);
+            assertThat(count).isBetween(championKeys.size() / 4, championKeys.size() / 4 + 1);
+            assertThat(partition.getString(ChampionKeyPartitioner.FIRST_CHAMPION_KEY)).isEqualTo(championKeys.get(next));
+            next += count;
+        }
+        assertThat(next).isEqualTo(championKeys.size());
+    }
+
+    @Test
+    void neverCreatesMorePartitionsThanChampions() throws Exception {
+        int champions = readChampionKeys().size();
+
+        Map<String, ExecutionContext> partitions = partitioner.partition(champions + 50);
+
+        assertThat(partitions).hasSize(champions);
+        assertThat(partitions.values())
+                .allSatisfy(partition -> assertThat(partition.getInt(ChampionKeyPartitioner.CHAMPION_COUNT_KEY)).isOne());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 4, 7})
+    void partitionReadersTogetherReadEverySpellOnce(int gridSize) throws Exception {
+        List<String> expected = readAll(new ChampionSpellJsonItemReader(CHAMPION_FULL, objectMapper), new ExecutionContext());
+
+        List<String> actual = new ArrayList<>();
+        for (ExecutionContext partition : partitioner.partition(gridSize).values()) {
+            actual.addAll(readAll(partitionReader(partition), new ExecutionContext(partition)));
+        }
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void partitionReaderRestartsFromItsExecutionContext() throws Exception {
+        ExecutionContext partition = partitioner.partition(4).get("partition1");
+        List<String> expected = readAll(partitionReader(partition), new ExecutionContext(partition));
+
+        // Primera ejecución: se leen 10 habilidades y se guarda la posición (como al hacer commit)
+        ExecutionContext stepContext = new ExecutionContext(partition);
+        ChampionSpellJsonItemReader firstRun = partitionReader(partition);
+        firstRun.open(stepContext);
+        for (int i = 0; i < 10; i++) {
+            firstRun.read();
+        }
+        firstRun.update(stepContext);
+        firstRun.close();
+
+        // Reinicio: continúa en la habilidad 11 de la partición
+        List<String> restarted = readAll(partitionReader(partition), stepContext);
+
+        assertThat(restarted).isEqualTo(expected.subList(10, expected.size()));
+    }
+
+    @Test
+    void partitionReaderRejectsAnOffsetThatDoesNotMatchItsFirstChampion() {
+        Map<String, ExecutionContext> partitions = partitioner.partition(4);
+        ExecutionContext partition = new ExecutionContext(partitions.get("partition1"));
+        partition.putString(ChampionKeyPartitioner.FIRST_CHAMPION_KEY,
+                partitions.get("partition0").getString(ChampionKeyPartitioner.FIRST_CHAMPION_KEY));
+
+        ChampionSpellJsonItemReader reader = partitionReader(partition);
+        reader.open(new ExecutionContext());
+
+        assertThatThrownBy(reader::read).isInstanceOf(ItemStreamException.class);
+        reader.close();
+    }
+
+    private ChampionSpellJsonItemReader partitionReader(ExecutionContext partition) {
+        ChampionSpellJsonItemReader reader = new ChampionSpellJsonItemReader(CHAMPION_FULL, objectMapper);
+        reader.setStartOffset(partition.getLong(ChampionKeyPartitioner.START_OFFSET_KEY));
+        reader.setFirstChampion(partition.getString(ChampionKeyPartitioner.FIRST_CHAMPION_KEY));
+        reader.setChampionCount(partition.getInt(ChampionKeyPartitioner.CHAMPION_COUNT_KEY));
+        return reader;
+    }
+
+    private static List<String> readAll(ChampionSpellJsonItemReader reader, ExecutionContext context) throws Exception {
+        List<String> spells = new ArrayList<>();
+        reader.open(context);
+        SpellWithChampion spell;
+        while ((spell = reader.read()) != null) {
+            spells.add(spell.championId + "/" + spell.spell.getId());
+        }
+        reader.close();
+        return spells;
+    }
+
+    private List<String> readChampionKeys() throws Exception {
+        DataDragonKeyItemReader reader = new DataDragonKeyItemReader(CHAMPION_FULL, objectMapper);
+        List<String> keys = new ArrayList<>();
+        reader.open(new ExecutionContext());
+        String key;
+        while ((key = reader.read()) != null) {
+            keys.add(key);
+        }
+        reader.close();
+        return keys;
+    }
+}
@@ -0,0 +1,98 @@
+package rafa.tfg.infrastructure.batch.reader;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.core.io.ClassPathResource;
+import rafa.tfg.infrastructure.batch.dto.ChampionJsonDTO;
+import rafa.tfg.infrastructure.batch.dto.RunePathJsonDTO;
+import rafa.tfg.infrastructure.batch.dto.SpellWithChampion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lectores en streaming de los ficheros de Data Dragon: lectura completa y reinicio desde
+ * la posición guardada en el ExecutionContext
+ */
+class DataDragonJsonItemReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void championReaderReadsEveryChampionAndRestarts() throws Exception {
+        assertReadsAndRestarts(
+                () -> new ChampionJsonItemReader(new ClassPathResource("data/champion.json"), objectMapper),
+                ChampionJsonDTO::getId, 171, 50);
+    }
+
+    @Test
+    void spellReaderReadsEverySpellAndRestarts() throws Exception {
+        assertReadsAndRestarts(
+                () -> new ChampionSpellJsonItemReader(new ClassPathResource("data/championFull.json"), objectMapper),
+                (SpellWithChampion spell) -> spell.championId + "/" + spell.spell.getId(), 684, 301);
+    }
+
+    @Test
+    void itemReaderReadsEveryItemAndRestarts() throws Exception {
+        assertReadsAndRestarts(
+                () -> new ItemJsonItemReader(new ClassPathResource("data/item.json"), objectMapper),
+                entry -> entry.getKey(), 635, 200);
+    }
+
+    @Test
+    void runePathReaderReadsEveryPathAndRestarts() throws Exception {
+        assertReadsAndRestarts(
+                () -> new RunePathJsonItemReader(new ClassPathResource("data/runesReforged.json"), objectMapper),
+                RunePathJsonDTO::getKey, 5, 2);
+    }
+
+    @Test
+    void readerReopenedWithANewContextStartsOver() throws Exception {
+        ChampionJsonItemReader reader = new ChampionJsonItemReader(new ClassPathResource("data/champion.json"), objectMapper);
+
+        List<String> first = readAll(reader, new ExecutionContext(), ChampionJsonDTO::getId);
+        List<String> second = readAll(reader, new ExecutionContext(), ChampionJsonDTO::getId);
+
+        assertThat(second).isEqualTo(first);
+    }
+
+    private static <T> void assertReadsAndRestarts(Supplier<AbstractItemCountingItemStreamItemReader<T>> readerFactory,
+                                                   Function<T, String> id, int expectedCount, int readBeforeRestart)
+            throws Exception {
+        List<String> expected = readAll(readerFactory.get(), new ExecutionContext(), id);
+        assertThat(expected).hasSize(expectedCount).doesNotHaveDuplicates();
+
+        // Primera ejecución interrumpida: se guarda la posición tras readBeforeRestart items
+        ExecutionContext context = new ExecutionContext();
+        AbstractItemCountingItemStreamItemReader<T> firstRun = readerFactory.get();
+        firstRun.open(context);
+        for (int i = 0; i < readBeforeRestart; i++) {
+            firstRun.read();
+        }
+        firstRun.update(context);
+        firstRun.close();
+
+        // Reinicio con el mismo contexto: continúa en el siguiente item
+        List<String> restarted = readAll(readerFactory.get(), context, id);
+
+        assertThat(restarted).isEqualTo(expected.subList(readBeforeRestart, expectedCount));
+    }
+
+    private static <T> List<String> readAll(AbstractItemCountingItemStreamItemReader<T> reader, ExecutionContext context,
+                                            Function<T, String> id) throws Exception {
+        List<String> ids = new ArrayList<>();
+        reader.open(context);
+        T item;
+        while ((item = reader.read()) != null) {
+            ids.add(id.apply(item));
+        }
+        reader.close();
+        return ids;
+    }
+}